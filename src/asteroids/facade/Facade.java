@@ -11,6 +11,7 @@ import asteroids.model.Entity;
 import asteroids.model.Ship;
 import asteroids.model.Planetoid;
 import asteroids.model.Asteroid;
+import asteroids.model.PopulationResult;
 
 
 import asteroids.model.World;
@@ -682,6 +683,15 @@ public class Facade implements asteroids.part3.facade.IFacade  {
 		}
 	}
 
+	@Override
+	public void fireBullets(Ship ship, int amount) throws ModelException {
+		try {
+			ship.fireBullets(amount);
+		} catch (IllegalArgumentException | NullPointerException exception) {
+			throw new ModelException("these are not valid arguments #82");
+		}
+	}
+
 	
 	///COLLISIONS///
 
@@ -810,6 +820,20 @@ public class Facade implements asteroids.part3.facade.IFacade  {
 			throw new ModelException("these are not valid arguments #52");
 		}
 	}
+
+	/**
+	 * Return all the entities of a given world that lie within a rectangle.
+	 * @see implementation
+	 */
+	@Override
+	public Set<? extends Object> getEntitiesInRectangle(World world, double left, double bottom, double right,
+			double top) throws ModelException {
+		try {
+			return world.getEntitiesInRectangle(left, bottom, right, top);
+		} catch (IllegalArgumentException | NullPointerException exception) {
+			throw new ModelException("these are not valid arguments #81");
+		}
+	}
 	/**
 	 * Return the number of students working in this team
 	 * @see implementation
@@ -898,6 +922,19 @@ public class Facade implements asteroids.part3.facade.IFacade  {
 			throw new ModelException("these are not valid arguments #58");
 		}
 	}
+	
+	/**
+	 * Add all the given entities that can be added to a given world.
+	 * @see implementation
+	 */
+	@Override
+	public PopulationResult populateWorld(World world, Collection<? extends Entity> entities) throws ModelException {
+		try {
+			return world.populate(entities);
+		} catch (IllegalArgumentException | NullPointerException exception) {
+			throw new ModelException("these are not valid arguments #80");
+		}
+	}
 
 	/**
 	 * Create an asteroid with given values.
@@ -0,0 +1,243 @@
+package asteroids.model;
+
+import asteroids.part2.CollisionListener;
+
+/**
+ * A class of batches of collision events, in the order in which the collisions happened. A world collects the
+ * collisions of a step in a batch that it reuses from step to step, and delivers the batch after the step has been
+ * completed (see World.evolve()).
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+public class CollisionBatch {
+
+	/// CONSTANTS ///
+
+	/**
+	 * The initial number of events a batch can hold without growing.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+
+	/// CONSTRUCTOR ///
+
+	/**
+	 * Initialize this new batch without events.
+	 */
+	CollisionBatch() {
+		this(INITIAL_CAPACITY);
+	}
+
+	private CollisionBatch(int capacity) {
+		first_entities = new Object[capacity];
+		second_entities = new Object[capacity];
+		positions = new double[capacity * 2];
+	}
+
+
+	/// GETTERS ///
+
+	/**
+	 * Return the number of events in this batch.
+	 *
+	 * @return 	The number of events.
+	 * 			@see implementation
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Check whether this batch has no events.
+	 *
+	 * @return 	True if and only if the size of this batch is zero.
+	 * 		  | result == (size() == 0)
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Check whether the event with the given index is a collision with a boundary.
+	 *
+	 * @param 	index
+	 * 			The index of the event.
+	 * @return 	True if and only if the event has no second entity.
+	 * 		  | result == (getSecondEntity(index) == null)
+	 * @throws 	IndexOutOfBoundsException
+	 * 			The index is not the index of an event of this batch.
+	 * 			@see implementation
+	 */
+	public boolean isBoundaryCollision(int index) throws IndexOutOfBoundsException {
+		return getSecondEntity(index) == null;
+	}
+
+	/**
+	 * Return the first entity of the event with the given index.
+	 *
+	 * @throws 	IndexOutOfBoundsException
+	 * 			The index is not the index of an event of this batch.
+	 * 			@see implementation
+	 */
+	public Object getFirstEntity(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return first_entities[index];
+	}
+
+	/**
+	 * Return the second entity of the event with the given index, null for a collision with a boundary.
+	 *
+	 * @throws 	IndexOutOfBoundsException
+	 * 			The index is not the index of an event of this batch.
+	 * 			@see implementation
+	 */
+	public Object getSecondEntity(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return second_entities[index];
+	}
+
+	/**
+	 * Return the x coordinate of the position of the event with the given index.
+	 *
+	 * @throws 	IndexOutOfBoundsException
+	 * 			The index is not the index of an event of this batch.
+	 * 			@see implementation
+	 */
+	public double getX(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return positions[index * 2];
+	}
+
+	/**
+	 * Return the y coordinate of the position of the event with the given index.
+	 *
+	 * @throws 	IndexOutOfBoundsException
+	 * 			The index is not the index of an event of this batch.
+	 * 			@see implementation
+	 */
+	public double getY(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return positions[index * 2 + 1];
+	}
+
+	private void checkIndex(int index) throws IndexOutOfBoundsException {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+	}
+
+
+	/// DELIVERY ///
+
+	/**
+	 * Deliver the events of this batch to the given listener.
+	 *
+	 * @param 	listener
+	 * 			The listener to deliver the events to.
+	 * @effect 	If the listener is a batch listener, the batch is delivered at once.
+	 * 		  | if (listener instanceof CollisionBatchListener)
+	 * 		  |		then ((CollisionBatchListener) listener).collisionBatch(this)
+	 * @effect 	Otherwise every event is delivered on its own, in order.
+	 * 			@see implementation
+	 */
+	public void deliverTo(CollisionListener listener) {
+		if (listener instanceof CollisionBatchListener) {
+			((CollisionBatchListener) listener).collisionBatch(this);
+			return;
+		}
+		for (int i = 0; i < size; i++) {
+			if (second_entities[i] == null)
+				listener.boundaryCollision(first_entities[i], positions[i * 2], positions[i * 2 + 1]);
+			else
+				listener.objectCollision(first_entities[i], second_entities[i], positions[i * 2], positions[i * 2 + 1]);
+		}
+	}
+
+
+	/// ADDERS ///
+
+	/**
+	 * Add an event at the end of this batch.
+	 *
+	 * @param 	entity1
+	 * 			The first entity of the collision.
+	 * @param 	entity2
+	 * 			The second entity of the collision, null for a collision with a boundary.
+	 * @post 	The event is the last event of this batch.
+	 * 			@see implementation
+	 */
+	void add(Object entity1, Object entity2, double x, double y) {
+		if (size == first_entities.length) {
+			CollisionBatch larger = new CollisionBatch(size * 2);
+			copyInto(larger);
+			first_entities = larger.first_entities;
+			second_entities = larger.second_entities;
+			positions = larger.positions;
+		}
+		first_entities[size] = entity1;
+		second_entities[size] = entity2;
+		positions[size * 2] = x;
+		positions[size * 2 + 1] = y;
+		size++;
+	}
+
+	/**
+	 * Return a new batch with the same events as this batch, which does not change when this batch changes.
+	 *
+	 * @return 	A batch with the events of this batch.
+	 * 			@see implementation
+	 */
+	CollisionBatch copy() {
+		CollisionBatch result = new CollisionBatch(Math.max(size, 1));
+		copyInto(result);
+		result.size = size;
+		return result;
+	}
+
+	private void copyInto(CollisionBatch other) {
+		System.arraycopy(first_entities, 0, other.first_entities, 0, size);
+		System.arraycopy(second_entities, 0, other.second_entities, 0, size);
+		System.arraycopy(positions, 0, other.positions, 0, size * 2);
+	}
+
+
+	/// REMOVERS ///
+
+	/**
+	 * Remove all the events of this batch, keeping its capacity.
+	 *
+	 * @post 	The batch is empty, and holds no references to entities.
+	 * 			@see implementation
+	 */
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			first_entities[i] = null;
+			second_entities[i] = null;
+		}
+		size = 0;
+	}
+
+
+	/// FIELDS ///
+
+	/**
+	 * The first entities of the events.
+	 */
+	private Object[] first_entities;
+
+	/**
+	 * The second entities of the events, null for collisions with a boundary.
+	 */
+	private Object[] second_entities;
+
+	/**
+	 * The positions of the events, as x and y coordinates one after the other.
+	 */
+	private double[] positions;
+
+	/**
+	 * The number of events.
+	 */
+	private int size = 0;
+
+}
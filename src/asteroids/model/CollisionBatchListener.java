@@ -0,0 +1,24 @@
+package asteroids.model;
+
+import asteroids.part2.CollisionListener;
+
+/**
+ * An interface for collision listeners that process the collisions of a step of a world at once. A world that evolves
+ * with a batch listener delivers all the collisions of the step in a single invocation of collisionBatch(), instead of
+ * invoking boundaryCollision() and objectCollision() for every collision.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+public interface CollisionBatchListener extends CollisionListener {
+
+	/**
+	 * Receive the collisions of a completed step.
+	 *
+	 * @param 	batch
+	 * 			The collisions of the step, in the order in which they happened.
+	 * @note	A batch that is delivered on the thread that evolves the world is reused by the world for the next step,
+	 * 			it must not be kept after this method returns.
+	 */
+	void collisionBatch(CollisionBatch batch);
+}
@@ -0,0 +1,68 @@
+package asteroids.model;
+
+/**
+ * An enumeration of the kinds of collisions that can be resolved in a world. The kind of a collision between two
+ * entities does not depend on the order of the entities.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+public enum CollisionKind {
+	BOUNDARY, SHIP_SHIP, SHIP_BULLET, SHIP_ASTEROID, SHIP_PLANETOID, BULLET_BULLET, BULLET_ASTEROID, BULLET_PLANETOID,
+	ASTEROID_ASTEROID, ASTEROID_PLANETOID, PLANETOID_PLANETOID;
+
+	/**
+	 * Return the kind of the collision between two entities.
+	 *
+	 * @param 	entity1
+	 * 			The first entity of the collision.
+	 * @param 	entity2
+	 * 			The second entity of the collision, null if the first entity collides with a boundary.
+	 *
+	 * @return 	BOUNDARY if the second entity is null.
+	 * 			@see implementation
+	 * @return 	The kind that corresponds with the types of both entities in all other cases.
+	 * 			@see implementation
+	 */
+	public static CollisionKind of(Entity entity1, Entity entity2) {
+		if (entity2 == null)
+			return BOUNDARY;
+
+		int rank1 = getRank(entity1);
+		int rank2 = getRank(entity2);
+
+		return PAIRS[Math.min(rank1, rank2)][Math.max(rank1, rank2)];
+	}
+
+	/**
+	 * Return the rank of the type of the given entity, used to look up a collision kind.
+	 *
+	 * @param 	entity
+	 * 			The entity that has to be ranked.
+	 *
+	 * @return 	0 for ships, 1 for bullets, 2 for asteroids and 3 for planetoids.
+	 * 			@see implementation
+	 */
+	private static int getRank(Entity entity) {
+		if (entity instanceof Ship)
+			return 0;
+
+		else if (entity instanceof Bullet)
+			return 1;
+
+		else if (entity instanceof Asteroid)
+			return 2;
+
+		else
+			return 3;
+	}
+
+	/**
+	 * The table with the kind of collision for every (ordered) pair of ranks.
+	 */
+	private static final CollisionKind[][] PAIRS = {
+			{ SHIP_SHIP, SHIP_BULLET, SHIP_ASTEROID, SHIP_PLANETOID },
+			{ null, BULLET_BULLET, BULLET_ASTEROID, BULLET_PLANETOID },
+			{ null, null, ASTEROID_ASTEROID, ASTEROID_PLANETOID },
+			{ null, null, null, PLANETOID_PLANETOID } };
+}
@@ -0,0 +1,278 @@
+package asteroids.model;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A telemetry sink that writes the statistics of every tick as a line to a rotating CSV file. The statistics are
+ * written asynchronously by a background thread, the evolving thread only puts them in a bounded queue. When the queue
+ * is full (the disk can't keep up) statistics are dropped instead of slowing down the world.
+ *
+ * When the current file exceeds the maximum file size, it is rotated: "name.csv" becomes "name.1.csv", "name.1.csv"
+ * becomes "name.2.csv", ... and the oldest file is deleted.
+ *
+ * The program columns of a line hold the programs that were executed since the previous tick: programs are executed
+ * outside of evolve(), so their time is attributed to the tick that follows (see TickStatistics.getProgramNanos()).
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+public class CsvTelemetrySink implements TelemetrySink, Closeable {
+
+	/// CONSTRUCTOR ///
+
+	/**
+	 * Initializes a new CSV telemetry sink that writes to the given file.
+	 *
+	 * @param 	file
+	 * 			The file to write to, for example "telemetry.csv".
+	 * @param 	max_file_size
+	 * 			The size in bytes after which the file is rotated.
+	 * @param 	max_files
+	 * 			The number of rotated files that are kept next to the current file.
+	 * @param 	queue_capacity
+	 * 			The number of ticks that can be waiting to be written.
+	 *
+	 * @throws 	IllegalArgumentException
+	 * 			If the file is null or one of the sizes is not strictly positive.
+	 * 		  | file == null || max_file_size <= 0 || max_files < 0 || queue_capacity <= 0
+	 */
+	public CsvTelemetrySink(File file, long max_file_size, int max_files, int queue_capacity)
+			throws IllegalArgumentException {
+		if (file == null || max_file_size <= 0 || max_files < 0 || queue_capacity <= 0)
+			throw new IllegalArgumentException();
+
+		this.file = file;
+		this.max_file_size = max_file_size;
+		this.max_files = max_files;
+		this.queue = new ArrayBlockingQueue<TickStatistics>(queue_capacity);
+
+		this.writer_thread = new Thread(this::writeLoop, "telemetry-writer");
+		this.writer_thread.setDaemon(true);
+		this.writer_thread.start();
+	}
+
+	/**
+	 * Initializes a new CSV telemetry sink that writes to the given file, with default rotation settings.
+	 *
+	 * @param 	file
+	 * 			The file to write to.
+	 *
+	 * @effect 	A sink that rotates after 10MB, keeps 5 old files and buffers 4096 ticks is made.
+	 * 			@see implementation
+	 */
+	public CsvTelemetrySink(File file) throws IllegalArgumentException {
+		this(file, 10 * 1024 * 1024, 5, 4096);
+	}
+
+
+	/// CONSTANTS ///
+
+	/**
+	 * The first line of every file.
+	 */
+	private static final String HEADER;
+
+	static {
+		StringBuilder header = new StringBuilder(
+				"tick,dt,tick_nanos,ships,bullets,asteroids,planetoids,sub_steps,collision_search_nanos,"
+				+ "program_nanos,program_executions,planetoid_divisions");
+		for (CollisionKind kind : CollisionKind.values())
+			header.append(',').append(kind.name().toLowerCase());
+		HEADER = header.toString();
+	}
+
+
+	/// TELEMETRY ///
+
+	/**
+	 * Queue the statistics of a completed tick to be written.
+	 *
+	 * @param 	statistics
+	 * 			The statistics of the tick.
+	 *
+	 * @effect 	If the sink is not closed and the queue is not full, the statistics are queued.
+	 * 			@see implementation
+	 * @effect 	Otherwise the statistics are dropped and counted as dropped.
+	 * 			@see implementation
+	 */
+	@Override
+	public void tickCompleted(TickStatistics statistics) {
+		if (closed || !queue.offer(statistics))
+			dropped.incrementAndGet();
+	}
+
+	/**
+	 * Return the number of ticks that were dropped because the queue was full or the sink was closed.
+	 *
+	 * @return 	The number of dropped ticks.
+	 * 			@see implementation
+	 */
+	public long getDroppedTicks() {
+		return dropped.get();
+	}
+
+	/**
+	 * Close the sink. The ticks that are still queued are written before the file is closed.
+	 *
+	 * @throws 	IOException
+	 * 			If the writer thread reported an error while writing.
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		try {
+			writer_thread.join();
+		} catch (InterruptedException interruptedException) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (error != null)
+			throw error;
+	}
+
+
+	/// WRITING ///
+
+	/**
+	 * The loop of the writer thread, it writes queued statistics until the sink is closed and the queue is empty.
+	 */
+	private void writeLoop() {
+		try {
+			while (!closed || !queue.isEmpty()) {
+				TickStatistics statistics = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (statistics == null) {
+					if (out != null)
+						out.flush();
+					continue;
+				}
+				writeLine(toCsv(statistics));
+			}
+		} catch (IOException ioException) {
+			error = ioException;
+			closed = true;
+		} catch (InterruptedException interruptedException) {
+			closed = true;
+		} finally {
+			try {
+				if (out != null)
+					out.close();
+			} catch (IOException ioException) {
+				if (error == null)
+					error = ioException;
+			}
+		}
+	}
+
+	/**
+	 * Write a line to the current file, rotating the file first if it has become too large.
+	 *
+	 * @param 	line
+	 * 			The line that has to be written.
+	 */
+	private void writeLine(String line) throws IOException {
+		if (out == null || written >= max_file_size) {
+			if (out != null) {
+				out.close();
+				rotate();
+			}
+			out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+			out.write(HEADER);
+			out.write('\n');
+			written = HEADER.length() + 1;
+		}
+		out.write(line);
+		out.write('\n');
+		written += line.length() + 1;
+	}
+
+	/**
+	 * Shift the rotated files by one and move the current file to the first rotated file.
+	 */
+	private void rotate() {
+		if (max_files == 0) {
+			file.delete();
+			return;
+		}
+
+		rotatedFile(max_files).delete();
+		for (int i = max_files - 1; i >= 1; i--) {
+			File source = rotatedFile(i);
+			if (source.exists())
+				source.renameTo(rotatedFile(i + 1));
+		}
+		file.renameTo(rotatedFile(1));
+	}
+
+	/**
+	 * Return the rotated file with the given index, "name.csv" with index 2 becomes "name.2.csv".
+	 *
+	 * @param 	index
+	 * 			The index of the rotated file.
+	 *
+	 * @return 	The rotated file.
+	 * 			@see implementation
+	 */
+	private File rotatedFile(int index) {
+		String name = file.getName();
+		int dot = name.lastIndexOf('.');
+		String rotated = (dot < 0) ? (name + "." + index) : (name.substring(0, dot) + "." + index + name.substring(dot));
+		return new File(file.getAbsoluteFile().getParentFile(), rotated);
+	}
+
+	/**
+	 * Return the given statistics as a line of comma separated values, in the order of the header.
+	 *
+	 * @param 	statistics
+	 * 			The statistics that have to be formatted.
+	 *
+	 * @return 	The CSV line.
+	 * 			@see implementation
+	 */
+	static String toCsv(TickStatistics statistics) {
+		StringBuilder line = new StringBuilder(128);
+		line.append(statistics.getTickNumber()).append(',')
+				.append(statistics.getEvolvingTime()).append(',')
+				.append(statistics.getTickNanos()).append(',')
+				.append(statistics.getShipCount()).append(',')
+				.append(statistics.getBulletCount()).append(',')
+				.append(statistics.getAsteroidCount()).append(',')
+				.append(statistics.getPlanetoidCount()).append(',')
+				.append(statistics.getSubSteps()).append(',')
+				.append(statistics.getCollisionSearchNanos()).append(',')
+				.append(statistics.getProgramNanos()).append(',')
+				.append(statistics.getProgramExecutions()).append(',')
+				.append(statistics.getPlanetoidDivisions());
+		for (CollisionKind kind : CollisionKind.values())
+			line.append(',').append(statistics.getCollisionCount(kind));
+		return line.toString();
+	}
+
+
+	/// PROPERTIES ///
+
+	private final File file;
+	private final long max_file_size;
+	private final int max_files;
+	private final BlockingQueue<TickStatistics> queue;
+	private final Thread writer_thread;
+	private final AtomicLong dropped = new AtomicLong();
+	private volatile boolean closed = false;
+	private volatile IOException error = null;
+
+	/**
+	 * The writer of the current file and the number of characters written to it, only used by the writer thread.
+	 */
+	private Writer out = null;
+	private long written = 0;
+}
@@ -201,16 +201,23 @@ public abstract class Entity {
 		
 		double radius1 = getEntityRadius();
 
-		double time_till_overlapping = getTimeToCollision(entity);
+		double time_till_overlapping = getTimeToCollision(entity, Double.POSITIVE_INFINITY);
 
 		if (time_till_overlapping == Double.POSITIVE_INFINITY)
 			return null;
 
 		else {
-			double collidingPosition1X = position1X + velocity1X * time_till_overlapping;
-			double collidingPosition1Y = position1Y + velocity1Y * time_till_overlapping;
-			double collidingPosition2X = position2X + velocity2X * time_till_overlapping;
-			double collidingPosition2Y = position2Y + velocity2Y * time_till_overlapping;
+			// Accelerating entities also move over half their acceleration times the square of the time.
+			double squared_time = time_till_overlapping * time_till_overlapping / 2;
+			
+			double collidingPosition1X = position1X + velocity1X * time_till_overlapping 
+					+ getEntityAccelerationX() * squared_time;
+			double collidingPosition1Y = position1Y + velocity1Y * time_till_overlapping 
+					+ getEntityAccelerationY() * squared_time;
+			double collidingPosition2X = position2X + velocity2X * time_till_overlapping 
+					+ entity.getEntityAccelerationX() * squared_time;
+			double collidingPosition2Y = position2Y + velocity2Y * time_till_overlapping 
+					+ entity.getEntityAccelerationY() * squared_time;
 			
 			double delta_x = (collidingPosition2X - collidingPosition1X);
 			double delta_y = (collidingPosition2Y - collidingPosition1Y);
@@ -428,7 +435,7 @@ public abstract class Entity {
 	 * 			@see implementation
 	 */
 	public double[] getPositionCollisionBoundary() {
-		double time = getTimeCollisionBoundary();
+		double time = getTimeCollisionBoundary(Double.POSITIVE_INFINITY);
 		double collidingPositionX = 0;
 		double collidingPositionY = 0;
 
@@ -448,8 +455,8 @@ public abstract class Entity {
 			double radius = getEntityRadius();
 			
 			boolean collision_happened = false;
-			collidingPositionX = Math.abs(positionX + time * velocityX);
-			collidingPositionY = Math.abs(positionY + time * velocityY);
+			collidingPositionX = Math.abs(positionX + time * velocityX + getEntityAccelerationX() * time * time / 2);
+			collidingPositionY = Math.abs(positionY + time * velocityY + getEntityAccelerationY() * time * time / 2);
 
 			// Right boundary
 			if ((collidingPositionX + OMEGA * radius) <= width && width <= (collidingPositionX + BETA * radius)){
@@ -612,6 +619,115 @@ public abstract class Entity {
 	}
 	
 	
+	/**
+	 * Return the time until the entity collides with a boundary of its world, taking the acceleration of the entity
+	 * into account.
+	 * 
+	 * @param 	horizon
+	 * 			The time after which collisions don't matter.
+	 * 
+	 * @return 	The time until the collision with a boundary if the entity doesn't accelerate.
+	 * 		  | if (!isEntityAccelerating())
+	 * 		  |   result == getTimeCollisionBoundary()
+	 * @return 	Otherwise, the first time within the horizon where the entity, moving with a constant acceleration, 
+	 * 			touches a boundary while moving towards it. POSITIVE_INFINITY if there is no such time.
+	 * 			@see implementation
+	 */
+	double getTimeCollisionBoundary(double horizon) {
+		if (!isEntityAccelerating() || !isEntityInWorld())
+			return getTimeCollisionBoundary();
+		
+		double radius = getEntityRadius();
+		double width = getEntityWorld().getWorldWidth();
+		double height = getEntityWorld().getWorldHeight();
+		
+		double result = Double.POSITIVE_INFINITY;
+		result = Math.min(result, getTimeToWall(getEntityPositionX() - radius, getEntityVelocityX(), 
+				getEntityAccelerationX(), horizon));
+		result = Math.min(result, getTimeToWall(width - radius - getEntityPositionX(), -getEntityVelocityX(), 
+				-getEntityAccelerationX(), horizon));
+		result = Math.min(result, getTimeToWall(getEntityPositionY() - radius, getEntityVelocityY(), 
+				getEntityAccelerationY(), horizon));
+		result = Math.min(result, getTimeToWall(height - radius - getEntityPositionY(), -getEntityVelocityY(), 
+				-getEntityAccelerationY(), horizon));
+		return result;
+	}
+	
+	/**
+	 * Return the time until a distance to a wall becomes zero, when it changes with the given speed and 
+	 * acceleration.
+	 * 
+	 * @param 	distance
+	 * 			The current distance to the wall.
+	 * @param 	speed
+	 * 			The speed at which the distance increases.
+	 * @param 	acceleration
+	 * 			The acceleration at which the distance increases.
+	 * @param 	horizon
+	 * 			The time after which collisions don't matter.
+	 * 
+	 * @return 	Zero if the entity already touches the wall and moves towards it, POSITIVE_INFINITY if it already 
+	 * 			touches the wall and moves away from it.
+	 * 			@see implementation
+	 * @return 	The first time the distance becomes zero within the horizon, POSITIVE_INFINITY if there is none.
+	 * 			@see implementation
+	 */
+	private static double getTimeToWall(double distance, double speed, double acceleration, double horizon) {
+		if (distance <= 0)
+			return (speed < 0) ? 0 : Double.POSITIVE_INFINITY;
+		
+		double[] polynomial = { distance, speed, acceleration / 2 };
+		return PolynomialRoots.firstEntry(polynomial, 0, horizon);
+	}
+	
+	/**
+	 * Return the time until the entity collides with the given entity, taking the acceleration of both entities 
+	 * into account.
+	 * 
+	 * @param 	entity
+	 * 			The other entity.
+	 * @param 	horizon
+	 * 			The time after which collisions don't matter.
+	 * 
+	 * @return 	The time until the collision if neither entity accelerates.
+	 * 		  | if (!isEntityAccelerating() && !entity.isEntityAccelerating())
+	 * 		  |   result == getTimeToCollision(entity)
+	 * @return 	Otherwise, the first time within the horizon where the entities, moving with a constant acceleration, 
+	 * 			touch each other. This is the first root of the quartic |r + v*t + a*t^2/2|^2 - (r1 + r2)^2, with r, v
+	 * 			and a the relative position, velocity and acceleration. POSITIVE_INFINITY if there is no such time.
+	 * 			@see implementation
+	 * 
+	 * @throws	IllegalArgumentException if the two entities overlap.
+	 *		  | (this.overlap(otherEntity))
+	 */
+	double getTimeToCollision(Entity entity, double horizon) throws IllegalArgumentException {
+		if (!isEntityAccelerating() && !entity.isEntityAccelerating())
+			return getTimeToCollision(entity);
+		
+		if (this.overlap(entity))
+			throw new IllegalArgumentException();
+		
+		if ((!isEntityInWorld() && hasEntityProperState())
+				|| (!entity.isEntityInWorld() && entity.hasEntityProperState()))
+			return Double.POSITIVE_INFINITY;
+		
+		double rX = entity.getEntityPositionX() - getEntityPositionX();
+		double rY = entity.getEntityPositionY() - getEntityPositionY();
+		double vX = entity.getEntityVelocityX() - getEntityVelocityX();
+		double vY = entity.getEntityVelocityY() - getEntityVelocityY();
+		double aX = entity.getEntityAccelerationX() - getEntityAccelerationX();
+		double aY = entity.getEntityAccelerationY() - getEntityAccelerationY();
+		double total_radius = getEntityRadius() + entity.getEntityRadius();
+		
+		double[] polynomial = { rX * rX + rY * rY - total_radius * total_radius, 
+				2 * (rX * vX + rY * vY), 
+				vX * vX + vY * vY + rX * aX + rY * aY, 
+				vX * aX + vY * aY, 
+				(aX * aX + aY * aY) / 4 };
+		return PolynomialRoots.firstEntry(polynomial, 0, horizon);
+	}
+	
+	
 	/// SETTERS ///
 
 	/**
@@ -727,6 +843,8 @@ public abstract class Entity {
 
 		position.setPositionX(positionX);
 		position.setPositionY(positionY);
+		motion_version++;
+		notifyWorldOfChange();
 	}
 
 	/**
@@ -743,8 +861,11 @@ public abstract class Entity {
 	 * 			@see implementation
 	 */
 	protected void setEntityRadius(double radius) throws IllegalArgumentException {
-		if (isValidRadius(radius))
+		if (isValidRadius(radius)) {
 			this.radius = radius;
+			motion_version++;
+			notifyWorldOfChange();
+		}
 		
 		else
 			throw new IllegalArgumentException();
@@ -807,6 +928,8 @@ public abstract class Entity {
 
 		velocity.setVelocityX(velocityX);
 		velocity.setVelocityY(velocityY);
+		motion_version++;
+		notifyWorldOfMotionChange();
 	}
 
 	/**
@@ -836,6 +959,38 @@ public abstract class Entity {
 	protected void setPositionWithoutChecking(double positionX, double positionY) {
 		position.setPositionX(positionX);
 		position.setPositionY(positionY);
+		
+		// Moving along its path together with all the other entities of the world doesn't change the motion of the 
+		// entity, every other change of position does.
+		if (world == null || !world.isAdvancing())
+			motion_version++;
+		
+		notifyWorldOfChange();
+	}
+	
+	/**
+	 * Let the world of the entity know that the position or radius of the entity changed, so it can update its index.
+	 * 
+	 * @effect 	If the entity has a world, the world is notified.
+	 * 		  | if (getEntityWorld() != null)
+	 * 		  |   getEntityWorld().entityChanged(this)
+	 */
+	private void notifyWorldOfChange() {
+		if (world != null)
+			world.entityChanged(this);
+	}
+	
+	/**
+	 * Let the world of the entity know that the motion of the entity changed, so it can check whether the entity 
+	 * is at rest.
+	 * 
+	 * @effect 	If the entity has a world, the world is notified.
+	 * 		  | if (getEntityWorld() != null)
+	 * 		  |   getEntityWorld().entityMotionChanged(this)
+	 */
+	protected void notifyWorldOfMotionChange() {
+		if (world != null)
+			world.entityMotionChanged(this);
 	}
 
 
@@ -962,6 +1117,57 @@ public abstract class Entity {
 		return ((0 <= orientation) && (orientation < 2 * Math.PI));
 	}
 
+	/**
+	 * Return the x-value of the acceleration of the entity.
+	 * 
+	 * @return 	Zero, entities don't accelerate by themselves.
+	 * 			@see implementation
+	 */
+	double getEntityAccelerationX() {
+		return 0;
+	}
+	
+	/**
+	 * Return the y-value of the acceleration of the entity.
+	 * 
+	 * @return 	Zero, entities don't accelerate by themselves.
+	 * 			@see implementation
+	 */
+	double getEntityAccelerationY() {
+		return 0;
+	}
+	
+	/**
+	 * Checks whether the entity accelerates.
+	 * 
+	 * @return 	True if and only if the acceleration of the entity is not zero.
+	 * 			@see implementation
+	 */
+	boolean isEntityAccelerating() {
+		return getEntityAccelerationX() != 0 || getEntityAccelerationY() != 0;
+	}
+
+	/**
+	 * Return the motion version of the entity. The motion version changes whenever the position, velocity or radius 
+	 * of the entity changes in another way than by moving along its path together with its world.
+	 * 
+	 * @return 	The motion version.
+	 * 			@see implementation
+	 */
+	long getMotionVersion() {
+		return motion_version;
+	}
+
+	/**
+	 * Checks whether the entity is at rest, an entity at rest stays at the same position when it moves.
+	 * 
+	 * @return 	True if and only if the velocity of the entity is zero.
+	 * 			@see implementation
+	 */
+	boolean isEntityAtRest() {
+		return getEntityVelocityX() == 0 && getEntityVelocityY() == 0;
+	}
+
 	/**
 	 * Checks whether a position is valid or not.
 	 * 
@@ -1175,11 +1381,7 @@ public abstract class Entity {
 	 * 			@see implementation
 	 */
 	protected Entity entityOverlappingInWorld(World world) {
-		for (Entity entity : world.getWorldEntities())
-			if (this.overlap( entity) && !this.equals(entity))
-				return entity;
-		
-		return null;
+		return world.getEntityOverlapping(this);
 	}
 	
 	/**
@@ -1417,5 +1619,10 @@ public abstract class Entity {
 	 */
 	private World world = null;
 	
+	/**
+	 * The motion version of the entity.
+	 */
+	private long motion_version = 0;
+	
 }
 
@@ -0,0 +1,261 @@
+package asteroids.model;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A class of caches for the times of impact of pairs of entities and of entities with the boundaries of their world.
+ * A time of impact is stored as an absolute time of the world, so it stays valid while the entities move along their
+ * path: the time until the impact is found by subtracting the current time of the world.
+ *
+ * An entry is only valid as long as the motion versions of its entities are the same as when it was computed. The
+ * motion version of an entity changes whenever its motion is no longer the continuation of its path, like a change of
+ * velocity, radius or a teleport.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+class ImpactCache {
+
+	/// CONSTANTS ///
+
+	/**
+	 * The minimal number of entries before the cache is pruned.
+	 */
+	private static final int MINIMAL_PRUNE_SIZE = 256;
+
+
+	/// GETTERS ///
+
+	/**
+	 * Return the time until the collision of the given entities.
+	 *
+	 * @param 	entity1
+	 * 			The first entity, which has the smallest hash-code of both entities.
+	 * @param 	entity2
+	 * 			The second entity.
+	 * @param 	world_time
+	 * 			The current time of the world.
+	 *
+	 * @return 	The time until the collision, as computed by entity1.getTimeToCollision(entity2) at the moment the
+	 * 			entry was made.
+	 * 			@see implementation
+	 */
+	double getTimeToCollision(Entity entity1, Entity entity2, double world_time) {
+		Long key = ((long) entity1.hashCode() << 32) | (entity2.hashCode() & 0xFFFFFFFFL);
+		Impact impact = pairs.get(key);
+
+		if (impact == null || !impact.isValidFor(entity1, entity2)) {
+			misses++;
+			Impact previous = impact;
+			impact = new Impact(entity1, entity2, world_time + entity1.getTimeToCollision(entity2));
+			pairs.put(key, impact);
+			if (previous == null || previous.entity1 != entity1 || previous.entity2 != entity2) {
+				if (previous != null)
+					unindex(key, previous);
+				index(key, entity1);
+				index(key, entity2);
+			}
+		}
+		else
+			hits++;
+
+		impact.stamp = search;
+		return impact.time - world_time;
+	}
+
+	/**
+	 * Return the time until the collision of the given entity with a boundary of its world.
+	 *
+	 * @param 	entity
+	 * 			The entity.
+	 * @param 	world_time
+	 * 			The current time of the world.
+	 *
+	 * @return 	The time until the collision, as computed by entity.getTimeCollisionBoundary() at the moment the entry
+	 * 			was made.
+	 * 			@see implementation
+	 */
+	double getTimeCollisionBoundary(Entity entity, double world_time) {
+		Impact impact = boundaries.get(entity);
+
+		if (impact == null || !impact.isValidFor(entity, null)) {
+			misses++;
+			impact = new Impact(entity, null, world_time + entity.getTimeCollisionBoundary());
+			boundaries.put(entity, impact);
+		}
+		else
+			hits++;
+
+		impact.stamp = search;
+		return impact.time - world_time;
+	}
+
+	/**
+	 * Return the number of times a time of impact was found in the cache.
+	 */
+	long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Return the number of times a time of impact had to be computed.
+	 */
+	long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Return the number of entries in the cache.
+	 */
+	int size() {
+		return pairs.size() + boundaries.size();
+	}
+
+
+	/// PRUNING ///
+
+	/**
+	 * Finish a search for the next collision. If the cache has grown much larger than the number of entries used
+	 * during the search, the entries that weren't used are removed.
+	 *
+	 * @param 	used
+	 * 			The number of entries used during the search.
+	 */
+	void endSearch(int used) {
+		if (size() > Math.max(MINIMAL_PRUNE_SIZE, 2 * used)) {
+			Iterator<Map.Entry<Long, Impact>> pairIterator = pairs.entrySet().iterator();
+			while (pairIterator.hasNext()) {
+				Map.Entry<Long, Impact> entry = pairIterator.next();
+				if (entry.getValue().stamp != search) {
+					pairIterator.remove();
+					unindex(entry.getKey(), entry.getValue());
+				}
+			}
+			
+			Iterator<Impact> boundaryIterator = boundaries.values().iterator();
+			while (boundaryIterator.hasNext())
+				if (boundaryIterator.next().stamp != search)
+					boundaryIterator.remove();
+		}
+		search++;
+	}
+
+	/**
+	 * Remove the entries of the given entity from the cache, so the cache no longer refers to it.
+	 *
+	 * @param 	entity
+	 * 			The entity that left the world.
+	 * @note	Only the pairs of the entity are visited, through the index of pairs by entity.
+	 */
+	void remove(Entity entity) {
+		boundaries.remove(entity);
+		
+		Set<Long> keys = pair_keys.remove(entity);
+		if (keys == null)
+			return;
+		
+		for (Long key : keys) {
+			Impact impact = pairs.remove(key);
+			unindex(key, (impact.entity1 == entity) ? impact.entity2 : impact.entity1);
+		}
+	}
+
+	/**
+	 * Remove every entry from the cache.
+	 */
+	void clear() {
+		pairs.clear();
+		boundaries.clear();
+		pair_keys.clear();
+	}
+
+	/**
+	 * Add the given key of a pair to the keys of the given entity.
+	 */
+	private void index(Long key, Entity entity) {
+		Set<Long> keys = pair_keys.get(entity);
+		if (keys == null) {
+			keys = new HashSet<Long>(4);
+			pair_keys.put(entity, keys);
+		}
+		keys.add(key);
+	}
+
+	/**
+	 * Remove the given key of a pair from the keys of both entities of the given entry.
+	 */
+	private void unindex(Long key, Impact impact) {
+		unindex(key, impact.entity1);
+		unindex(key, impact.entity2);
+	}
+
+	/**
+	 * Remove the given key of a pair from the keys of the given entity.
+	 */
+	private void unindex(Long key, Entity entity) {
+		Set<Long> keys = pair_keys.get(entity);
+		if (keys != null) {
+			keys.remove(key);
+			if (keys.isEmpty())
+				pair_keys.remove(entity);
+		}
+	}
+
+
+	/// ENTRIES ///
+
+	/**
+	 * A class of cached times of impact.
+	 */
+	private static class Impact {
+
+		Impact(Entity entity1, Entity entity2, double time) {
+			this.entity1 = entity1;
+			this.entity2 = entity2;
+			this.version1 = entity1.getMotionVersion();
+			this.version2 = (entity2 == null) ? 0 : entity2.getMotionVersion();
+			this.time = time;
+		}
+
+		/**
+		 * Checks whether this entry is still valid for the given entities.
+		 */
+		boolean isValidFor(Entity entity1, Entity entity2) {
+			return this.entity1 == entity1 && this.entity2 == entity2 && version1 == entity1.getMotionVersion()
+					&& (entity2 == null || version2 == entity2.getMotionVersion());
+		}
+
+		private final Entity entity1;
+		private final Entity entity2;
+		private final long version1;
+		private final long version2;
+		private final double time;
+		private long stamp;
+	}
+
+
+	/// PROPERTIES ///
+
+	/**
+	 * The map pairs is a map with as key the hash-codes of two entities and as value their time of impact.
+	 */
+	private final Map<Long, Impact> pairs = new HashMap<Long, Impact>();
+
+	/**
+	 * The map boundaries is a map with as key an entity and as value its time of impact with a boundary.
+	 */
+	private final Map<Entity, Impact> boundaries = new HashMap<Entity, Impact>();
+
+	/**
+	 * The map pair_keys is a map with as key an entity and as value the keys of its entries in the map pairs.
+	 */
+	private final Map<Entity, Set<Long>> pair_keys = new HashMap<Entity, Set<Long>>();
+
+	private long search = 0;
+	private long hits = 0;
+	private long misses = 0;
+}
@@ -0,0 +1,247 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class of magazines for the bullets loaded on a ship. A magazine keeps the total mass of its bullets up to date
+ * while bullets are loaded and removed, so the mass of a ship does not depend on the number of its bullets.
+ *
+ * The bullets are kept in a ring buffer, in the order in which they were loaded: the bullet that was loaded first is
+ * fired first. Loading a bullet and taking the bullet to fire take constant time. A bullet that is removed from the
+ * middle leaves an empty slot, which is skipped when it reaches the front; the slots are compacted when the buffer is
+ * full, so removing takes constant amortized time as well.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+class Magazine {
+
+	/// CONSTANTS ///
+
+	/**
+	 * The initial number of slots in the ring buffer.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+
+	/// GETTERS ///
+
+	/**
+	 * Return the number of bullets in the magazine.
+	 *
+	 * @return 	The number of bullets.
+	 * 			@see implementation
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Check whether the magazine is empty.
+	 *
+	 * @return 	True if and only if there are no bullets in the magazine.
+	 * 			@see implementation
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Check whether the given bullet is in the magazine.
+	 *
+	 * @param 	bullet
+	 * 			The bullet to check.
+	 * @return 	True if and only if the bullet is in the magazine.
+	 * 			@see implementation
+	 */
+	boolean contains(Bullet bullet) {
+		return indices.containsKey(bullet);
+	}
+
+	/**
+	 * Return the total mass of the bullets in the magazine.
+	 *
+	 * @return 	The sum of the masses the bullets had when they were loaded.
+	 * 			@see implementation
+	 */
+	double getTotalMass() {
+		return total_mass;
+	}
+
+	/**
+	 * Return the bullet that will be fired next, without removing it.
+	 *
+	 * @return 	The bullet that was loaded first, or null if the magazine is empty.
+	 * 			@see implementation
+	 */
+	Bullet peek() {
+		return (size == 0) ? null : bullets[head];
+	}
+
+	/**
+	 * Return the bullets in the magazine, in the order in which they will be fired.
+	 *
+	 * @return 	A new list with the bullets.
+	 * 			@see implementation
+	 */
+	List<Bullet> getBullets() {
+		List<Bullet> result = new ArrayList<Bullet>(size);
+		for (int i = 0; i < used; i++) {
+			Bullet bullet = bullets[(head + i) & (bullets.length - 1)];
+			if (bullet != null)
+				result.add(bullet);
+		}
+		return result;
+	}
+
+
+	/// ADDERS ///
+
+	/**
+	 * Add the given bullet at the back of the magazine.
+	 *
+	 * @param 	bullet
+	 * 			The bullet to add.
+	 * @post 	The bullet is the last bullet of the magazine, and its mass is added to the total mass.
+	 * 			@see implementation
+	 * @throws 	IllegalArgumentException
+	 * 			If the bullet is already in the magazine.
+	 * 			@see implementation
+	 */
+	void add(Bullet bullet) throws IllegalArgumentException {
+		if (indices.containsKey(bullet))
+			throw new IllegalArgumentException();
+		if (used == bullets.length)
+			compact();
+		int index = (head + used) & (bullets.length - 1);
+		double mass = bullet.getEntityMass();
+		bullets[index] = bullet;
+		masses[index] = mass;
+		indices.put(bullet, index);
+		used++;
+		size++;
+		total_mass += mass;
+	}
+
+
+	/// REMOVERS ///
+
+	/**
+	 * Remove the given bullet from the magazine.
+	 *
+	 * @param 	bullet
+	 * 			The bullet to remove.
+	 * @post 	The bullet is no longer in the magazine, and its mass is subtracted from the total mass. The order of
+	 * 			the other bullets does not change.
+	 * 			@see implementation
+	 * @throws 	IllegalArgumentException
+	 * 			If the bullet is not in the magazine.
+	 * 			@see implementation
+	 */
+	void remove(Bullet bullet) throws IllegalArgumentException {
+		Integer index = indices.remove(bullet);
+		if (index == null)
+			throw new IllegalArgumentException();
+		bullets[index] = null;
+		total_mass -= masses[index];
+		size--;
+		// Empty slots at the front and at the back are given back immediately.
+		int mask = bullets.length - 1;
+		while (used > 0 && bullets[head] == null) {
+			head = (head + 1) & mask;
+			used--;
+		}
+		while (used > 0 && bullets[(head + used - 1) & mask] == null)
+			used--;
+		// Subtracting can leave a rounding error, which must not outlive the bullets.
+		if (size == 0) {
+			head = 0;
+			total_mass = 0;
+		}
+	}
+
+	/**
+	 * Remove the bullet at the front of the magazine.
+	 *
+	 * @return 	The bullet that was loaded first, or null if the magazine is empty.
+	 * 			@see implementation
+	 * @effect 	The bullet is removed from the magazine.
+	 * 		  | remove(peek())
+	 */
+	Bullet poll() {
+		Bullet bullet = peek();
+		if (bullet != null)
+			remove(bullet);
+		return bullet;
+	}
+
+	/**
+	 * Move the bullets to the front of a ring buffer that is large enough for twice their number, without empty
+	 * slots in between.
+	 *
+	 * @post 	The bullets keep their order, and at least half of the slots are free.
+	 * 			@see implementation
+	 */
+	private void compact() {
+		int capacity = INITIAL_CAPACITY;
+		while (capacity < size * 2)
+			capacity *= 2;
+		Bullet[] new_bullets = new Bullet[capacity];
+		double[] new_masses = new double[capacity];
+		int mask = bullets.length - 1;
+		int count = 0;
+		for (int i = 0; i < used; i++) {
+			int index = (head + i) & mask;
+			if (bullets[index] != null) {
+				new_bullets[count] = bullets[index];
+				new_masses[count] = masses[index];
+				indices.put(bullets[index], count);
+				count++;
+			}
+		}
+		bullets = new_bullets;
+		masses = new_masses;
+		head = 0;
+		used = count;
+	}
+
+
+	/// FIELDS ///
+
+	/**
+	 * The slots of the ring buffer. The length is a power of two; the slots in use start at head and wrap around.
+	 * A slot in use is null if its bullet was removed.
+	 */
+	private Bullet[] bullets = new Bullet[INITIAL_CAPACITY];
+
+	/**
+	 * The masses of the bullets when they were loaded, in the same slots as the bullets.
+	 */
+	private double[] masses = new double[INITIAL_CAPACITY];
+
+	/**
+	 * The slot of every bullet in the magazine.
+	 */
+	private final Map<Bullet, Integer> indices = new HashMap<Bullet, Integer>();
+
+	/**
+	 * The slot of the first bullet.
+	 */
+	private int head = 0;
+
+	/**
+	 * The number of slots in use, from head until the slot of the last bullet.
+	 */
+	private int used = 0;
+
+	/**
+	 * The number of bullets.
+	 */
+	private int size = 0;
+
+	private double total_mass = 0;
+
+}
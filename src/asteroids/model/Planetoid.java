@@ -315,6 +315,7 @@ public class Planetoid extends MinorPlanet {
 
 		// Adding them to the world
 		World world = getEntityWorld();
+		world.recordPlanetoidDivision();
 		getEntityWorld().removeEntityFromWorld(this);
 		
 		try {
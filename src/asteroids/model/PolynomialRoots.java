@@ -0,0 +1,205 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class with functions to find the roots of polynomials on an interval. A polynomial is given by its coefficients,
+ * the coefficient at index i belongs to t^i.
+ *
+ * @note	The interval is split at the roots of the derivative (found in the same way), so the polynomial is
+ * 			monotone on every part and each root is found by bisection. The roots are exact up to the precision of
+ * 			a double, for any degree.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+final class PolynomialRoots {
+
+	/// CONSTRUCTOR ///
+
+	/**
+	 * This class only has static functions.
+	 */
+	private PolynomialRoots() {
+	}
+
+
+	/// CONSTANTS ///
+
+	/**
+	 * The maximal number of bisection steps to find a root, enough to reach the precision of a double.
+	 */
+	private static final int MAX_BISECTIONS = 200;
+
+
+	/// ROOTS ///
+
+	/**
+	 * Return the first time in the given interval where the given polynomial becomes negative, starting from a
+	 * positive value.
+	 *
+	 * @param 	coefficients
+	 * 			The coefficients of the polynomial.
+	 * @param 	from
+	 * 			The start of the interval.
+	 * @param 	to
+	 * 			The end of the interval, possibly infinite.
+	 *
+	 * @return 	The start of the interval if the polynomial is not positive there.
+	 * 			@see implementation
+	 * @return 	The last time before the polynomial becomes negative for the first time, POSITIVE_INFINITY if the
+	 * 			polynomial doesn't become negative in the interval.
+	 * 			@see implementation
+	 */
+	static double firstEntry(double[] coefficients, double from, double to) {
+		double[] polynomial = trim(coefficients);
+
+		double start = from;
+		double startValue = evaluate(polynomial, start);
+		if (startValue <= 0)
+			return from;
+
+		// A constant or linear polynomial is solved directly.
+		if (polynomial.length <= 2) {
+			if (polynomial.length <= 1 || polynomial[1] >= 0)
+				return Double.POSITIVE_INFINITY;
+
+			double root = -polynomial[0] / polynomial[1];
+			return (root <= to) ? root : Double.POSITIVE_INFINITY;
+		}
+
+		// There are no roots beyond the bound, so the interval can be made finite.
+		to = Math.min(to, Math.abs(from) + getRootBound(polynomial));
+
+		List<Double> ends = getRoots(derivative(polynomial), from, to);
+		ends.add(to);
+
+		for (double end : ends) {
+			double endValue = evaluate(polynomial, end);
+			if (endValue < 0)
+				return bisect(polynomial, start, end);
+
+			start = end;
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Return all the roots of the given polynomial in the given interval, in increasing order. A root where the
+	 * polynomial only touches zero without changing sign is not returned.
+	 *
+	 * @param 	polynomial
+	 * 			The coefficients of the polynomial, without trailing zeros.
+	 * @param 	from
+	 * 			The start of the interval.
+	 * @param 	to
+	 * 			The finite end of the interval.
+	 *
+	 * @return 	A new list with the roots.
+	 * 			@see implementation
+	 */
+	private static List<Double> getRoots(double[] polynomial, double from, double to) {
+		List<Double> result = new ArrayList<Double>();
+
+		if (polynomial.length <= 1)
+			return result;
+
+		if (polynomial.length == 2) {
+			double root = -polynomial[0] / polynomial[1];
+			if (from < root && root < to)
+				result.add(root);
+			return result;
+		}
+
+		List<Double> ends = getRoots(derivative(polynomial), from, to);
+		ends.add(to);
+
+		double start = from;
+		double startValue = evaluate(polynomial, start);
+		for (double end : ends) {
+			double endValue = evaluate(polynomial, end);
+			if ((startValue > 0 && endValue < 0) || (startValue < 0 && endValue > 0)) {
+				double root = bisect(polynomial, start, end);
+				if (from < root && root < to)
+					result.add(root);
+			}
+			start = end;
+			startValue = endValue;
+		}
+		return result;
+	}
+
+
+	/// HELP FUNCTIONS ///
+
+	/**
+	 * Return the point of the given interval closest to the sign change of the polynomial, on the side of the start
+	 * of the interval.
+	 */
+	private static double bisect(double[] polynomial, double start, double end) {
+		boolean startPositive = evaluate(polynomial, start) > 0;
+
+		for (int i = 0; i < MAX_BISECTIONS; i++) {
+			double middle = start + (end - start) / 2;
+			if (middle <= start || middle >= end)
+				break;
+
+			if ((evaluate(polynomial, middle) > 0) == startPositive)
+				start = middle;
+			else
+				end = middle;
+		}
+		return start;
+	}
+
+	/**
+	 * Return the value of the polynomial at the given time, evaluated with Horner's rule.
+	 */
+	static double evaluate(double[] polynomial, double time) {
+		double result = 0;
+		for (int i = polynomial.length - 1; i >= 0; i--)
+			result = result * time + polynomial[i];
+		return result;
+	}
+
+	/**
+	 * Return the derivative of the given polynomial.
+	 */
+	private static double[] derivative(double[] polynomial) {
+		if (polynomial.length <= 1)
+			return new double[0];
+
+		double[] result = new double[polynomial.length - 1];
+		for (int i = 1; i < polynomial.length; i++)
+			result[i - 1] = i * polynomial[i];
+		return result;
+	}
+
+	/**
+	 * Return the given polynomial without the zero coefficients of the highest powers.
+	 */
+	private static double[] trim(double[] polynomial) {
+		int length = polynomial.length;
+		while (length > 0 && polynomial[length - 1] == 0)
+			length--;
+
+		double[] result = new double[length];
+		System.arraycopy(polynomial, 0, result, 0, length);
+		return result;
+	}
+
+	/**
+	 * Return an upper bound on the absolute value of the roots of the polynomial (Cauchy's bound).
+	 */
+	private static double getRootBound(double[] polynomial) {
+		if (polynomial.length <= 1)
+			return Double.POSITIVE_INFINITY;
+
+		double leading = Math.abs(polynomial[polynomial.length - 1]);
+		double maximum = 0;
+		for (int i = 0; i < polynomial.length - 1; i++)
+			maximum = Math.max(maximum, Math.abs(polynomial[i]) / leading);
+		return 1 + maximum;
+	}
+}
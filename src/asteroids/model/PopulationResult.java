@@ -0,0 +1,164 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of immutable results of populating a world with a batch of entities. The result contains the entities that
+ * were accepted (and are now in the world) and the entries of the batch that were rejected, together with the reason
+ * of the rejection.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+@Value
+public final class PopulationResult {
+
+	/// CONSTRUCTOR ///
+
+	/**
+	 * Initializes a new result with the given accepted entities and rejections.
+	 *
+	 * @param 	accepted
+	 * 			The accepted entities, in the order of the batch.
+	 * @param 	rejected
+	 * 			The rejections, in the order of the batch.
+	 */
+	PopulationResult(List<Entity> accepted, List<Rejection> rejected) {
+		this.accepted = Collections.unmodifiableList(new ArrayList<Entity>(accepted));
+		this.rejected = Collections.unmodifiableList(new ArrayList<Rejection>(rejected));
+	}
+
+
+	/// REASONS ///
+
+	/**
+	 * The reasons why an entry of a batch can be rejected:
+	 *   NULL_ENTITY: the entry is null.
+	 *   DUPLICATE: the entity occurs earlier in the batch.
+	 *   TERMINATED: the entity or the world is terminated.
+	 *   ALREADY_IN_WORLD: the entity already belongs to a world.
+	 *   LOADED_ON_SHIP: the entity is a bullet that is loaded on a ship.
+	 *   OUT_OF_BOUNDS: the entity doesn't lie within the boundaries of the world.
+	 *   OVERLAPS_WORLD: the entity overlaps with an entity that was already in the world.
+	 *   OVERLAPS_BATCH: the entity overlaps with an entity that was accepted earlier in the batch.
+	 */
+	public static enum RejectionReason {
+		NULL_ENTITY, DUPLICATE, TERMINATED, ALREADY_IN_WORLD, LOADED_ON_SHIP, OUT_OF_BOUNDS, OVERLAPS_WORLD,
+		OVERLAPS_BATCH;
+	}
+
+	/**
+	 * A class of rejected entries of a batch.
+	 */
+	@Value
+	public static final class Rejection {
+
+		/**
+		 * Initializes a new rejection.
+		 *
+		 * @param 	index
+		 * 			The index of the entry in the batch.
+		 * @param 	entity
+		 * 			The rejected entity, null if the entry was null.
+		 * @param 	reason
+		 * 			The reason of the rejection.
+		 */
+		Rejection(int index, Entity entity, RejectionReason reason) {
+			this.index = index;
+			this.entity = entity;
+			this.reason = reason;
+		}
+
+		/**
+		 * Return the index of the rejected entry in the batch.
+		 *
+		 * @return 	The index.
+		 * 			@see implementation
+		 */
+		@Basic @Immutable
+		public int getIndex() {
+			return index;
+		}
+
+		/**
+		 * Return the rejected entity.
+		 *
+		 * @return 	The entity, null if the entry was null.
+		 * 			@see implementation
+		 */
+		@Basic @Immutable
+		public Entity getEntity() {
+			return entity;
+		}
+
+		/**
+		 * Return the reason of the rejection.
+		 *
+		 * @return 	The reason.
+		 * 			@see implementation
+		 */
+		@Basic @Immutable
+		public RejectionReason getReason() {
+			return reason;
+		}
+
+		@Override
+		public String toString() {
+			return "#" + index + " " + reason;
+		}
+
+		private final int index;
+		private final Entity entity;
+		private final RejectionReason reason;
+	}
+
+
+	/// GETTERS ///
+
+	/**
+	 * Return the entities that were added to the world.
+	 *
+	 * @return 	An unmodifiable list of the accepted entities, in the order of the batch.
+	 * 			@see implementation
+	 */
+	@Basic @Immutable
+	public List<Entity> getAccepted() {
+		return accepted;
+	}
+
+	/**
+	 * Return the entries of the batch that were rejected.
+	 *
+	 * @return 	An unmodifiable list of the rejections, in the order of the batch.
+	 * 			@see implementation
+	 */
+	@Basic @Immutable
+	public List<Rejection> getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Checks whether every entry of the batch was accepted.
+	 *
+	 * @return 	True if and only if there are no rejections.
+	 * 			@see implementation
+	 */
+	public boolean isComplete() {
+		return rejected.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "PopulationResult[accepted=" + accepted.size() + ", rejected=" + rejected + "]";
+	}
+
+
+	/// PROPERTIES ///
+
+	private final List<Entity> accepted;
+	private final List<Rejection> rejected;
+}
@@ -0,0 +1,207 @@
+package asteroids.model;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A class of lightweight nanosecond timers and counters around the hot paths of the model. Profiling is enabled by
+ * starting the virtual machine with "-Dasteroids.profiling=true". When profiling is disabled, ENABLED is a constant
+ * false and the JIT compiler removes the probes entirely.
+ *
+ * A probe is used as follows:
+ * 		long start = Profiler.start();
+ * 		...
+ * 		Profiler.stop(Probe.EVOLVE, start);
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+public final class Profiler implements ProfilerMXBean {
+
+	/// CONSTRUCTOR ///
+
+	/**
+	 * The profiler has a single instance, which is registered as MBean.
+	 */
+	private Profiler() {
+	}
+
+
+	/// CONSTANTS ///
+
+	/**
+	 * Whether profiling is enabled.
+	 */
+	public static final boolean ENABLED = Boolean.getBoolean("asteroids.profiling");
+
+	/**
+	 * The name under which the profiler is registered as MBean.
+	 */
+	public static final String OBJECT_NAME = "asteroids:type=Profiler";
+
+	/**
+	 * The probes that can be measured:
+	 *   EVOLVE: a top-level invocation of World.evolve().
+	 *   NEXT_COLLISION: a search for the next collision in World.getTimeNextCollision().
+	 *   COLLISION_RESOLUTION: the resolution of a collision in Entity.letCollisionHappen().
+	 *   OVERLAP_CHECK: the check whether an entity can be added to a world in World.addEntityToWorld().
+	 *   PROGRAM_EXECUTION: the execution of a program in Ship.executeProgram().
+	 */
+	public static enum Probe {
+		EVOLVE, NEXT_COLLISION, COLLISION_RESOLUTION, OVERLAP_CHECK, PROGRAM_EXECUTION;
+	}
+
+	/**
+	 * The single instance of the profiler.
+	 */
+	private static final Profiler INSTANCE = new Profiler();
+
+	static {
+		if (ENABLED)
+			register();
+	}
+
+
+	/// PROBES ///
+
+	/**
+	 * Return the start time of a probe.
+	 *
+	 * @return 	The current value of System.nanoTime() if profiling is enabled, 0 otherwise.
+	 * 			@see implementation
+	 */
+	public static long start() {
+		return ENABLED ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Stop a probe that was started at the given time.
+	 *
+	 * @param 	probe
+	 * 			The probe that is stopped.
+	 * @param 	start
+	 * 			The start time returned by start().
+	 *
+	 * @effect 	If profiling is enabled, the hit and its duration are added to the counters of the probe.
+	 * 			@see implementation
+	 */
+	public static void stop(Probe probe, long start) {
+		if (ENABLED)
+			record(probe, System.nanoTime() - start);
+	}
+
+	/**
+	 * Add a hit of the given duration to the counters of the given probe, whether profiling is enabled or not.
+	 *
+	 * @param 	probe
+	 * 			The probe that was hit.
+	 * @param 	duration
+	 * 			The duration of the hit, expressed in nanoseconds.
+	 *
+	 * @post 	The number of calls of the probe is incremented, its total time is increased by the duration and its
+	 * 			maximum time is at least the duration.
+	 * 			@see implementation
+	 */
+	static void record(Probe probe, long duration) {
+		int index = probe.ordinal();
+		CALLS.incrementAndGet(index);
+		NANOS.addAndGet(index, duration);
+
+		long maximum;
+		while (duration > (maximum = MAXIMUM.get(index)) && !MAXIMUM.compareAndSet(index, maximum, duration))
+			;
+	}
+
+	/**
+	 * Return the profiler, to read its counters.
+	 *
+	 * @return 	The single instance of the profiler.
+	 * 			@see implementation
+	 */
+	public static ProfilerMXBean getProfiler() {
+		return INSTANCE;
+	}
+
+
+	/// MXBEAN ///
+
+	@Override
+	public Map<String, Long> getCallCounts() {
+		return toMap(CALLS);
+	}
+
+	@Override
+	public Map<String, Long> getTotalNanos() {
+		return toMap(NANOS);
+	}
+
+	@Override
+	public Map<String, Long> getMaximumNanos() {
+		return toMap(MAXIMUM);
+	}
+
+	@Override
+	public Map<String, Double> getAverageNanos() {
+		Map<String, Double> result = new LinkedHashMap<String, Double>();
+		for (Probe probe : Probe.values()) {
+			long calls = CALLS.get(probe.ordinal());
+			result.put(probe.name(), (calls == 0) ? 0.0 : (double) NANOS.get(probe.ordinal()) / calls);
+		}
+		return result;
+	}
+
+	@Override
+	public void reset() {
+		for (int i = 0; i < Probe.values().length; i++) {
+			CALLS.set(i, 0);
+			NANOS.set(i, 0);
+			MAXIMUM.set(i, 0);
+		}
+	}
+
+
+	/// HELP FUNCTIONS ///
+
+	/**
+	 * Register the profiler at the platform MBean server, so it can be inspected with JConsole or Mission Control.
+	 */
+	private static void register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name))
+				server.registerMBean(INSTANCE, name);
+		} catch (JMException jmException) {
+			// Profiling still works without JMX, the counters can be read through getProfiler().
+		}
+	}
+
+	/**
+	 * Return the values of the given counters in a map with the names of the probes as keys.
+	 *
+	 * @param 	counters
+	 * 			The counters, indexed by the ordinals of the probes.
+	 *
+	 * @return 	The map of the counters.
+	 * 			@see implementation
+	 */
+	private static Map<String, Long> toMap(AtomicLongArray counters) {
+		Map<String, Long> result = new LinkedHashMap<String, Long>();
+		for (Probe probe : Probe.values())
+			result.put(probe.name(), counters.get(probe.ordinal()));
+		return result;
+	}
+
+
+	/// PROPERTIES ///
+
+	private static final AtomicLongArray CALLS = new AtomicLongArray(Probe.values().length);
+	private static final AtomicLongArray NANOS = new AtomicLongArray(Probe.values().length);
+	private static final AtomicLongArray MAXIMUM = new AtomicLongArray(Probe.values().length);
+}
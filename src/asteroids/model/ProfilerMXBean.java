@@ -0,0 +1,38 @@
+package asteroids.model;
+
+import java.util.Map;
+
+/**
+ * The management interface of the profiler, registered as "asteroids:type=Profiler" when profiling is enabled.
+ * Every map has as keys the names of the probes.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+public interface ProfilerMXBean {
+
+	/**
+	 * Return the number of times every probe has been hit.
+	 */
+	Map<String, Long> getCallCounts();
+
+	/**
+	 * Return the total time spent in every probe, expressed in nanoseconds.
+	 */
+	Map<String, Long> getTotalNanos();
+
+	/**
+	 * Return the average time spent in every probe, expressed in nanoseconds.
+	 */
+	Map<String, Double> getAverageNanos();
+
+	/**
+	 * Return the longest time spent in a single hit of every probe, expressed in nanoseconds.
+	 */
+	Map<String, Long> getMaximumNanos();
+
+	/**
+	 * Reset all the counters of the profiler.
+	 */
+	void reset();
+}
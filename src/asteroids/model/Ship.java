@@ -1,13 +1,12 @@
 package asteroids.model;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 
+import asteroids.model.Profiler.Probe;
 import asteroids.part2.CollisionListener;
 import asteroids.program.Program;
 import be.kuleuven.cs.som.annotate.*;
@@ -219,8 +218,7 @@ public class Ship extends Entity {
 	 */
 	@Basic
 	public double getEntityMass() {
-		double bullets_weight = ((Ship) this).getTotalBulletsWeight();
-		return (mass + bullets_weight);
+		return (mass + getTotalBulletsWeight());
 	}
 	
 	/**
@@ -240,7 +238,7 @@ public class Ship extends Entity {
 	 * 			@see implementation
 	 */
 	public int getNbBulletsOnShip() {
-		return getShipBullets().size();
+		return magazine.size();
 	}
 	
 	/** 
@@ -263,11 +261,7 @@ public class Ship extends Entity {
 	 * 			@see implementation
 	 */
 	public Set<Bullet> getShipBullets() {
-		Set<Bullet> result = new HashSet<Bullet>();
-		
-		result.addAll(bullets.values());
-		
-		return result;
+		return new HashSet<Bullet>(magazine.getBullets());
 	}
 	
 	public Program getShipProgram(){
@@ -287,14 +281,13 @@ public class Ship extends Entity {
 
 	/**
 	 * Return the total weight of the bullets loaded on the ship. This is the
-	 * sum of the weights of all the bullets.
+	 * sum of the weights of all the bullets, which the magazine keeps up to date.
 	 * 
 	 * @return 	The total weight.
 	 * 			@see implementation
 	 */
 	private double getTotalBulletsWeight() {
-		return getShipBullets().stream().mapToDouble(x -> x.getEntityMass()).sum();
-			
+		return magazine.getTotalMass();
 	}
 	
 	
@@ -370,6 +363,8 @@ public class Ship extends Entity {
 			thrustOn();
 		else
 			thrustOff();
+		
+		notifyWorldOfMotionChange();
 	}
 
 	
@@ -423,7 +418,7 @@ public class Ship extends Entity {
 	 * 			@see implementation
 	 */
 	protected boolean hasAsBullet(Bullet bullet) {
-		return bullets.containsKey(bullet.hashCode());
+		return magazine.contains(bullet);
 	}
 
 	/**
@@ -456,6 +451,39 @@ public class Ship extends Entity {
 	public boolean isThrusterActive() {
 		return thruster_activity;
 	}
+	
+	/**
+	 * Checks whether the ship is at rest.
+	 * 
+	 * @return 	True if and only if the velocity of the ship is zero and its thruster is not active.
+	 * 			@see implementation
+	 */
+	@Override
+	boolean isEntityAtRest() {
+		return super.isEntityAtRest() && !isThrusterActive();
+	}
+	
+	/**
+	 * Return the x-value of the acceleration of the ship.
+	 * 
+	 * @return 	The acceleration of the ship along its orientation, projected on the x-axis.
+	 * 			@see implementation
+	 */
+	@Override
+	double getEntityAccelerationX() {
+		return getShipAcceleration() * Math.cos(getEntityOrientation());
+	}
+	
+	/**
+	 * Return the y-value of the acceleration of the ship.
+	 * 
+	 * @return 	The acceleration of the ship along its orientation, projected on the y-axis.
+	 * 			@see implementation
+	 */
+	@Override
+	double getEntityAccelerationY() {
+		return getShipAcceleration() * Math.sin(getEntityOrientation());
+	}
 
 	/**
 	 * Checks if the given density is valid.
@@ -538,7 +566,7 @@ public class Ship extends Entity {
 	 */
 	public void addOneBulletToShip(Bullet bullet) throws IllegalArgumentException {
 		if (canHaveAsBullet(bullet)) {
-			bullets.put(bullet.hashCode(), bullet);
+			magazine.add(bullet);
 			bullet.setBulletLoaded(this);
 		} 
 		else
@@ -566,7 +594,7 @@ public class Ship extends Entity {
 			throw new IllegalArgumentException();
 
 		else {
-			bullets.remove(bullet.hashCode());
+			magazine.remove(bullet);
 			bullet.setBulletNotLoaded(this);
 		}
 	}
@@ -583,7 +611,8 @@ public class Ship extends Entity {
 	 * 			If the thuster isn't active, the acceleration will be 0 and the velocity will not be changed
 	 * 			@see implementation
 	 * 
-	 * @post 	After moveTime, the ship's position will be set on moveTime times its velocity. 
+	 * @post 	After moveTime, the ship's position will be moved over moveTime times its velocity, plus half of its 
+	 * 			acceleration times the square of moveTime, as for a motion with a constant acceleration. 
 	 * 			@see implementation
 	 * 
 	 * @throws 	IllegalArgumentException
@@ -597,16 +626,21 @@ public class Ship extends Entity {
 		double velocityX = getEntityVelocityX();
 		double velocityY = getEntityVelocityY();
 
-		final double collidingPositionX = getEntityPositionX() + velocityX * moveTime;
-		final double collidingPositionY = getEntityPositionY() + velocityY * moveTime;
+		final double accelerationX = getEntityAccelerationX();
+		final double accelerationY = getEntityAccelerationY();
 
-		final double acceleration = getShipAcceleration();
-		final double orientation = getEntityOrientation();
+		final double collidingPositionX = getEntityPositionX() + velocityX * moveTime 
+				+ accelerationX * moveTime * moveTime / 2;
+		final double collidingPositionY = getEntityPositionY() + velocityY * moveTime 
+				+ accelerationY * moveTime * moveTime / 2;
 			
-		double newVelocityX = velocityX + acceleration * Math.cos(orientation) * moveTime;
-		double newVelocityY = velocityY + acceleration * Math.sin(orientation) * moveTime;
+		// A coasting ship keeps its velocity, so its motion (and its cached times of impact) stays valid.
+		if (accelerationX != 0 || accelerationY != 0) {
+			double newVelocityX = velocityX + accelerationX * moveTime;
+			double newVelocityY = velocityY + accelerationY * moveTime;
 			
-		setEntityVelocity(newVelocityX, newVelocityY);
+			setEntityVelocity(newVelocityX, newVelocityY);
+		}
 		
 		setPositionWithoutChecking(collidingPositionX, collidingPositionY);
 	}
@@ -638,9 +672,9 @@ public class Ship extends Entity {
 	/// FIRE ///
 	
 	/**
-	 * Fires a random bullet that lies in the ship.
+	 * Fires the bullet that was loaded first on the ship.
 	 *
-	 * @post 	The ship does not contain the random bullet anymore.
+	 * @post 	The ship does not contain the bullet anymore.
 	 *		  | new.hasAsBullet(bullet) == false
 	 * @post 	The bullet's position will be equal to the position of the ship, mapped by the 
 	 * 			orientation with a distance of one kilometer between the bullet and the ship.
@@ -656,29 +690,67 @@ public class Ship extends Entity {
 	 *		  | possibleToFire(bullet,this,world, positionBulletX, positionBulletY, radiusBullet)
 	 */
 	public void fireBullet() {
-		if (!bullets.isEmpty() && isEntityInWorld()) {
-			
-			Map.Entry<Integer, Bullet> entry = bullets.entrySet().iterator().next();
-			Bullet bullet = entry.getValue();
-
-			removeBulletFromShip(bullet);
+		fireBullets(1);
+	}
 
-			double positionShipX = getEntityPositionX();
-			double positionShipY = getEntityPositionY();
-			double orientation = getEntityOrientation();
-			double radiusShip = getEntityRadius();
-			double radiusBullet = bullet.getEntityRadius();
-			double positionBulletX = positionShipX + Math.cos(orientation) * (radiusShip + radiusBullet + 1);
-			double positionBulletY = positionShipY + Math.sin(orientation) * (radiusShip + radiusBullet + 1);
+	/**
+	 * Fires a volley of bullets, in the order in which they were loaded on the ship.
+	 * 
+	 * @param 	amount
+	 * 			The number of bullets that have to be fired. If the ship has fewer bullets, all its bullets are fired.
+	 * 
+	 * @post 	The bullets lie in a row in front of the ship, in the direction of its orientation. The first bullet
+	 * 			lies at one kilometer from the ship, every next bullet at one kilometer from the bullet before it.
+	 *			@see implementation
+	 * @effect 	Every bullet is removed from the ship, gets the orientation of the ship and the initial firing
+	 * 			velocity, and is fired if possible, the possible collisions will be resolved.
+	 *		  | possibleToFire(bullet, world, candidates)
+	 * @note	The bullets of a volley cannot overlap each other, so they are all checked against the entities of
+	 * 			the world that are found with a single query around the row.
+	 * 
+	 * @throws 	IllegalArgumentException
+	 * 			If the amount is negative.
+	 * 		  | amount < 0
+	 */
+	public void fireBullets(int amount) throws IllegalArgumentException {
+		if (amount < 0)
+			throw new IllegalArgumentException();
+		
+		amount = Math.min(amount, magazine.size());
+		if (amount == 0 || !isEntityInWorld())
+			return;
+		
+		Bullet[] volley = new Bullet[amount];
+		double[] distances = new double[amount];
+		double length = getEntityRadius();
+		for (int i = 0; i < amount; i++) {
+			volley[i] = magazine.peek();
+			removeBulletFromShip(volley[i]);
+			double radiusBullet = volley[i].getEntityRadius();
+			distances[i] = length + 1 + radiusBullet;
+			length = distances[i] + radiusBullet;
+		}
 
-			bullet.setPositionWithoutChecking(positionBulletX, positionBulletY);
+		double positionShipX = getEntityPositionX();
+		double positionShipY = getEntityPositionY();
+		double orientation = getEntityOrientation();
+		double cos = Math.cos(orientation);
+		double sin = Math.sin(orientation);
+		
+		World world = getEntityWorld();
+		
+		// One query around the row of bullets finds every entity that one of them can overlap with.
+		double middle = (getEntityRadius() + length) / 2;
+		List<Entity> candidates = world.getEntitiesNear(positionShipX + cos * middle, positionShipY + sin * middle,
+				(length - getEntityRadius()) / 2);
+
+		for (int i = 0; i < amount; i++) {
+			Bullet bullet = volley[i];
+			bullet.setPositionWithoutChecking(positionShipX + cos * distances[i], positionShipY + sin * distances[i]);
 			bullet.setEntityOrientation(orientation);
-			bullet.setEntityVelocity(getInitialFiringVelocity() * Math.cos(orientation),
-					getInitialFiringVelocity() * Math.sin(orientation));
-			
-			World world = getEntityWorld();
+			bullet.setEntityVelocity(getInitialFiringVelocity() * cos, getInitialFiringVelocity() * sin);
 			
-			if (possibleToFire(bullet, world, positionBulletX, positionBulletY, radiusBullet))
+			if (possibleToFire(bullet, world, candidates))
 				world.addEntityToWorld(bullet);
 		}
 	}
@@ -693,12 +765,9 @@ public class Ship extends Entity {
 	 * 			The bullet that will be checked.
 	 * @param 	world
 	 * 			The world where the bullet is fired in.
-	 * @param 	posBulletX
-	 * 			The x-position of the bullet.
-	 * @param 	posBulletY
-	 * 			the y-position of the bullet.
-	 * @param 	radiusBullet
-	 * 			The radius of the bullet.
+	 * @param 	candidates
+	 * 			The entities of the world that the bullet can overlap with. Entities that have left the world in
+	 * 			the meantime are skipped.
 	 * 
 	 * @return 	False if the bullet cannot be set in the given world.
 	 * 			@see implementation
@@ -717,8 +786,7 @@ public class Ship extends Entity {
 	 * @effect 	If the bullet is overlapping a ship which is not its source ship, both will be terminated.
 	 * 			@see implementation
 	 */
-	private  boolean possibleToFire(Bullet bullet, World world, double posBulletX, double posBulletY,
-			double radiusBullet) {
+	private  boolean possibleToFire(Bullet bullet, World world, List<Entity> candidates) {
 		boolean Boolean = true;
 
 		// Check if the new-created bullet is in the world
@@ -728,7 +796,12 @@ public class Ship extends Entity {
 		}
 
 		if (Boolean == true) {
-			for (Entity entityInWorld : world.getWorldEntities()) {
+			// Only the entities in the neighbourhood of the bullet can overlap with it.
+			for (Entity entityInWorld : candidates) {
+				// An earlier bullet of the same volley may have terminated the entity.
+				if (entityInWorld.getEntityWorld() != world)
+					continue;
+				
 				// Two entities are overlapping when the distance between the centers is bigger than the sum of 
 				//  the radii of the two.
 				if (bullet.overlap(entityInWorld) && Boolean == true) {
@@ -844,15 +917,26 @@ public class Ship extends Entity {
 	/// RUN PROGRAM ///
 	
 	public List<Object> executeProgram(double dt){
-		return getShipProgram().execute(dt);
+		World world = getEntityWorld();
+		if (!Profiler.ENABLED && (world == null || !world.isRecordingTelemetry()))
+			return getShipProgram().execute(dt);
+		
+		long start = System.nanoTime();
+		try {
+			return getShipProgram().execute(dt);
+		} finally {
+			Profiler.stop(Probe.PROGRAM_EXECUTION, start);
+			if (world != null)
+				world.recordProgramExecution(System.nanoTime() - start);
+		}
 	}
 	
 	/// RELATIONS WITH OTHER CLASSES ///
 
 	/**
-	 * The map bullets is a map with as key the hash-code representing the bullet, and as value the bullet itself.
+	 * The magazine holds the bullets loaded on the ship, and the total mass of these bullets.
 	 */
-	private final Map<Integer, Bullet> bullets = new HashMap<Integer, Bullet>();
+	private final Magazine magazine = new Magazine();
 
 	private  Program program = null;
 
@@ -0,0 +1,413 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class of uniform grids that index entities by the cells their bounding box covers. The index is used to find the
+ * entities in the neighbourhood of a position, without visiting every entity of a world.
+ *
+ * @note	Cells are looked up by a hash of their coordinates. Two cells that share the same hash only result in extra
+ * 			candidates, which are filtered out, so the answers of the index are exact.
+ * @note	Entities whose bounding box covers too many cells (like huge planetoids) are not put in cells but in a
+ * 			separate list, which is part of the candidates of every query.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+class SpatialIndex {
+
+	/// CONSTRUCTOR ///
+
+	/**
+	 * Initializes a new empty index with the given cell size.
+	 *
+	 * @param 	cell_size
+	 * 			The width and height of a cell of the grid.
+	 *
+	 * @throws 	IllegalArgumentException
+	 * 			If the cell size is not strictly positive and finite.
+	 * 		  | !(cell_size > 0) || !Double.isFinite(cell_size)
+	 */
+	SpatialIndex(double cell_size) throws IllegalArgumentException {
+		if (!(cell_size > 0) || !Double.isFinite(cell_size))
+			throw new IllegalArgumentException();
+
+		this.cell_size = cell_size;
+	}
+
+
+	/// CONSTANTS ///
+
+	/**
+	 * The maximum number of cells an entity can cover before it is put in the list of oversized entities.
+	 */
+	private static final double MAX_CELLS_PER_ENTITY = 64;
+
+	/**
+	 * The maximum number of cells a query visits before it falls back on checking every indexed entity.
+	 */
+	private static final double MAX_CELLS_PER_QUERY = 256;
+
+
+	/// GETTERS ///
+
+	/**
+	 * Return the number of entities in the index.
+	 *
+	 * @return 	The number of entities.
+	 * 			@see implementation
+	 */
+	int size() {
+		return bounds.size();
+	}
+
+	/**
+	 * Return every entity in the index whose bounding box might intersect the circle with the given center and
+	 * radius. Every entity is returned at most once.
+	 *
+	 * @param 	positionX
+	 * 			The x-value of the center of the circle.
+	 * @param 	positionY
+	 * 			The y-value of the center of the circle.
+	 * @param 	radius
+	 * 			The radius of the circle.
+	 *
+	 * @return 	A new list with the candidates, which contains at least every entity that overlaps the circle.
+	 * 			@see implementation
+	 */
+	List<Entity> getCandidates(double positionX, double positionY, double radius) {
+		return getCandidates(positionX - radius, positionX + radius, positionY - radius, positionY + radius);
+	}
+
+	/**
+	 * Return every entity in the index whose bounding box might intersect the given rectangle. Every entity is
+	 * returned at most once.
+	 *
+	 * @param 	left
+	 * 			The smallest x-value of the rectangle.
+	 * @param 	right
+	 * 			The largest x-value of the rectangle.
+	 * @param 	bottom
+	 * 			The smallest y-value of the rectangle.
+	 * @param 	top
+	 * 			The largest y-value of the rectangle.
+	 *
+	 * @return 	A new list with the candidates, which contains at least every entity whose box intersects the
+	 * 			rectangle.
+	 * 			@see implementation
+	 */
+	List<Entity> getCandidates(double left, double right, double bottom, double top) {
+		List<Entity> result = new ArrayList<Entity>();
+
+		long minX = toCell(left), maxX = toCell(right);
+		long minY = toCell(bottom), maxY = toCell(top);
+
+		if (countCells(minX, maxX, minY, maxY) > Math.min(MAX_CELLS_PER_QUERY, 4.0 * bounds.size() + 1)) {
+			// Visiting every cell would be slower than looking at every entity.
+			result.addAll(bounds.keySet());
+			return result;
+		}
+
+		result.addAll(oversized);
+
+		// The loops count offsets, so they end for cells at the edge of the range of a long.
+		for (long offsetX = 0; offsetX <= maxX - minX; offsetX++) {
+			for (long offsetY = 0; offsetY <= maxY - minY; offsetY++) {
+				long cellX = minX + offsetX, cellY = minY + offsetY;
+				List<Entity> cell = cells.get(toKey(cellX, cellY));
+				if (cell == null)
+					continue;
+
+				for (Entity entity : cell) {
+					long[] box = bounds.get(entity);
+
+					// The entity is only reported in the first cell of the intersection of both boxes, the cell may
+					// also contain entities of another cell with the same hash, these are skipped.
+					if (cellX == Math.max(box[0], minX) && cellY == Math.max(box[2], minY)
+							&& cellX <= box[1] && cellY <= box[3])
+						result.add(entity);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return an entity in the index that overlaps with the given entity.
+	 *
+	 * @param 	entity
+	 * 			The entity that has to be checked.
+	 *
+	 * @return 	An entity, different from the given entity, that overlaps with it, null if there is no such entity.
+	 * 			@see implementation
+	 */
+	Entity getOverlappingEntity(Entity entity) {
+		for (Entity candidate : getCandidates(entity.getEntityPositionX(), entity.getEntityPositionY(),
+				entity.getEntityRadius()))
+			if (candidate != entity && entity.overlap(candidate))
+				return candidate;
+
+		return null;
+	}
+
+
+	/// CHECKERS ///
+
+	/**
+	 * Checks whether the given entity is in the index.
+	 *
+	 * @param 	entity
+	 * 			The entity that has to be checked.
+	 *
+	 * @return 	True if and only if the entity is in the index.
+	 * 			@see implementation
+	 */
+	boolean contains(Entity entity) {
+		return bounds.containsKey(entity);
+	}
+
+
+	/// ADDERS AND REMOVERS ///
+
+	/**
+	 * Add the given entity to the index, at its current position.
+	 *
+	 * @param 	entity
+	 * 			The entity that has to be added.
+	 *
+	 * @post 	The index contains the entity.
+	 * 		  | new.contains(entity)
+	 */
+	void add(Entity entity) {
+		if (contains(entity))
+			remove(entity);
+
+		long[] box = computeBox(entity);
+		bounds.put(entity, box);
+		insert(entity, box);
+	}
+
+	/**
+	 * Add the given entity to the index with the given rectangle as its box, instead of the bounding box at its
+	 * current position. Entities added this way are not updated when they move.
+	 *
+	 * @param 	entity
+	 * 			The entity that has to be added.
+	 * @param 	left
+	 * 			The smallest x-value of the rectangle.
+	 * @param 	right
+	 * 			The largest x-value of the rectangle.
+	 * @param 	bottom
+	 * 			The smallest y-value of the rectangle.
+	 * @param 	top
+	 * 			The largest y-value of the rectangle.
+	 *
+	 * @post 	The index contains the entity.
+	 * 		  | new.contains(entity)
+	 */
+	void add(Entity entity, double left, double right, double bottom, double top) {
+		if (contains(entity))
+			remove(entity);
+
+		long[] box = computeBox(left, right, bottom, top);
+		bounds.put(entity, box);
+		insert(entity, box);
+	}
+
+	/**
+	 * Add all the given entities to the index.
+	 *
+	 * @param 	entities
+	 * 			The entities that have to be added.
+	 *
+	 * @effect 	Every entity is added.
+	 * 		  | for each entity in entities: add(entity)
+	 */
+	void addAll(Collection<? extends Entity> entities) {
+		for (Entity entity : entities)
+			add(entity);
+	}
+
+	/**
+	 * Remove the given entity from the index.
+	 *
+	 * @param 	entity
+	 * 			The entity that has to be removed.
+	 *
+	 * @post 	The index does not contain the entity.
+	 * 		  | !new.contains(entity)
+	 */
+	void remove(Entity entity) {
+		long[] box = bounds.remove(entity);
+		if (box != null)
+			delete(entity, box);
+	}
+
+	/**
+	 * Update the cells of the given entity after its position or radius changed.
+	 *
+	 * @param 	entity
+	 * 			The entity that has changed.
+	 *
+	 * @effect 	If the entity is in the index and covers other cells than before, it is moved to these cells.
+	 * 			@see implementation
+	 */
+	void update(Entity entity) {
+		long[] box = bounds.get(entity);
+		if (box == null)
+			return;
+
+		long[] new_box = computeBox(entity);
+		if (sameBox(box, new_box))
+			return;
+
+		delete(entity, box);
+		bounds.put(entity, new_box);
+		insert(entity, new_box);
+	}
+
+	/**
+	 * Remove every entity from the index.
+	 *
+	 * @post 	The index is empty.
+	 * 		  | new.size() == 0
+	 */
+	void clear() {
+		bounds.clear();
+		cells.clear();
+		oversized.clear();
+	}
+
+
+	/// HELP FUNCTIONS ///
+
+	/**
+	 * Return the cells covered by the bounding box of the given entity as {minX, maxX, minY, maxY}, or an empty
+	 * array if the entity covers too many cells.
+	 */
+	private long[] computeBox(Entity entity) {
+		double positionX = entity.getEntityPositionX();
+		double positionY = entity.getEntityPositionY();
+		double radius = entity.getEntityRadius();
+
+		return computeBox(positionX - radius, positionX + radius, positionY - radius, positionY + radius);
+	}
+
+	/**
+	 * Return the cells covered by the given rectangle as {minX, maxX, minY, maxY}, or an empty array if the
+	 * rectangle covers too many cells.
+	 */
+	private long[] computeBox(double left, double right, double bottom, double top) {
+		long minX = toCell(left), maxX = toCell(right);
+		long minY = toCell(bottom), maxY = toCell(top);
+
+		if (countCells(minX, maxX, minY, maxY) > MAX_CELLS_PER_ENTITY)
+			return OVERSIZED;
+
+		return new long[] { minX, maxX, minY, maxY };
+	}
+
+	/**
+	 * Put the given entity in the cells of the given box.
+	 */
+	private void insert(Entity entity, long[] box) {
+		if (box == OVERSIZED) {
+			oversized.add(entity);
+			return;
+		}
+
+		for (long offsetX = 0; offsetX <= box[1] - box[0]; offsetX++) {
+			for (long offsetY = 0; offsetY <= box[3] - box[2]; offsetY++) {
+				Long key = toKey(box[0] + offsetX, box[2] + offsetY);
+				List<Entity> cell = cells.get(key);
+				if (cell == null) {
+					cell = new ArrayList<Entity>(4);
+					cells.put(key, cell);
+				}
+				cell.add(entity);
+			}
+		}
+	}
+
+	/**
+	 * Remove the given entity from the cells of the given box.
+	 */
+	private void delete(Entity entity, long[] box) {
+		if (box == OVERSIZED) {
+			oversized.remove(entity);
+			return;
+		}
+
+		for (long offsetX = 0; offsetX <= box[1] - box[0]; offsetX++) {
+			for (long offsetY = 0; offsetY <= box[3] - box[2]; offsetY++) {
+				Long key = toKey(box[0] + offsetX, box[2] + offsetY);
+				List<Entity> cell = cells.get(key);
+				if (cell != null) {
+					cell.remove(entity);
+					if (cell.isEmpty())
+						cells.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks whether two boxes cover the same cells.
+	 */
+	private static boolean sameBox(long[] box1, long[] box2) {
+		if (box1 == OVERSIZED || box2 == OVERSIZED)
+			return box1 == box2;
+
+		return box1[0] == box2[0] && box1[1] == box2[1] && box1[2] == box2[2] && box1[3] == box2[3];
+	}
+
+	/**
+	 * Return the number of cells of the given box, as a double to avoid overflow in huge worlds.
+	 */
+	private static double countCells(long minX, long maxX, long minY, long maxY) {
+		return ((double) maxX - minX + 1) * ((double) maxY - minY + 1);
+	}
+
+	/**
+	 * Return the coordinate of the cell that contains the given coordinate.
+	 */
+	private long toCell(double coordinate) {
+		return (long) Math.floor(coordinate / cell_size);
+	}
+
+	/**
+	 * Return the hash of the cell with the given coordinates.
+	 */
+	private static Long toKey(long cellX, long cellY) {
+		return cellX * 0x9E3779B97F4A7C15L + cellY;
+	}
+
+
+	/// PROPERTIES ///
+
+	/**
+	 * The box of the entities that cover too many cells.
+	 */
+	private static final long[] OVERSIZED = new long[0];
+
+	private final double cell_size;
+
+	/**
+	 * The map bounds is a map with as key an entity in the index and as value the box of cells it covers.
+	 */
+	private final Map<Entity, long[]> bounds = new HashMap<Entity, long[]>();
+
+	/**
+	 * The map cells is a map with as key the hash of a cell and as value the entities that cover this cell.
+	 */
+	private final Map<Long, List<Entity>> cells = new HashMap<Long, List<Entity>>();
+
+	/**
+	 * The list of the entities that cover too many cells.
+	 */
+	private final List<Entity> oversized = new ArrayList<Entity>();
+}
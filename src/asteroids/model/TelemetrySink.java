@@ -0,0 +1,22 @@
+package asteroids.model;
+
+/**
+ * An interface for receivers of the statistics of a world. A telemetry sink that is attached to a world receives the
+ * statistics of every tick (every top-level invocation of evolve()) of this world.
+ *
+ * @note	The statistics are handed over on the thread that evolves the world, implementations should therefore return
+ * 			as fast as possible and do any expensive work (like writing to a file) asynchronously.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+public interface TelemetrySink {
+
+	/**
+	 * Receive the statistics of a tick that has been completed.
+	 *
+	 * @param 	statistics
+	 * 			The statistics of the completed tick.
+	 */
+	void tickCompleted(TickStatistics statistics);
+}
@@ -0,0 +1,121 @@
+package asteroids.model;
+
+import java.util.Arrays;
+
+/**
+ * A class of mutable counters that collects the statistics of a world during a tick. A world only owns a recorder
+ * when a telemetry sink is attached, so worlds without a sink don't pay for the bookkeeping.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+class TickRecorder {
+
+	/// RECORDING ///
+
+	/**
+	 * Start recording a new tick.
+	 *
+	 * @param 	evolving_time
+	 * 			The time the world will be evolved over during the tick.
+	 *
+	 * @post 	All the counters of the previous tick, except the program counters, are reset.
+	 * 			@see implementation
+	 */
+	void startTick(double evolving_time) {
+		this.evolving_time = evolving_time;
+		this.tick_start = System.nanoTime();
+		this.sub_steps = 0;
+		this.planetoid_divisions = 0;
+		this.collision_search_nanos = 0;
+		Arrays.fill(collision_counts, 0);
+	}
+
+	/**
+	 * Record a sub-step of evolve().
+	 */
+	void recordSubStep() {
+		sub_steps++;
+	}
+
+	/**
+	 * Record the time spent searching for the next collision.
+	 *
+	 * @param 	nanos
+	 * 			The duration of the search, expressed in nanoseconds.
+	 */
+	void recordCollisionSearch(long nanos) {
+		collision_search_nanos += nanos;
+	}
+
+	/**
+	 * Record a collision between two entities, or between an entity and a boundary.
+	 *
+	 * @param 	entity1
+	 * 			The first entity of the collision.
+	 * @param 	entity2
+	 * 			The second entity of the collision, null for a boundary collision.
+	 */
+	void recordCollision(Entity entity1, Entity entity2) {
+		collision_counts[CollisionKind.of(entity1, entity2).ordinal()]++;
+	}
+
+	/**
+	 * Record the division of a planetoid.
+	 */
+	void recordPlanetoidDivision() {
+		planetoid_divisions++;
+	}
+
+	/**
+	 * Record the execution of a program.
+	 *
+	 * @param 	nanos
+	 * 			The duration of the execution, expressed in nanoseconds.
+	 */
+	void recordProgramExecution(long nanos) {
+		program_nanos += nanos;
+		program_executions++;
+	}
+
+	/**
+	 * Finish the current tick and return its statistics.
+	 *
+	 * @param 	entities
+	 * 			The entities in the world at the end of the tick.
+	 *
+	 * @return 	The statistics of the tick.
+	 * 			@see implementation
+	 *
+	 * @post 	The program counters are reset.
+	 * 			@see implementation
+	 */
+	TickStatistics finishTick(Iterable<Entity> entities) {
+		int[] entity_counts = new int[4];
+		for (Entity entity : entities)
+			entity_counts[TickStatistics.getTypeIndex(entity)]++;
+
+		tick_number++;
+		TickStatistics result = new TickStatistics(tick_number, evolving_time, System.nanoTime() - tick_start,
+				entity_counts, collision_counts, planetoid_divisions, sub_steps, collision_search_nanos, program_nanos,
+				program_executions);
+
+		program_nanos = 0;
+		program_executions = 0;
+
+		return result;
+	}
+
+
+	/// PROPERTIES ///
+
+	private long tick_number = 0;
+	private double evolving_time;
+	private long tick_start;
+	private final int[] collision_counts = new int[CollisionKind.values().length];
+	private int planetoid_divisions;
+	private int sub_steps;
+	private long collision_search_nanos;
+	private long program_nanos;
+	private int program_executions;
+}
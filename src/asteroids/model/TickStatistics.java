@@ -0,0 +1,251 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of immutable statistics of a single tick of a world. A tick is one top-level invocation of evolve(),
+ * including all the collisions that are resolved during this invocation.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+@Value
+public final class TickStatistics {
+
+	/// CONSTRUCTOR ///
+
+	/**
+	 * Initializes new statistics with the given counters.
+	 *
+	 * @note	The arrays are copied, so later changes to the given arrays do not influence these statistics.
+	 */
+	TickStatistics(long tick_number, double evolving_time, long tick_nanos, int[] entity_counts,
+			int[] collision_counts, int planetoid_divisions, int sub_steps, long collision_search_nanos,
+			long program_nanos, int program_executions) {
+		this.tick_number = tick_number;
+		this.evolving_time = evolving_time;
+		this.tick_nanos = tick_nanos;
+		this.entity_counts = entity_counts.clone();
+		this.collision_counts = collision_counts.clone();
+		this.planetoid_divisions = planetoid_divisions;
+		this.sub_steps = sub_steps;
+		this.collision_search_nanos = collision_search_nanos;
+		this.program_nanos = program_nanos;
+		this.program_executions = program_executions;
+	}
+
+
+	/// CONSTANTS ///
+
+	/**
+	 * The indices of the different types of entities in the entity_counts array.
+	 */
+	static final int SHIPS = 0, BULLETS = 1, ASTEROIDS = 2, PLANETOIDS = 3;
+
+
+	/// GETTERS ///
+
+	/**
+	 * Return the number of the tick, the first tick of a world has number 1.
+	 *
+	 * @return 	The number of the tick.
+	 * 			@see implementation
+	 */
+	@Basic @Immutable
+	public long getTickNumber() {
+		return tick_number;
+	}
+
+	/**
+	 * Return the time the world has been evolved over during the tick.
+	 *
+	 * @return 	The evolving time.
+	 * 			@see implementation
+	 */
+	@Basic @Immutable
+	public double getEvolvingTime() {
+		return evolving_time;
+	}
+
+	/**
+	 * Return the wall-clock time spent in the tick, expressed in nanoseconds.
+	 *
+	 * @return 	The duration of the tick.
+	 * 			@see implementation
+	 */
+	@Basic @Immutable
+	public long getTickNanos() {
+		return tick_nanos;
+	}
+
+	/**
+	 * Return the number of ships in the world at the end of the tick.
+	 *
+	 * @return 	The number of ships.
+	 * 			@see implementation
+	 */
+	public int getShipCount() {
+		return entity_counts[SHIPS];
+	}
+
+	/**
+	 * Return the number of bullets in the world at the end of the tick.
+	 *
+	 * @return 	The number of bullets.
+	 * 			@see implementation
+	 */
+	public int getBulletCount() {
+		return entity_counts[BULLETS];
+	}
+
+	/**
+	 * Return the number of asteroids in the world at the end of the tick.
+	 *
+	 * @return 	The number of asteroids.
+	 * 			@see implementation
+	 */
+	public int getAsteroidCount() {
+		return entity_counts[ASTEROIDS];
+	}
+
+	/**
+	 * Return the number of planetoids in the world at the end of the tick.
+	 *
+	 * @return 	The number of planetoids.
+	 * 			@see implementation
+	 */
+	public int getPlanetoidCount() {
+		return entity_counts[PLANETOIDS];
+	}
+
+	/**
+	 * Return the number of collisions of the given kind that were resolved during the tick.
+	 *
+	 * @param 	kind
+	 * 			The kind of collisions.
+	 *
+	 * @return 	The number of collisions of the given kind.
+	 * 			@see implementation
+	 *
+	 * @throws 	IllegalArgumentException
+	 * 			If the given kind is null.
+	 * 		  | kind == null
+	 */
+	public int getCollisionCount(CollisionKind kind) throws IllegalArgumentException {
+		if (kind == null)
+			throw new IllegalArgumentException();
+
+		return collision_counts[kind.ordinal()];
+	}
+
+	/**
+	 * Return the total number of collisions that were resolved during the tick.
+	 *
+	 * @return 	The sum of the collisions of every kind.
+	 * 			@see implementation
+	 */
+	public int getTotalCollisionCount() {
+		int total = 0;
+		for (int count : collision_counts)
+			total += count;
+		return total;
+	}
+
+	/**
+	 * Return the number of planetoids that divided into two asteroids during the tick.
+	 *
+	 * @return 	The number of planetoid divisions.
+	 * 			@see implementation
+	 */
+	@Basic @Immutable
+	public int getPlanetoidDivisions() {
+		return planetoid_divisions;
+	}
+
+	/**
+	 * Return the number of sub-steps evolve() needed to cover the tick, this is the number of resolved collisions
+	 * plus one.
+	 *
+	 * @return 	The number of sub-steps.
+	 * 			@see implementation
+	 */
+	@Basic @Immutable
+	public int getSubSteps() {
+		return sub_steps;
+	}
+
+	/**
+	 * Return the wall-clock time spent searching for the next collision, expressed in nanoseconds.
+	 *
+	 * @return 	The time spent in the collision search.
+	 * 			@see implementation
+	 */
+	@Basic @Immutable
+	public long getCollisionSearchNanos() {
+		return collision_search_nanos;
+	}
+
+	/**
+	 * Return the wall-clock time spent executing the programs of the ships, expressed in nanoseconds.
+	 *
+	 * @note	Programs are executed outside of evolve(), the time is attributed to the tick that follows.
+	 *
+	 * @return 	The time spent executing programs.
+	 * 			@see implementation
+	 */
+	@Basic @Immutable
+	public long getProgramNanos() {
+		return program_nanos;
+	}
+
+	/**
+	 * Return the number of program executions that were attributed to the tick.
+	 *
+	 * @return 	The number of program executions.
+	 * 			@see implementation
+	 */
+	@Basic @Immutable
+	public int getProgramExecutions() {
+		return program_executions;
+	}
+
+
+	/// HELP FUNCTIONS ///
+
+	/**
+	 * Return the index in the entity_counts array of the type of the given entity.
+	 *
+	 * @param 	entity
+	 * 			The entity of which the type has to be indexed.
+	 *
+	 * @return 	The index of the type of the entity.
+	 * 			@see implementation
+	 */
+	static int getTypeIndex(Entity entity) {
+		if (entity instanceof Ship)
+			return SHIPS;
+
+		else if (entity instanceof Bullet)
+			return BULLETS;
+
+		else if (entity instanceof Asteroid)
+			return ASTEROIDS;
+
+		else
+			return PLANETOIDS;
+	}
+
+
+	/// PROPERTIES ///
+
+	private final long tick_number;
+	private final double evolving_time;
+	private final long tick_nanos;
+	private final int[] entity_counts;
+	private final int[] collision_counts;
+	private final int planetoid_divisions;
+	private final int sub_steps;
+	private final long collision_search_nanos;
+	private final long program_nanos;
+	private final int program_executions;
+}
@@ -1,10 +1,19 @@
 package asteroids.model;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+import asteroids.model.PopulationResult.Rejection;
+import asteroids.model.PopulationResult.RejectionReason;
+import asteroids.model.Profiler.Probe;
 import asteroids.part2.CollisionListener;
+import be.kuleuven.cs.som.annotate.*;
 
 /**
  * A class that describes worlds. A world has a height and a width and can contain bullets and ships.
@@ -69,6 +78,16 @@ public class World {
 	 * The maximum width a world can have.
 	 */
 	private final static double UPPER_WORLD_BOUND_WIDTH = Double.MAX_VALUE;
+	
+	/**
+	 * The size of the cells of the grid that indexes the entities of the world.
+	 */
+	private final static double INDEX_CELL_SIZE = 100;
+	
+	/**
+	 * The size from which the entries of a batch are checked in parallel.
+	 */
+	private final static int PARALLEL_BATCH_SIZE = 1024;
 
 	
 	/// GETTERS ///
@@ -116,6 +135,80 @@ public class World {
 			return null;
 	}
 	
+	/**
+	 * Return an entity of this world that overlaps with the given entity.
+	 * 
+	 * @param 	entity
+	 * 			The entity that has to be checked, it doesn't have to belong to this world.
+	 * 
+	 * @return 	An entity of this world, different from the given entity, that overlaps with the given entity. Null if 
+	 * 			there is no such entity.
+	 * 			@see implementation
+	 */
+	Entity getEntityOverlapping(Entity entity) {
+		return entity_index.getOverlappingEntity(entity);
+	}
+	
+	/**
+	 * Return the entities of this world that lie near the circle with the given center and radius.
+	 * 
+	 * @param 	positionX
+	 * 			The x-value of the center of the circle.
+	 * @param 	positionY
+	 * 			The y-value of the center of the circle.
+	 * @param 	radius
+	 * 			The radius of the circle.
+	 * 
+	 * @return 	A new list with at least all the entities of this world that overlap with the circle.
+	 * 			@see implementation
+	 */
+	List<Entity> getEntitiesNear(double positionX, double positionY, double radius) {
+		return entity_index.getCandidates(positionX, positionY, radius);
+	}
+	
+	/**
+	 * Return the entities of this world whose bounding box intersects the given rectangle.
+	 * 
+	 * @param 	left
+	 * 			The smallest x-value of the rectangle.
+	 * @param 	bottom
+	 * 			The smallest y-value of the rectangle.
+	 * @param 	right
+	 * 			The largest x-value of the rectangle.
+	 * @param 	top
+	 * 			The largest y-value of the rectangle.
+	 * 
+	 * @return 	The set of the entities of this world that have a part within the rectangle, or that lie at less than
+	 * 			their radius from a corner of the rectangle.
+	 * 		  | for each entity in result:
+	 * 		  |   hasAsEntity(entity) && entity.getEntityPositionX() + entity.getEntityRadius() >= left 
+	 * 		  |   && entity.getEntityPositionX() - entity.getEntityRadius() <= right
+	 * 		  |   && entity.getEntityPositionY() + entity.getEntityRadius() >= bottom 
+	 * 		  |   && entity.getEntityPositionY() - entity.getEntityRadius() <= top
+	 * 
+	 * @throws 	IllegalArgumentException
+	 * 			If the rectangle is empty or one of its values is not a number.
+	 * 		  | !(left <= right) || !(bottom <= top)
+	 */
+	public Set<Entity> getEntitiesInRectangle(double left, double bottom, double right, double top) 
+			throws IllegalArgumentException {
+		if (!(left <= right) || !(bottom <= top))
+			throw new IllegalArgumentException();
+		
+		Set<Entity> result = new HashSet<>();
+		
+		for (Entity entity : entity_index.getCandidates(left, right, bottom, top)) {
+			double positionX = entity.getEntityPositionX();
+			double positionY = entity.getEntityPositionY();
+			double radius = entity.getEntityRadius();
+			
+			if (positionX + radius >= left && positionX - radius <= right 
+					&& positionY + radius >= bottom && positionY - radius <= top)
+				result.add(entity);
+		}
+		return result;
+	}
+	
 	/**
 	 * Return the position where the next collision will take place.
 	 * 
@@ -161,7 +254,29 @@ public class World {
 	/**
 	 * Return the time until the next collision.
 	 * 
+	 * @effect 	The time until the next collision is searched without a horizon.
+	 * 		  | getTimeNextCollision(Double.POSITIVE_INFINITY)
+	 * 
+	 * @return 	The time till the first collision in a world will happen.
+	 * 			@see implementation
+	 */
+	public double getTimeNextCollision() {
+		return getTimeNextCollision(Double.POSITIVE_INFINITY);
+	}
+	
+	/**
+	 * Return the time until the next collision, if this collision happens within the given horizon.
+	 * 
 	 * @note	The method will be provided with comments, to make it more easily to follow the flow of our thinking.
+	 * @note	Two entities can only collide within the horizon if the regions they sweep during the horizon 
+	 * 			intersect. Only the moving entities are swept, and each of them is only compared with the entities 
+	 * 			in the cells of the grid its swept region covers. Two entities at rest never collide, so entities at
+	 * 			rest are never visited on their own. Without a horizon every pair with a moving entity is compared.
+	 * @note	The times of impact are taken from the impact cache, so a pair is only computed again when the motion
+	 * 			of one of its entities changed since the last search.
+	 * 
+	 * @param 	horizon
+	 * 			The time after which collisions don't matter.
 	 * 
 	 * @effect  Collision entity1 and collision entity2 will be set on null before the collision-check.
 	 * 		  | resetCollisionEntities()
@@ -172,21 +287,35 @@ public class World {
 	 *		  | setCollisionEntity2(null)
 	 *		  | new.minimumCollisionTime <= minimumCollisionTime.
 	 * @effect 	If there is a collision, collision_entity_1 and collision_entity_2 will be set on the entities that 
-	 * 			collide (entity1 and entity2). Minimum collision time will be smaller than its previous value.
+	 * 			collide (entity1 and entity2, with the smallest hash-code first). Minimum collision time will be 
+	 * 			smaller than its previous value.
 	 *		  | setCollisionEntity1(entity1)
 	 *		  | setCollisionEntity2(entity2)
 	 *		  | new.minimumCollisionTime <= minimumCollisionTime.
 	 * 
-	 * @return 	The time till the first collision in a world will happen.
+	 * @return 	The time till the first collision in a world will happen, if it happens within the horizon. Otherwise
+	 * 			a time greater than the horizon.
 	 * 			@see implementation
 	 */
-	public double getTimeNextCollision() {
+	private double getTimeNextCollision(double horizon) {
+		long profilerStart = Profiler.start();
 		double minimumCollisionTime = Double.POSITIVE_INFINITY;
 		
 		resetCollisionEntities();
+		
+		// Index the regions swept by the moving entities during the horizon.
+		SpatialIndex sweptIndex = new SpatialIndex(INDEX_CELL_SIZE);
+		
+		for (Entity entity : moving_entities) {
+			double[] box = getSweptBox(entity, horizon);
+			sweptIndex.add(entity, box[0], box[1], box[2], box[3]);
+		}
 
-		for (Entity entity_1 : getWorldEntities()) {
-			double timeTillCollision = entity_1.getTimeCollisionBoundary();
+		int used = 0;
+		
+		for (Entity entity_1 : moving_entities) {
+			double timeTillCollision = getTimeCollisionBoundary(entity_1, horizon);
+			used++;
 			
 			// Collision of the entity with the boundaries of the world.
 			if (timeTillCollision < minimumCollisionTime) {
@@ -194,11 +323,14 @@ public class World {
 				setCollisionEntity1( entity_1);
 				setCollisionEntity2(null);
 			}
+			
+			double[] box = getSweptBox(entity_1, horizon);
 
-			// Collision of the entity with another entity in the world
-			for (Entity entity_2 : getWorldEntities()) {
+			// Collision of the entity with another moving entity, every pair is only checked once.
+			for (Entity entity_2 : sweptIndex.getCandidates(box[0], box[1], box[2], box[3])) {
 				if (entity_2.hashCode() > entity_1.hashCode()) {
-					double delta_t = entity_1.getTimeToCollision( entity_2);
+					double delta_t = getTimeToCollision(entity_1, entity_2, horizon);
+					used++;
 					if (delta_t < minimumCollisionTime) {
 						minimumCollisionTime = delta_t;
 						setCollisionEntity1(entity_1);
@@ -206,10 +338,149 @@ public class World {
 					}
 				}
 			}
+			
+			// Collision of the entity with an entity at rest.
+			for (Entity entity_2 : entity_index.getCandidates(box[0], box[1], box[2], box[3])) {
+				if (!moving_entities.contains(entity_2)) {
+					boolean firstIsSmallest = entity_1.hashCode() < entity_2.hashCode();
+					Entity first = firstIsSmallest ? entity_1 : entity_2;
+					Entity second = firstIsSmallest ? entity_2 : entity_1;
+					
+					double delta_t = getTimeToCollision(first, second, horizon);
+					used++;
+					if (delta_t < minimumCollisionTime) {
+						minimumCollisionTime = delta_t;
+						setCollisionEntity1(first);
+						setCollisionEntity2(second);
+					}
+				}
+			}
+		}
+		impact_cache.endSearch(used);
+		
+		// The cached time of the first collision has been shifted since it was computed, it is computed again from 
+		// the current state so the collision happens exactly when the entities touch.
+		if (getCollisionEntity1() != null && minimumCollisionTime <= horizon) {
+			if (getCollisionEntity2() == null)
+				minimumCollisionTime = getCollisionEntity1().getTimeCollisionBoundary(horizon);
+			else
+				minimumCollisionTime = getCollisionEntity1().getTimeToCollision(getCollisionEntity2(), horizon);
 		}
+		Profiler.stop(Probe.NEXT_COLLISION, profilerStart);
 		return minimumCollisionTime;
 	}
-
+	
+	/**
+	 * Return the time until the given entity collides with a boundary of the world.
+	 * 
+	 * @param 	entity
+	 * 			The entity.
+	 * @param 	horizon
+	 * 			The time after which collisions don't matter.
+	 * 
+	 * @return 	The cached time if the entity doesn't accelerate, the time computed within the horizon otherwise. An
+	 * 			accelerating entity changes its velocity every time it moves, so its time is never cached.
+	 * 			@see implementation
+	 */
+	private double getTimeCollisionBoundary(Entity entity, double horizon) {
+		if (entity.isEntityAccelerating())
+			return entity.getTimeCollisionBoundary(horizon);
+		
+		return impact_cache.getTimeCollisionBoundary(entity, world_time);
+	}
+	
+	/**
+	 * Return the time until the given entities collide.
+	 * 
+	 * @param 	entity1
+	 * 			The first entity, which has the smallest hash-code of both entities.
+	 * @param 	entity2
+	 * 			The second entity.
+	 * @param 	horizon
+	 * 			The time after which collisions don't matter.
+	 * 
+	 * @return 	The cached time if neither entity accelerates, the time computed within the horizon otherwise.
+	 * 			@see implementation
+	 */
+	private double getTimeToCollision(Entity entity1, Entity entity2, double horizon) {
+		if (entity1.isEntityAccelerating() || entity2.isEntityAccelerating())
+			return entity1.getTimeToCollision(entity2, horizon);
+		
+		return impact_cache.getTimeToCollision(entity1, entity2, world_time);
+	}
+	
+	/**
+	 * Return the rectangle swept by the given entity during the given time, as {left, right, bottom, top}.
+	 * 
+	 * @param 	entity
+	 * 			The entity that moves.
+	 * @param 	time
+	 * 			The time the entity moves, possibly infinite.
+	 * 
+	 * @return 	The bounding box of every position of the entity during the given time, moving with its current 
+	 * 			velocity and acceleration.
+	 * 			@see implementation
+	 */
+	private double[] getSweptBox(Entity entity, double time) {
+		double radius = entity.getEntityRadius();
+		
+		double[] rangeX = getSweptRange(entity.getEntityPositionX(), entity.getEntityVelocityX(), 
+				entity.getEntityAccelerationX(), time);
+		double[] rangeY = getSweptRange(entity.getEntityPositionY(), entity.getEntityVelocityY(), 
+				entity.getEntityAccelerationY(), time);
+		
+		double[] box = { rangeX[0] - radius, rangeX[1] + radius, rangeY[0] - radius, rangeY[1] + radius };
+		return box;
+	}
+	
+	/**
+	 * Return the range of a coordinate during the given time, when it moves with the given velocity and 
+	 * acceleration, as {minimum, maximum}.
+	 * 
+	 * @return 	The smallest and largest value of position + velocity * t + acceleration * t^2 / 2 for t between zero 
+	 * 			and the given time. These are reached at the ends of the interval or where the velocity becomes zero.
+	 * 			@see implementation
+	 */
+	private static double[] getSweptRange(double position, double velocity, double acceleration, double time) {
+		if (acceleration == 0) {
+			double end = position + sweptDistance(velocity, time);
+			return new double[] { Math.min(position, end), Math.max(position, end) };
+		}
+		
+		double minimum = position, maximum = position;
+		
+		if (Double.isInfinite(time)) {
+			if (acceleration > 0)
+				maximum = Double.POSITIVE_INFINITY;
+			else
+				minimum = Double.NEGATIVE_INFINITY;
+		}
+		else {
+			double end = position + velocity * time + acceleration * time * time / 2;
+			minimum = Math.min(minimum, end);
+			maximum = Math.max(maximum, end);
+		}
+		
+		// The coordinate turns where the velocity becomes zero.
+		double turn = -velocity / acceleration;
+		if (turn > 0 && turn < time) {
+			double turning = position + velocity * turn / 2;
+			minimum = Math.min(minimum, turning);
+			maximum = Math.max(maximum, turning);
+		}
+		return new double[] { minimum, maximum };
+	}
+	
+	/**
+	 * Return the distance covered with the given velocity during the given time.
+	 * 
+	 * @return 	Zero if the velocity is zero (also for an infinite time), velocity * time otherwise.
+	 * 			@see implementation
+	 */
+	private static double sweptDistance(double velocity, double time) {
+		return (velocity == 0) ? 0 : velocity * time;
+	}
+	
 	/**
 	 * Return the set of all the entities in the world.
 	 * 
@@ -231,6 +502,13 @@ public class World {
 	 * 			@see implementation
 	 */
 	private Map<String,Entity> getWorldEntityPositions() {
+		if (!entity_positions_valid) {
+			entity_positions.clear();
+			for (Entity entity : entities.values())
+				entity_positions.put(arrayToString(entity.getEntityPosition()), entity);
+			entity_positions_valid = true;
+		}
+		
 		Map<String, Entity> result = new HashMap<String,Entity>();
 		
 		result.putAll(entity_positions);
@@ -428,7 +706,7 @@ public class World {
 	 * 			@see implementation
 	 */
 	protected boolean hasAsEntity(Entity entity) {
-		return getWorldEntities().contains(entity);
+		return entity != null && entities.get(entity.hashCode()) == entity;
 	}
 
 	/**
@@ -475,7 +753,7 @@ public class World {
 	 * 
 	 * @post 	The entity will belong to the world.
 	 * 		  | new.getWorldEntities().contains(entity)
-	 * @post	The entity will be added with its position as key into the entity_positions map.
+	 * @post	The entity can be found at its position.
 	 * 		  | new.getWorldEntityPositions().containsValue(entity)
 	 * 
 	 * @effect	The entity's world will be set on "this", which represents this world.
@@ -486,14 +764,172 @@ public class World {
 	 *
 	 */
 	public void addEntityToWorld(Entity entity) throws IllegalArgumentException {
-		if (canHaveAsEntity(entity)) {
+		long profilerStart = Profiler.start();
+		boolean canHaveAsEntity = canHaveAsEntity(entity);
+		Profiler.stop(Probe.OVERLAP_CHECK, profilerStart);
+		
+		if (canHaveAsEntity) {
 			entity.setEntityInWorld(this);
 			entities.put(entity.hashCode(),entity);
-			entity_positions.put(arrayToString(entity.getEntityPosition()), entity);
+			entity_positions_valid = false;
+			entity_index.add(entity);
+			entityMotionChanged(entity);
 		} 
 		else
 			throw new IllegalArgumentException();
 	}
+	
+	/**
+	 * Add all the given entities to the world. Either all the entities are added, or none of them.
+	 * 
+	 * @param 	entities
+	 * 			The entities that have to be added to the world.
+	 * 
+	 * @effect 	Every entity is added to the world.
+	 * 		  | for each entity in entities: addEntityToWorld(entity)
+	 * 
+	 * @throws 	IllegalArgumentException if the collection is null, or if one of the entries of the collection would be
+	 * 			rejected by populate().
+	 * 			@see implementation
+	 */
+	public void addEntitiesToWorld(Collection<? extends Entity> entities) throws IllegalArgumentException {
+		if (entities == null)
+			throw new IllegalArgumentException();
+		
+		List<Entity> accepted = new ArrayList<Entity>();
+		if (!validateBatch(new ArrayList<Entity>(entities), accepted).isEmpty())
+			throw new IllegalArgumentException();
+		
+		commitBatch(accepted);
+	}
+	
+	/**
+	 * Populate the world with the given entities. Every entity that can be added to the world is added, the other 
+	 * entries are rejected. 
+	 * 
+	 * @note	The entries are first checked against the world in parallel (state, boundaries and overlap with the 
+	 * 			entities already in the world), next the remaining entities are checked against each other in the 
+	 * 			order of the batch, an entity is rejected if it overlaps with an entity that was accepted before it.
+	 * 			The accepted entities are only added after the whole batch has been checked.
+	 * 
+	 * @param 	entities
+	 * 			The entities that have to be added to the world.
+	 * 
+	 * @return 	The result with the entities that were added and the entries that were rejected.
+	 * 			@see implementation
+	 * 
+	 * @effect 	Every accepted entity is added to the world.
+	 * 		  | for each entity in result.getAccepted(): addEntityToWorld(entity)
+	 * 
+	 * @throws 	IllegalArgumentException if the collection is null.
+	 * 		  | entities == null
+	 */
+	public PopulationResult populate(Collection<? extends Entity> entities) throws IllegalArgumentException {
+		if (entities == null)
+			throw new IllegalArgumentException();
+		
+		List<Entity> accepted = new ArrayList<Entity>();
+		List<Rejection> rejected = validateBatch(new ArrayList<Entity>(entities), accepted);
+		
+		commitBatch(accepted);
+		
+		return new PopulationResult(accepted, rejected);
+	}
+	
+	/**
+	 * Check every entry of the given batch, the entries that can be added are put in the given list.
+	 * 
+	 * @param 	batch
+	 * 			The entries that have to be checked.
+	 * @param 	accepted
+	 * 			The list where the accepted entities will be put.
+	 * 
+	 * @return 	The rejected entries, in the order of the batch.
+	 * 			@see implementation
+	 */
+	private List<Rejection> validateBatch(List<Entity> batch, List<Entity> accepted) {
+		// Checking an entry against the world only reads the world, so these checks can run in parallel.
+		RejectionReason[] reasons = new RejectionReason[batch.size()];
+		IntStream indices = IntStream.range(0, batch.size());
+		if (batch.size() >= PARALLEL_BATCH_SIZE)
+			indices = indices.parallel();
+		indices.forEach(i -> reasons[i] = getRejectionReason(batch.get(i)));
+		
+		// The entries of the batch are checked against each other in order.
+		List<Rejection> rejected = new ArrayList<Rejection>();
+		SpatialIndex batch_index = new SpatialIndex(INDEX_CELL_SIZE);
+		
+		for (int i = 0; i < batch.size(); i++) {
+			Entity entity = batch.get(i);
+			RejectionReason reason = reasons[i];
+			
+			if (reason == null && batch_index.contains(entity))
+				reason = RejectionReason.DUPLICATE;
+			
+			else if (reason == null && batch_index.getOverlappingEntity(entity) != null)
+				reason = RejectionReason.OVERLAPS_BATCH;
+			
+			if (reason == null) {
+				batch_index.add(entity);
+				accepted.add(entity);
+			}
+			else
+				rejected.add(new Rejection(i, entity, reason));
+		}
+		return rejected;
+	}
+	
+	/**
+	 * Return the reason why the given entity cannot be added to this world, without looking at other entities that 
+	 * are being added together with it.
+	 * 
+	 * @param 	entity
+	 * 			The entity that has to be checked.
+	 * 
+	 * @return 	Null if the entity can be added to this world, the reason why it cannot be added otherwise.
+	 * 			@see implementation
+	 */
+	private RejectionReason getRejectionReason(Entity entity) {
+		if (entity == null)
+			return RejectionReason.NULL_ENTITY;
+		
+		else if (entity.isEntityTerminated() || isWorldTerminated())
+			return RejectionReason.TERMINATED;
+		
+		else if (entity.getEntityWorld() != null)
+			return RejectionReason.ALREADY_IN_WORLD;
+		
+		else if (entity instanceof Bullet && ((Bullet) entity).getBulletShip() != null)
+			return RejectionReason.LOADED_ON_SHIP;
+		
+		else if (!entity.entityLiesInBoundaries(this))
+			return RejectionReason.OUT_OF_BOUNDS;
+		
+		else if (entity_index.getOverlappingEntity(entity) != null)
+			return RejectionReason.OVERLAPS_WORLD;
+		
+		else
+			return null;
+	}
+	
+	/**
+	 * Add the given entities, which have all been checked, to the world.
+	 * 
+	 * @param 	accepted
+	 * 			The entities that have to be added.
+	 * 
+	 * @post 	All the entities belong to the world.
+	 * 			@see implementation
+	 */
+	private void commitBatch(List<Entity> accepted) {
+		for (Entity entity : accepted) {
+			entity.setEntityInWorld(this);
+			entities.put(entity.hashCode(),entity);
+			entityMotionChanged(entity);
+		}
+		entity_positions_valid = false;
+		entity_index.addAll(accepted);
+	}
 
 	
 	/// REMOVERS ///
@@ -504,25 +940,30 @@ public class World {
 	 * @param 	entity
 	 * 			The entity that has to be removed.
 	 * 
-	 * @post 	The entity will be removed together with its key from the entity_positions list.
+	 * @post 	The entity can no longer be found at its position.
 	 * 		  | !new.getWorldEntityPositions().containsValue(entity)
 	 * @post 	The entity will not belong to the world anymore.
 	 * 		  | !new.getWorldEntities().contains(entity)
 	 * 
 	 * @effect 	The entity will be set on state NO_WORLD.
 	 * 		  | entity.setEntityFree()
+	 * @effect 	The cached times of impact of the entity are removed.
+	 * 		  | impact_cache.remove(entity)
 	 * 
 	 * @throws 	IllegalArgumentException if the world doesn't have the entity.
 	 * 			@see implementation
 	 */
 	public void removeEntityFromWorld(Entity entity) throws IllegalArgumentException  {
 		
-		if (!getWorldEntities().contains(entity))
+		if (!hasAsEntity(entity))
 			throw new IllegalArgumentException();
 		
 		else{
 			entities.remove(entity.hashCode());
-			entity_positions.remove(arrayToString(entity.getEntityPosition()));
+			entity_positions_valid = false;
+			entity_index.remove(entity);
+			moving_entities.remove(entity);
+			impact_cache.remove(entity);
 			entity.setEntityFree();
 		}
 	}
@@ -530,6 +971,38 @@ public class World {
 
 	/// HELP FUNCTIONS ///
 	
+	/**
+	 * Update the index of the world after the position or radius of the given entity changed.
+	 * 
+	 * @param 	entity
+	 * 			The entity that changed.
+	 */
+	void entityChanged(Entity entity) {
+		entity_positions_valid = false;
+		entity_index.update(entity);
+	}
+	
+	/**
+	 * Update the set of moving entities after the velocity or the thruster of the given entity changed.
+	 * 
+	 * @param 	entity
+	 * 			The entity that changed.
+	 * 
+	 * @post 	If the entity belongs to this world, it is in the set of moving entities if and only if it is not at 
+	 * 			rest.
+	 * 			@see implementation
+	 */
+	void entityMotionChanged(Entity entity) {
+		if (!hasAsEntity(entity))
+			return;
+		
+		if (entity.isEntityAtRest())
+			moving_entities.remove(entity);
+		
+		else
+			moving_entities.add(entity);
+	}
+	
 	/**
 	 * Set an array [x,y] to a string "x, y".
 	 * 
@@ -549,18 +1022,76 @@ public class World {
 	/**
 	 * Evolve the world by the given time "defaultEvolvingTime" and resolve collisions that will happen.
 	 * 
-	 * @note	The method will be provided with comments, to make it more easily to follow the flow of our thinking.
+	 * @effect 	The world is evolved over the given time, while the collisions are collected in a batch.
+	 * 		  | evolveStep(defaultEvolvingTime, collision_recorder)
+	 * @effect 	If a telemetry sink is attached to the world, the statistics of this tick are handed to the sink.
+	 * 			@see implementation
+	 * @effect 	If the given collision listener is effective, the collisions of the step are delivered to it when the
+	 * 			step has been completed, or has failed. If both the step and the listener fail, the failure of the 
+	 * 			listener is suppressed by the failure of the step.
+	 * 		  | deliverCollisions(collisionListener)
 	 */
 	public void evolve(double defaultEvolvingTime, CollisionListener collisionListener) {
+		long profilerStart = Profiler.start();
+		TickRecorder recorder = tick_recorder;
+		
+		// The listener is not invoked during the step, so it cannot slow down the resolution of collisions.
+		CollisionListener stepListener = (collisionListener == null) ? null : collision_recorder;
+		
+		try {
+			if (recorder == null)
+				evolveStep(defaultEvolvingTime, stepListener);
+			
+			else {
+				recorder.startTick(defaultEvolvingTime);
+				evolveStep(defaultEvolvingTime, stepListener);
+				
+				TelemetrySink sink = getTelemetrySink();
+				if (sink != null)
+					sink.tickCompleted(recorder.finishTick(entities.values()));
+			}
+			
+			Profiler.stop(Probe.EVOLVE, profilerStart);
+		} catch (RuntimeException | Error failure) {
+			// Collisions that were resolved before a failure have changed the world as well, but a failing listener 
+			// must not hide the failure of the step.
+			if (collisionListener != null) {
+				try {
+					deliverCollisions(collisionListener);
+				} catch (RuntimeException | Error listenerFailure) {
+					failure.addSuppressed(listenerFailure);
+				}
+			}
+			throw failure;
+		}
+		
+		if (collisionListener != null)
+			deliverCollisions(collisionListener);
+	}
+	
+	/**
+	 * Evolve the world by the given time "defaultEvolvingTime" and resolve collisions that will happen.
+	 * 
+	 * @note	The method will be provided with comments, to make it more easily to follow the flow of our thinking.
+	 */
+	private void evolveStep(double defaultEvolvingTime, CollisionListener collisionListener) {
 		//A world cannot evolve if defaultEvolvingTime is not a finite number. 
 		if (!Double.isFinite(defaultEvolvingTime))
 			throw new IllegalArgumentException();
 		
 		// A world cannot evolve if there are no entities
-		else if (!getWorldEntities().isEmpty()) {
+		else if (!entities.isEmpty()) {
 
-			// Determine time till the first collision.
-			double timeToCollision = getTimeNextCollision();
+			TickRecorder recorder = tick_recorder;
+			long searchStart = (recorder == null) ? 0 : System.nanoTime();
+			
+			// Determine time till the first collision within the time we evolve.
+			double timeToCollision = getTimeNextCollision(defaultEvolvingTime);
+			
+			if (recorder != null) {
+				recorder.recordCollisionSearch(System.nanoTime() - searchStart);
+				recorder.recordSubStep();
+			}
 
 			double collisionPositionX = getPositionNextCollision()[0];
 			double collisionPositionY = getPositionNextCollision()[1];
@@ -571,30 +1102,24 @@ public class World {
 			// collision before the defaultEvolvingTime is over.
 			if (timeToCollision <= defaultEvolvingTime) {
 
-				// Clear the out-dated Map 'entity_positions'.
-				entity_positions.clear();
-
-				// Update the positions of the entities, along with the 'entity_positions'-Map.
-				for (Entity entity : getWorldEntities()) {
-					// Move the entity over the predetermined time 'timeToCollision'
-					// The method 'move' will check if the given entity 'entity' is one of the 
-					// entities who will collide, these entities are: 'entity_1' and 'entity_2' 
-					// (entity_2 can be null when an entity, entity_1, collides with the world).
-					entity.move(timeToCollision);
-
-					// Update the Map 'entity_positions' for each entity with its new position.
-					entity_positions.put(arrayToString(entity.getEntityPosition()), entity);
-				}
+				// Update the positions of the entities. Entities at rest would stay where they are, so only 
+				// the moving entities are moved.
+				advanceWorld(timeToCollision);
 
+				if (recorder != null)
+					recorder.recordCollision(getCollisionEntity1(), getCollisionEntity2());
+				
 				// Check and execute the type of collision.
-				getCollisionEntity1().letCollisionHappen(getCollisionEntity2(),collisionArray, timeToCollision, collisionListener);				
+				long profilerStart = Profiler.start();
+				getCollisionEntity1().letCollisionHappen(getCollisionEntity2(),collisionArray, timeToCollision, collisionListener);
+				Profiler.stop(Probe.COLLISION_RESOLUTION, profilerStart);				
 				
 				double remainingTime = defaultEvolvingTime - timeToCollision;
 
 				if (remainingTime >= 0) {
 					// Invoke the method 'evolve()' in a recursive way to see if there would be other 
 					// collisions in the remaining time.
-					evolve(remainingTime, collisionListener);
+					evolveStep(remainingTime, collisionListener);
 				}
 				else
 					throw new IllegalArgumentException();
@@ -603,16 +1128,100 @@ public class World {
 			// timeToCollision is bigger strict than the defaultEvolvingTime, which means no collision will 
 			// take place when we evolve over the defaultEvolvingTime. We can safely evolve the whole world
 			// (with all its entities) over defaultEvolvingTime.
-			else {
-				entity_positions.clear();
-				for (Entity entity : getWorldEntities()){
-					entity.move(defaultEvolvingTime);
-					entity_positions.put(arrayToString(entity.getEntityPosition()),entity);
-				}
-			}
+			else
+				advanceWorld(defaultEvolvingTime);
+		}
+	}
+	
+	
+	/**
+	 * Move all the entities of the world along their path over the given time.
+	 * 
+	 * @param 	time
+	 * 			The time the entities move.
+	 * 
+	 * @effect 	Every moving entity is moved over the given time. Entities at rest would stay where they are.
+	 * 		  | for each entity in moving_entities: entity.move(time)
+	 * @post 	The time of the world is increased with the given time.
+	 * 		  | new.getWorldTime() == getWorldTime() + time
+	 */
+	private void advanceWorld(double time) {
+		advancing = true;
+		try {
+			for (Entity entity : new ArrayList<Entity>(moving_entities))
+				entity.move(time);
+		} finally {
+			advancing = false;
 		}
+		world_time += time;
+	}
+	
+	/**
+	 * Return the time the world has evolved over since it was made.
+	 * 
+	 * @return 	The time of the world.
+	 * 			@see implementation
+	 */
+	@Basic
+	public double getWorldTime() {
+		return world_time;
+	}
+	
+	/**
+	 * Checks whether all the entities of the world are being moved along their path.
+	 * 
+	 * @return 	True if and only if the world is moving all its entities over the same time.
+	 * 			@see implementation
+	 */
+	boolean isAdvancing() {
+		return advancing;
+	}
+	
+	/**
+	 * The time the world has evolved over since it was made.
+	 */
+	private double world_time = 0;
+	
+	/**
+	 * Whether the world is moving all its entities over the same time.
+	 */
+	private boolean advancing = false;
+	
+	/**
+	 * Return the number of times of impact that were taken from the cache of this world instead of being computed.
+	 * 
+	 * @return 	The number of hits of the impact cache.
+	 * 			@see implementation
+	 */
+	public long getImpactCacheHitCount() {
+		return impact_cache.getHits();
+	}
+	
+	/**
+	 * Return the number of times of impact that had to be computed because they were not in the cache of this world.
+	 * 
+	 * @return 	The number of misses of the impact cache.
+	 * 			@see implementation
+	 */
+	public long getImpactCacheMissCount() {
+		return impact_cache.getMisses();
+	}
+	
+	/**
+	 * Return the number of times of impact in the cache of this world.
+	 * 
+	 * @return 	The number of entries of the impact cache.
+	 * 			@see implementation
+	 */
+	public int getImpactCacheSize() {
+		return impact_cache.size();
 	}
 	
+	/**
+	 * The cache with the times of impact of the entities of this world.
+	 */
+	private final ImpactCache impact_cache = new ImpactCache();
+	
 	
 	/// COLLISION-FUNCTIONS ///
 	
@@ -640,29 +1249,24 @@ public class World {
 	}
 	
 	/**
-	 * Updates the entity_positions map and moves an entity after colliding to avoid direct collisions.
+	 * Moves an entity after colliding to avoid direct collisions.
 	 * 
 	 * @param 	entity
 	 * 			An entity that collided. 				
 	 * @param 	defaultEvolvingTime
 	 * 			the time until the collision happened.
 	 * 
-	 * @effect 	The entity will be removed from the entity_positions map, moved for a small time (a fraction
-	 * 			of the time until collision) and then reput in the map. The move is needed, because otherwise, 
-	 *	 		the entity would keep touching the boundary which would invoke the same collision again the next 
-	 *	 		time the method evolve() will be invoked.
+	 * @effect 	The entity will be moved for a small time (a fraction of the time until collision). The move is 
+	 * 			needed, because otherwise, the entity would keep touching the boundary which would invoke the same 
+	 * 			collision again the next time the method evolve() will be invoked.
 	 * 			@see implementation
 	 */
 	protected void updatePositionListAfterCollision(Entity entity,double defaultEvolvingTime){
-		entity_positions.remove(arrayToString(entity.getEntityPosition()));
-		
 		entity.move(Math.pow(GAMMA,6) * defaultEvolvingTime);
-		
-		entity_positions.put(arrayToString(entity.getEntityPosition()), entity);
 	}
 	
 	/**
-	 * Updates the entity_positions map and moves entities after colliding.
+	 * Moves entities after colliding.
 	 * 
 	 * @param 	entity1
 	 * 			An entity that collided.				
@@ -683,6 +1287,165 @@ public class World {
 	}
 				
 
+	/// TELEMETRY ///
+	
+	/**
+	 * Return the telemetry sink attached to this world.
+	 * 
+	 * @return 	The telemetry sink, null if no sink is attached.
+	 * 			@see implementation
+	 */
+	@Basic
+	public TelemetrySink getTelemetrySink() {
+		return telemetry_sink;
+	}
+	
+	/**
+	 * Attach the given telemetry sink to this world, the sink will receive the statistics of every following tick.
+	 * 
+	 * @param 	sink
+	 * 			The new telemetry sink, null to detach the current sink.
+	 * 
+	 * @post 	The telemetry sink of this world is equal to the given sink.
+	 * 		  | new.getTelemetrySink() == sink
+	 * @post 	If the given sink is null, the world no longer records statistics.
+	 * 			@see implementation
+	 */
+	public void setTelemetrySink(TelemetrySink sink) {
+		telemetry_sink = sink;
+		
+		if (sink == null)
+			tick_recorder = null;
+		
+		else if (tick_recorder == null)
+			tick_recorder = new TickRecorder();
+	}
+	
+	/**
+	 * Record the division of a planetoid in this world.
+	 */
+	void recordPlanetoidDivision() {
+		if (tick_recorder != null)
+			tick_recorder.recordPlanetoidDivision();
+	}
+	
+	/**
+	 * Record the execution of a program by a ship of this world.
+	 * 
+	 * @param 	nanos
+	 * 			The duration of the execution, expressed in nanoseconds.
+	 */
+	void recordProgramExecution(long nanos) {
+		if (tick_recorder != null)
+			tick_recorder.recordProgramExecution(nanos);
+	}
+	
+	/**
+	 * Return whether statistics are recorded for this world.
+	 * 
+	 * @return 	True if and only if a telemetry sink is attached.
+	 * 			@see implementation
+	 */
+	boolean isRecordingTelemetry() {
+		return tick_recorder != null;
+	}
+	
+	/**
+	 * The telemetry sink attached to this world.
+	 */
+	private TelemetrySink telemetry_sink = null;
+	
+	/**
+	 * The recorder of the statistics of the current tick, only present when a telemetry sink is attached.
+	 */
+	private TickRecorder tick_recorder = null;
+	
+
+	/// COLLISION EVENTS ///
+	
+	/**
+	 * Return the executor on which the collisions of a step are delivered to the collision listener.
+	 * 
+	 * @return 	The executor, null if the collisions are delivered on the thread that evolves the world.
+	 * 			@see implementation
+	 */
+	@Basic
+	public Executor getCollisionExecutor() {
+		return collision_executor;
+	}
+	
+	/**
+	 * Set the executor on which the collisions of a step are delivered to the collision listener.
+	 * 
+	 * @param 	executor
+	 * 			The new executor, null to deliver the collisions on the thread that evolves the world.
+	 * 
+	 * @post 	The collision executor of this world is equal to the given executor.
+	 * 		  | new.getCollisionExecutor() == executor
+	 * @note	A listener that receives the collisions on another thread receives them after evolve() has returned,
+	 * 			while the world may already be evolving further; the positions of the collisions do not change, the
+	 * 			entities do.
+	 */
+	public void setCollisionExecutor(Executor executor) {
+		collision_executor = executor;
+	}
+	
+	/**
+	 * Deliver the collisions of the last step to the given listener, and empty the batch of this world.
+	 * 
+	 * @param 	listener
+	 * 			The listener to deliver the collisions to.
+	 * 
+	 * @effect 	If there is no collision executor, the batch is delivered to the listener.
+	 * 		  | if (getCollisionExecutor() == null)
+	 * 		  |		then collision_events.deliverTo(listener)
+	 * @effect 	Otherwise a copy of the batch is delivered to the listener on the executor, only if the step had 
+	 * 			collisions.
+	 * 			@see implementation
+	 */
+	private void deliverCollisions(CollisionListener listener) {
+		try {
+			Executor executor = getCollisionExecutor();
+			
+			if (executor == null)
+				collision_events.deliverTo(listener);
+			
+			else if (!collision_events.isEmpty()) {
+				CollisionBatch batch = collision_events.copy();
+				executor.execute(() -> batch.deliverTo(listener));
+			}
+		} finally {
+			collision_events.clear();
+		}
+	}
+	
+	/**
+	 * The executor on which the collisions are delivered, null to deliver them on the thread that evolves the world.
+	 */
+	private Executor collision_executor = null;
+	
+	/**
+	 * The collisions of the current step, reused from step to step.
+	 */
+	private final CollisionBatch collision_events = new CollisionBatch();
+	
+	/**
+	 * The listener that collects the collisions of the current step in the batch of this world.
+	 */
+	private final CollisionListener collision_recorder = new CollisionListener() {
+		
+		@Override
+		public void boundaryCollision(Object entity, double x, double y) {
+			collision_events.add(entity, null, x, y);
+		}
+		
+		@Override
+		public void objectCollision(Object entity1, Object entity2, double x, double y) {
+			collision_events.add(entity1, entity2, x, y);
+		}
+	};
+	
+
 	/// TERMINATION AND STATES ///
 
 	/**
@@ -725,8 +1488,24 @@ public class World {
 	
 	/** 
 	 * The map entity_positions is a map with as key the string "x,y" representing the position of the entity and as 
-	 * value the entity itself.
+	 * value the entity itself. The map is only rebuilt when it is needed after entities moved.
 	 */
 	private final Map<String, Entity> entity_positions = new HashMap<String, Entity>();
+	
+	/**
+	 * Whether the map entity_positions is up to date with the positions of the entities.
+	 */
+	private boolean entity_positions_valid = true;
+	
+	/**
+	 * The set of the entities of the world that are not at rest. Entities at rest don't have to be moved and can 
+	 * only collide with moving entities.
+	 */
+	private final Set<Entity> moving_entities = new HashSet<Entity>();
+	
+	/**
+	 * The grid that indexes all the entities of the world by their position, used for neighbourhood queries.
+	 */
+	private final SpatialIndex entity_index = new SpatialIndex(INDEX_CELL_SIZE);
 }
 
@@ -332,6 +332,15 @@ public interface IFacade extends asteroids.part1.facade.IFacade {
 	 */
 	public void fireBullet(Ship ship) throws ModelException;
 
+	/**
+	 * <code>ship</code> fires a volley of at most <code>amount</code>
+	 * bullets. By default, the bullets are fired one at a time.
+	 */
+	default void fireBullets(Ship ship, int amount) throws ModelException {
+		for (int i = 0; i < amount; i++)
+			fireBullet(ship);
+	}
+
 	/******************
 	 * COLLISIONS
 	 **************/
@@ -396,6 +405,17 @@ public interface IFacade extends asteroids.part1.facade.IFacade {
 	 */
 	public Set<? extends Object> getEntities(World world) throws ModelException;
 
+	/**
+	 * Return a set of the entities in the given world that are (partly) within
+	 * the rectangle with the given bounds. The set may also contain entities
+	 * outside of the rectangle; by default, it contains every entity of the
+	 * world.
+	 */
+	default Set<? extends Object> getEntitiesInRectangle(World world, double left, double bottom, double right,
+			double top) throws ModelException {
+		return getEntities(world);
+	}
+
 	/**
 	 * This method is deprecated; you should not implement nor use it.
 	 * 
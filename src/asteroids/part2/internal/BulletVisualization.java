@@ -5,7 +5,6 @@ import java.awt.Graphics2D;
 
 import asteroids.model.Bullet;
 import asteroids.part2.facade.IFacade;
-import asteroids.util.ModelException;
 
 public class BulletVisualization<F extends IFacade> extends Visualization<F, Bullet> {
 
@@ -16,15 +15,15 @@ public class BulletVisualization<F extends IFacade> extends Visualization<F, Bul
 	@Override
 	public void draw(DrawContext<F> ctx) {
 		Graphics2D g2d = ctx.getGraphics();
-		try {
-			F facade = ctx.getFacade();
-			double radius = facade.getBulletRadius(getObject());
-			double x = ctx.worldToScreenX(facade.getBulletPosition(getObject())[0]);
-			double y = ctx.worldToScreenY(facade.getBulletPosition(getObject())[1]);
-			g2d.setColor(getColor());
-			g2d.drawOval((int) (x - radius), (int) (y - radius), (int) (2 * radius), (int) (2 * radius));
-		} catch (ModelException e) {
-			ctx.handleError(e);
+		WorldSnapshot snapshot = ctx.getSnapshot();
+		double radius = snapshot.getRadius(getObject()) * ctx.getScale();
+		double x = ctx.worldToScreenX(snapshot.getX(getObject()));
+		double y = ctx.worldToScreenY(snapshot.getY(getObject()));
+		if (isTiny(radius)) {
+			drawDot(g2d, getColor(), x, y, radius);
+			return;
 		}
+		g2d.setColor(getColor());
+		g2d.drawOval((int) (x - radius), (int) (y - radius), (int) (2 * radius), (int) (2 * radius));
 	}
 }
@@ -0,0 +1,87 @@
+package asteroids.part2.internal;
+
+/**
+ * Camera that maps world coordinates to the coordinates of a view. The camera
+ * shows the part of the world from its bottom-left corner, magnified by its
+ * zoom factor. The y-axis is flipped, since the y-axis of the screen points
+ * down.
+ *
+ * The camera is moved by the key listener and read while drawing, which can
+ * happen on another thread, so its methods are synchronized.
+ */
+public class Camera {
+
+	public static final double MIN_ZOOM = 1.0 / 64;
+	public static final double MAX_ZOOM = 16;
+
+	private double left;
+	private double bottom;
+	private double zoom = 1;
+	private int viewWidth;
+	private int viewHeight;
+
+	public synchronized double getZoom() {
+		return zoom;
+	}
+
+	/**
+	 * Sets the size of the view, in pixels.
+	 */
+	public synchronized void setViewSize(int width, int height) {
+		this.viewWidth = width;
+		this.viewHeight = height;
+	}
+
+	public synchronized double worldToScreenX(double x) {
+		return (x - left) * zoom;
+	}
+
+	public synchronized double worldToScreenY(double y) {
+		return viewHeight - (y - bottom) * zoom;
+	}
+
+	public synchronized double getVisibleLeft() {
+		return left;
+	}
+
+	public synchronized double getVisibleBottom() {
+		return bottom;
+	}
+
+	public synchronized double getVisibleRight() {
+		return left + viewWidth / zoom;
+	}
+
+	public synchronized double getVisibleTop() {
+		return bottom + viewHeight / zoom;
+	}
+
+	/**
+	 * Moves the camera over the given number of pixels.
+	 */
+	public synchronized void pan(double dx, double dy) {
+		left += dx / zoom;
+		bottom += dy / zoom;
+	}
+
+	/**
+	 * Multiplies the zoom factor with the given factor, keeping the center of
+	 * the view in place.
+	 */
+	public synchronized void zoom(double factor) {
+		double centerX = left + viewWidth / zoom / 2;
+		double centerY = bottom + viewHeight / zoom / 2;
+		zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+		left = centerX - viewWidth / zoom / 2;
+		bottom = centerY - viewHeight / zoom / 2;
+	}
+
+	/**
+	 * Shows the world from its origin, without magnification.
+	 */
+	public synchronized void reset() {
+		left = 0;
+		bottom = 0;
+		zoom = 1;
+	}
+}
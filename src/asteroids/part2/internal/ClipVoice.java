@@ -0,0 +1,83 @@
+package asteroids.part2.internal;
+
+import java.io.IOException;
+import java.net.URL;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineEvent;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Voice that plays a sound through a clip of the default mixer. The clip is
+ * opened (and the sound decoded) when the voice is created, so starting it
+ * only rewinds it.
+ */
+public class ClipVoice implements Voice {
+
+	public static final Voice.Factory FACTORY = ClipVoice::new;
+
+	private final Clip clip;
+	private volatile boolean looping;
+	private volatile long startTime;
+	private volatile Runnable started;
+
+	public ClipVoice(URL url) throws IOException, LineUnavailableException, UnsupportedAudioFileException {
+		clip = AudioSystem.getClip();
+		try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(url)) {
+			clip.open(audioStream);
+		}
+		clip.addLineListener(event -> {
+			if (event.getType() == LineEvent.Type.START) {
+				Runnable callback = started;
+				started = null;
+				if (callback != null)
+					callback.run();
+			}
+		});
+	}
+
+	@Override
+	public void start(boolean loop, Runnable started) {
+		if (clip.isRunning()) {
+			clip.stop();
+		}
+		clip.setFramePosition(0);
+		this.looping = loop;
+		this.startTime = System.nanoTime();
+		this.started = started;
+		if (loop) {
+			clip.loop(Clip.LOOP_CONTINUOUSLY);
+		} else {
+			clip.start();
+		}
+	}
+
+	@Override
+	public void stop() {
+		looping = false;
+		clip.stop();
+	}
+
+	@Override
+	public boolean isActive() {
+		return clip.isRunning();
+	}
+
+	@Override
+	public boolean isLooping() {
+		return looping;
+	}
+
+	@Override
+	public long getStartTime() {
+		return startTime;
+	}
+
+	@Override
+	public void close() {
+		clip.close();
+	}
+}
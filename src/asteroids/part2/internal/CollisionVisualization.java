@@ -74,7 +74,7 @@ public class CollisionVisualization<F extends IFacade> extends Visualization<F,
 
 				double x1_Collision = x + dt * vx;
 				double y1_Collision = y + dt * vy;
-				int radius1 = (int) facade.getShipRadius(selected);
+				int radius1 = (int) (facade.getShipRadius(selected) * ctx.getScale());
 				float[] dashPattern = { 10, 5 };
 				g2d.setColor(Color.LIGHT_GRAY);
 				Stroke oldStroke = g2d.getStroke();
@@ -97,7 +97,7 @@ public class CollisionVisualization<F extends IFacade> extends Visualization<F,
 							double x2_Collision = first_x + dt * first_vx;
 							double y2_Collision = first_y + dt * first_vy;
 
-							int radius2 = (int) getRadius(facade, first);
+							int radius2 = (int) (getRadius(facade, first) * ctx.getScale());
 							g2d.drawOval((int) Math.round(ctx.worldToScreenX(x2_Collision) - radius2),
 									(int) Math.round(ctx.worldToScreenY(y2_Collision) - radius2), 2 * radius2,
 									2 * radius2);
@@ -10,9 +10,23 @@ public interface DrawContext<F> {
 	
 	public F getFacade();
 
+	/**
+	 * Returns the state of the entities that are drawn, which visualizations
+	 * read instead of querying the facade.
+	 */
+	public WorldSnapshot getSnapshot();
+
 	public double worldToScreenX(double x);
 
 	public double worldToScreenY(double y);
 
+	/**
+	 * Returns the number of pixels on the screen for a unit of length in the
+	 * world.
+	 */
+	public default double getScale() {
+		return 1;
+	}
+
 	public void handleError(ModelException e);
 }
@@ -5,13 +5,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
-import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.UnsupportedAudioFileException;
 
@@ -19,11 +23,24 @@ import asteroids.util.internal.ResourceUtils;
 
 /**
  * Sound manager that reads a text file to determine which sound files to load.
+ *
+ * Every sound gets a pool of voices that are opened when the manager is
+ * created, so a sound can be heard several times at once (rapid fire,
+ * explosions) without decoding anything while playing. When every voice of a
+ * sound is busy, the voice that was started first is stolen, preferring voices
+ * that don't loop.
+ *
+ * Requests are put in a lock-free queue and executed by a single thread, so
+ * the game never waits for the sound system. The time between a request and
+ * the moment its sound starts playing is measured.
  */
 public class FileSoundManager implements Runnable, Sound {
 
+	public static final int DEFAULT_VOICES_PER_SOUND = 4;
+
 	public abstract class Request {
 		private final String sound;
+		private final long triggerTime = System.nanoTime();
 
 		public Request(String sound) {
 			this.sound = sound;
@@ -33,7 +50,26 @@ public class FileSoundManager implements Runnable, Sound {
 			return sound;
 		}
 
+		/**
+		 * Returns the value of System.nanoTime() when the request was made.
+		 */
+		public long getTriggerTime() {
+			return triggerTime;
+		}
+
 		public abstract void execute();
+
+		protected Voice[] getVoices() {
+			Voice[] result = voices.get(getSound());
+			if (result == null) {
+				System.err.println("clip " + getSound() + " not found");
+			}
+			return result;
+		}
+
+		protected void startVoice(Voice voice, boolean loop) {
+			voice.start(loop, () -> recordLatency(System.nanoTime() - triggerTime));
+		}
 	}
 
 	public class Play extends Request {
@@ -43,15 +79,9 @@ public class FileSoundManager implements Runnable, Sound {
 
 		@Override
 		public void execute() {
-			Clip clip = clips.get(getSound());
-			if (clip == null) {
-				System.err.println("clip " + getSound() + " not found");
-			} else {
-				if (clip.isRunning()) {
-					clip.stop();
-				}
-				clip.setFramePosition(0);
-				clip.start();
+			Voice[] pool = getVoices();
+			if (pool != null) {
+				startVoice(selectVoice(pool), false);
 			}
 		}
 	}
@@ -63,11 +93,11 @@ public class FileSoundManager implements Runnable, Sound {
 
 		@Override
 		public void execute() {
-			Clip clip = clips.get(getSound());
-			if (clip == null) {
-				System.err.println("clip " + getSound() + " not found");
-			} else {
-				clip.stop();
+			Voice[] pool = getVoices();
+			if (pool != null) {
+				for (Voice voice : pool) {
+					voice.stop();
+				}
 			}
 		}
 	}
@@ -79,31 +109,53 @@ public class FileSoundManager implements Runnable, Sound {
 
 		@Override
 		public void execute() {
-			Clip clip = clips.get(getSound());
-			if (clip == null) {
-				System.err.println("clip " + getSound() + " not found");
-			} else {
-				if (clip.isRunning()) {
-					clip.stop();
+			Voice[] pool = getVoices();
+			if (pool != null) {
+				// a sound that is already looping is restarted, not played twice
+				for (Voice voice : pool) {
+					if (voice.isActive() && voice.isLooping()) {
+						startVoice(voice, true);
+						return;
+					}
 				}
-				clip.setFramePosition(0);
-				clip.loop(Clip.LOOP_CONTINUOUSLY);
+				startVoice(selectVoice(pool), true);
 			}
 		}
 	}
 
-	HashMap<String, Clip> clips = new HashMap<>();
-	Queue<Request> requests = new LinkedList<>();
+	private final int voicesPerSound;
+	private final Voice.Factory factory;
+	private final Map<String, Voice[]> voices = new HashMap<>();
+	private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+	private volatile Thread worker;
+
+	private final AtomicLong executedRequests = new AtomicLong();
+	private final AtomicLong stolenVoices = new AtomicLong();
+	private final AtomicLong startedSounds = new AtomicLong();
+	private final AtomicLong totalLatencyNanos = new AtomicLong();
+	private final AtomicLong maximumLatencyNanos = new AtomicLong();
 
 	public FileSoundManager(String path) {
+		this(path, ClipVoice.FACTORY, DEFAULT_VOICES_PER_SOUND);
+	}
+
+	/**
+	 * @param path
+	 *            the text file with the names of the sound files
+	 * @param factory
+	 *            creates the voices, like ClipVoice.FACTORY or a SilentMixer
+	 * @param voicesPerSound
+	 *            the number of times a sound can be heard at once
+	 */
+	public FileSoundManager(String path, Voice.Factory factory, int voicesPerSound) {
+		if (voicesPerSound < 1)
+			throw new IllegalArgumentException("at least one voice per sound is needed");
+		this.factory = factory;
+		this.voicesPerSound = voicesPerSound;
 		try {
 			loadSounds(path);
 		} catch (IOException e) {
 			System.err.println("error loading sound description file");
-		} catch (LineUnavailableException e) {
-			System.err.println("no line available");
-		} catch (UnsupportedAudioFileException e) {
-			System.err.println("audio format not supported");
 		} catch (IllegalArgumentException e) {
 			System.err.println("system does not support at least one clip instance through any installed mixer");
 		} catch (SecurityException e) {
@@ -111,23 +163,130 @@ public class FileSoundManager implements Runnable, Sound {
 		}
 	}
 
-	private void loadSounds(String path) throws IOException, LineUnavailableException, UnsupportedAudioFileException {
-		if (AudioSystem.getMixerInfo().length == 0)
+	private void loadSounds(String path) throws IOException {
+		if (factory == ClipVoice.FACTORY && AudioSystem.getMixerInfo().length == 0)
 			throw new IllegalArgumentException("no mixer installed");
 		ClassLoader loader = FileSoundManager.class.getClassLoader();
 		InputStream stream = loader.getResourceAsStream(path);
-		BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
-		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
-			Clip clip = AudioSystem.getClip();
-			URL url = ResourceUtils.toURL("asteroids/resources/" + line);
+		if (stream == null)
+			throw new IOException("file not found: " + path);
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				if (!line.trim().isEmpty())
+					loadSound(line.trim());
+			}
+		}
+	}
+
+	/**
+	 * Opens the voices of the given sound file. A sound that cannot be loaded
+	 * is skipped, the other sounds are still available.
+	 */
+	private void loadSound(String file) {
+		try {
+			URL url = ResourceUtils.toURL("asteroids/resources/" + file);
 			if (url == null) {
-				System.err.println("sound " + line + " not found");
-				continue;
+				System.err.println("sound " + file + " not found");
+				return;
+			}
+			Voice[] pool = new Voice[voicesPerSound];
+			for (int i = 0; i < voicesPerSound; i++) {
+				pool[i] = factory.open(url);
+			}
+			voices.put(file.substring(0, file.lastIndexOf('.')), pool);
+		} catch (IOException e) {
+			System.err.println("sound " + file + " not found");
+		} catch (LineUnavailableException e) {
+			System.err.println("no line available for " + file);
+		} catch (UnsupportedAudioFileException e) {
+			System.err.println("audio format of " + file + " not supported");
+		}
+	}
+
+	/**
+	 * Returns a voice of the given pool to play a sound on: a voice that is not
+	 * playing, or else the voice that was started first, preferring voices that
+	 * don't loop.
+	 */
+	private Voice selectVoice(Voice[] pool) {
+		Voice stolen = null;
+		for (Voice voice : pool) {
+			if (!voice.isActive()) {
+				return voice;
+			}
+			if (stolen == null || (stolen.isLooping() && !voice.isLooping())
+					|| (stolen.isLooping() == voice.isLooping() && voice.getStartTime() < stolen.getStartTime())) {
+				stolen = voice;
+			}
+		}
+		stolenVoices.incrementAndGet();
+		return stolen;
+	}
+
+	private void recordLatency(long latencyNanos) {
+		startedSounds.incrementAndGet();
+		totalLatencyNanos.addAndGet(latencyNanos);
+		long maximum;
+		while (latencyNanos > (maximum = maximumLatencyNanos.get())
+				&& !maximumLatencyNanos.compareAndSet(maximum, latencyNanos))
+			;
+	}
+
+	/**
+	 * Returns the names of the sounds that were loaded.
+	 */
+	public List<String> getSounds() {
+		List<String> result = new ArrayList<>(voices.keySet());
+		Collections.sort(result);
+		return result;
+	}
+
+	/**
+	 * Returns the number of voices of the given sound that are playing.
+	 */
+	public int getActiveVoiceCount(String name) {
+		int result = 0;
+		Voice[] pool = voices.get(name);
+		if (pool != null) {
+			for (Voice voice : pool) {
+				if (voice.isActive())
+					result++;
 			}
-			AudioInputStream audioStream = AudioSystem.getAudioInputStream(url);
-			clip.open(audioStream);
-			clips.put(line.substring(0, line.lastIndexOf('.')), clip);
 		}
+		return result;
+	}
+
+	public long getExecutedRequestCount() {
+		return executedRequests.get();
+	}
+
+	/**
+	 * Returns the number of times a playing voice was stopped to play another
+	 * sound.
+	 */
+	public long getStolenVoiceCount() {
+		return stolenVoices.get();
+	}
+
+	/**
+	 * Returns the number of sounds that started playing, and for which the
+	 * latency was measured.
+	 */
+	public long getStartedSoundCount() {
+		return startedSounds.get();
+	}
+
+	/**
+	 * Returns the average time in milliseconds between a request and the
+	 * moment its sound started playing.
+	 */
+	public double getAverageLatencyMillis() {
+		long started = startedSounds.get();
+		return (started == 0) ? 0 : totalLatencyNanos.get() / 1e6 / started;
+	}
+
+	public double getMaximumLatencyMillis() {
+		return maximumLatencyNanos.get() / 1e6;
 	}
 
 	@Override
@@ -146,35 +305,53 @@ public class FileSoundManager implements Runnable, Sound {
 	}
 
 	public void addRequest(Request request) {
-		synchronized (this) {
-			requests.add(request);
-			notifyAll();
+		requests.add(request);
+		Thread thread = worker;
+		if (thread != null) {
+			LockSupport.unpark(thread);
 		}
 	}
 
 	@Override
 	public void run() {
-		while (true) {
-			Request request = null;
-			synchronized (this) {
-				while (request == null) {
-					if (requests.isEmpty()) {
-						try {
-							wait();
-						} catch (InterruptedException e) {
-							return;
-						}
-					} else {
-						request = requests.remove();
-					}
-				}
+		Thread current = Thread.currentThread();
+		while (!current.isInterrupted()) {
+			Request request = requests.poll();
+			if (request == null) {
+				LockSupport.park(this);
+			} else {
+				request.execute();
+				executedRequests.incrementAndGet();
 			}
-			request.execute();
 		}
 	}
 
 	@Override
 	public void start() {
-		new Thread(this).start();
+		Thread thread = new Thread(this, "asteroids-sound");
+		thread.setDaemon(true);
+		worker = thread;
+		thread.start();
+	}
+
+	/**
+	 * Stops the thread that executes the requests and releases the voices.
+	 */
+	public void close() {
+		Thread thread = worker;
+		worker = null;
+		if (thread != null) {
+			thread.interrupt();
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		for (Voice[] pool : voices.values()) {
+			for (Voice voice : pool) {
+				voice.close();
+			}
+		}
 	}
 }
@@ -0,0 +1,54 @@
+package asteroids.part2.internal;
+
+/**
+ * Statistics of the frames drawn by a render loop: the number of frames and
+ * the average, last and longest frame time. Frames are recorded by the render
+ * thread, the statistics can be read from any thread.
+ */
+public class FrameStatistics {
+
+	private long frames;
+	private long totalNanos;
+	private long lastNanos;
+	private long maximumNanos;
+
+	synchronized void record(long frameNanos) {
+		frames++;
+		totalNanos += frameNanos;
+		lastNanos = frameNanos;
+		maximumNanos = Math.max(maximumNanos, frameNanos);
+	}
+
+	public synchronized long getFrameCount() {
+		return frames;
+	}
+
+	public synchronized double getAverageFrameMillis() {
+		return (frames == 0) ? 0 : totalNanos / 1e6 / frames;
+	}
+
+	public synchronized double getLastFrameMillis() {
+		return lastNanos / 1e6;
+	}
+
+	public synchronized double getMaximumFrameMillis() {
+		return maximumNanos / 1e6;
+	}
+
+	public synchronized double getAverageFramesPerSecond() {
+		return (totalNanos == 0) ? 0 : frames * 1e9 / totalNanos;
+	}
+
+	public synchronized void reset() {
+		frames = 0;
+		totalNanos = 0;
+		lastNanos = 0;
+		maximumNanos = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%d frames, %.1f fps, average %.2f ms, maximum %.2f ms", frames,
+				getAverageFramesPerSecond(), getAverageFrameMillis(), getMaximumFrameMillis());
+	}
+}
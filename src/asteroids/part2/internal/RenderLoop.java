@@ -0,0 +1,168 @@
+package asteroids.part2.internal;
+
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.ImageCapabilities;
+import java.awt.Point;
+import java.awt.Toolkit;
+import java.awt.Window;
+import java.awt.image.BufferStrategy;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Active rendering loop, used instead of a Swing timer that repaints the view.
+ * The loop runs on its own thread: it steps the game at a fixed rate and draws
+ * frames at the target frame rate on a buffer strategy of the window of the
+ * view, with page flipping if the graphics device supports it.
+ *
+ * Active rendering is enabled with "-Dasteroids.activeRendering=true", the
+ * target frame rate is set with "-Dasteroids.fps=N" (0 draws as fast as
+ * possible).
+ */
+public class RenderLoop implements Runnable {
+
+	public static final boolean ENABLED = Boolean.getBoolean("asteroids.activeRendering");
+
+	public static final int TARGET_FPS = Integer.getInteger("asteroids.fps", 60);
+
+	private static final int NB_BUFFERS = 2;
+
+	private final Component view;
+	private final Runnable step;
+	private final Consumer<Graphics2D> renderer;
+	private final long stepNanos;
+	private final long frameNanos;
+	private final FrameStatistics statistics = new FrameStatistics();
+
+	private volatile boolean running;
+	private volatile boolean stepping = true;
+	private Thread thread;
+
+	/**
+	 * @param view
+	 *            the component that is drawn, its window provides the buffer
+	 *            strategy
+	 * @param step
+	 *            steps the game, invoked every stepMillis milliseconds
+	 * @param renderer
+	 *            draws a frame in the coordinates of the view
+	 * @param stepMillis
+	 *            the time between two steps of the game
+	 * @param targetFps
+	 *            the target frame rate, 0 for as fast as possible
+	 */
+	public RenderLoop(Component view, Runnable step, Consumer<Graphics2D> renderer, long stepMillis, int targetFps) {
+		this.view = view;
+		this.step = step;
+		this.renderer = renderer;
+		this.stepNanos = stepMillis * 1_000_000;
+		this.frameNanos = (targetFps > 0) ? 1_000_000_000L / targetFps : 0;
+	}
+
+	public FrameStatistics getStatistics() {
+		return statistics;
+	}
+
+	public synchronized void start() {
+		if (running)
+			return;
+		running = true;
+		thread = new Thread(this, "asteroids-render");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops the loop and waits until the render thread has finished, unless it
+	 * is invoked from the render thread itself.
+	 */
+	public synchronized void stop() {
+		running = false;
+		if (thread != null && thread != Thread.currentThread()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		thread = null;
+	}
+
+	/**
+	 * Stops stepping the game, frames are still drawn.
+	 */
+	public void pause() {
+		stepping = false;
+	}
+
+	@Override
+	public void run() {
+		Window window = SwingUtilities.getWindowAncestor(view);
+		if (window == null)
+			return;
+		BufferStrategy strategy = createBufferStrategy(window);
+
+		long lastStep = System.nanoTime();
+		long lastFrame = lastStep;
+		while (running) {
+			long now = System.nanoTime();
+			if (stepping && now - lastStep >= stepNanos) {
+				step.run();
+				lastStep = now;
+			}
+			if (!running)
+				break;
+
+			drawFrame(window, strategy);
+
+			now = System.nanoTime();
+			statistics.record(now - lastFrame);
+			lastFrame = now;
+
+			long sleepNanos = Math.min(frameNanos, stepNanos) - (System.nanoTime() - now);
+			if (sleepNanos > 0) {
+				try {
+					Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+				} catch (InterruptedException e) {
+					return;
+				}
+			} else {
+				Thread.yield();
+			}
+		}
+	}
+
+	private void drawFrame(Window window, BufferStrategy strategy) {
+		Point offset = SwingUtilities.convertPoint(view, 0, 0, window);
+		do {
+			do {
+				Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+				try {
+					g2d.translate(offset.x, offset.y);
+					g2d.clipRect(0, 0, view.getWidth(), view.getHeight());
+					renderer.accept(g2d);
+				} finally {
+					g2d.dispose();
+				}
+			} while (strategy.contentsRestored());
+			strategy.show();
+		} while (strategy.contentsLost());
+		Toolkit.getDefaultToolkit().sync();
+	}
+
+	private static BufferStrategy createBufferStrategy(Window window) {
+		BufferCapabilities flipping = new BufferCapabilities(new ImageCapabilities(true), new ImageCapabilities(true),
+				BufferCapabilities.FlipContents.UNDEFINED);
+		try {
+			window.createBufferStrategy(NB_BUFFERS, flipping);
+		} catch (AWTException e) {
+			// page flipping is not supported, fall back on copying the back buffer
+			window.createBufferStrategy(NB_BUFFERS);
+		}
+		return window.getBufferStrategy();
+	}
+}
@@ -0,0 +1,72 @@
+package asteroids.part2.internal;
+
+import java.io.IOException;
+import java.net.URL;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Factory of voices that don't make any sound. A silent voice only reads the
+ * header of its sound file, and is active for as long as the sound lasts, so
+ * a sound manager behaves as with real voices. It needs no audio device, which
+ * makes it useful for tests and machines without sound.
+ */
+public class SilentMixer implements Voice.Factory {
+
+	@Override
+	public Voice open(URL url) throws IOException, UnsupportedAudioFileException {
+		AudioFileFormat format = AudioSystem.getAudioFileFormat(url);
+		long frames = format.getFrameLength();
+		float frameRate = format.getFormat().getFrameRate();
+		long durationNanos = (frames > 0 && frameRate > 0) ? (long) (frames / frameRate * 1e9) : 0;
+		return new SilentVoice(durationNanos);
+	}
+
+	private static class SilentVoice implements Voice {
+
+		private final long durationNanos;
+		private volatile boolean playing;
+		private volatile boolean looping;
+		private volatile long startTime;
+
+		SilentVoice(long durationNanos) {
+			this.durationNanos = durationNanos;
+		}
+
+		@Override
+		public void start(boolean loop, Runnable started) {
+			playing = true;
+			looping = loop;
+			startTime = System.nanoTime();
+			started.run();
+		}
+
+		@Override
+		public void stop() {
+			playing = false;
+			looping = false;
+		}
+
+		@Override
+		public boolean isActive() {
+			return playing && (looping || System.nanoTime() - startTime < durationNanos);
+		}
+
+		@Override
+		public boolean isLooping() {
+			return looping;
+		}
+
+		@Override
+		public long getStartTime() {
+			return startTime;
+		}
+
+		@Override
+		public void close() {
+			stop();
+		}
+	}
+}
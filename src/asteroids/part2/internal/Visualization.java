@@ -1,9 +1,17 @@
 package asteroids.part2.internal;
 
 import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.Image;
 
 public abstract class Visualization<F, T> implements Drawable<DrawContext<F>> {
+
+	/**
+	 * Objects with a smaller radius on the screen (in pixels) are drawn as a
+	 * dot instead of in full detail.
+	 */
+	public static final double MIN_DETAILED_RADIUS = 2;
+
 	private final Color color;
 	private final T object;
 	private final Image image;
@@ -27,4 +35,21 @@ public abstract class Visualization<F, T> implements Drawable<DrawContext<F>> {
 	public Image getImage() {
 		return image;
 	}
+
+	/**
+	 * Returns whether an object with the given radius on the screen is too
+	 * small to be drawn in full detail.
+	 */
+	protected static boolean isTiny(double screenRadius) {
+		return screenRadius < MIN_DETAILED_RADIUS;
+	}
+
+	/**
+	 * Draws an object that is too small to be drawn in full detail as a dot.
+	 */
+	protected static void drawDot(Graphics2D g2d, Color color, double x, double y, double screenRadius) {
+		int size = Math.max(1, (int) Math.round(2 * screenRadius));
+		g2d.setColor(color);
+		g2d.fillRect((int) Math.round(x) - size / 2, (int) Math.round(y) - size / 2, size, size);
+	}
 }
@@ -0,0 +1,71 @@
+package asteroids.part2.internal;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The visualizations of the objects drawn by a view. The visualization of an
+ * object is made the first time it is drawn, and released after a frame in
+ * which it was not drawn, so terminated objects and objects that left the
+ * world are not pinned by the view for the rest of the game.
+ */
+public class VisualizationCache<F> {
+
+	private final Map<Object, Visualization<F, ?>> visualizations = new HashMap<>();
+	private final Set<Object> drawnObjects = new HashSet<>();
+
+	/**
+	 * Sets the visualization of the given object.
+	 */
+	public void put(Object object, Visualization<F, ?> visualization) {
+		visualizations.put(object, visualization);
+	}
+
+	/**
+	 * Returns the visualization of the given object, or null if it has none.
+	 */
+	public Visualization<F, ?> get(Object object) {
+		return visualizations.get(object);
+	}
+
+	/**
+	 * Returns the visualization of the given object, made by the given creator
+	 * if it has none, and marks the object as drawn in the current frame.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Visualization<F, T> getOrCreate(T object, Function<T, Visualization<F, T>> creator) {
+		drawnObjects.add(object);
+		if (!visualizations.containsKey(object)) {
+			visualizations.put(object, creator.apply(object));
+		}
+		return (Visualization<F, T>) visualizations.get(object);
+	}
+
+	/**
+	 * Starts a frame, in which no object has been drawn yet.
+	 */
+	public void startFrame() {
+		drawnObjects.clear();
+	}
+
+	/**
+	 * Ends a frame, and removes the visualizations of the objects that were not
+	 * drawn in it. Every visible object in the world is drawn in every frame,
+	 * so these belong to terminated objects, objects that left the world or
+	 * objects outside of the view. The visualizations of the given objects are
+	 * kept anyway.
+	 */
+	public void endFrame(Set<? extends Object> kept) {
+		visualizations.keySet().removeIf(object -> !drawnObjects.contains(object) && !kept.contains(object));
+	}
+
+	/**
+	 * Returns the number of visualizations that are kept.
+	 */
+	public int size() {
+		return visualizations.size();
+	}
+}
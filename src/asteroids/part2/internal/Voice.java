@@ -0,0 +1,47 @@
+package asteroids.part2.internal;
+
+import java.io.IOException;
+import java.net.URL;
+
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * A voice plays a single sound, one at a time. A sound manager keeps several
+ * voices per sound, so the same sound can be heard several times at once.
+ */
+public interface Voice {
+
+	/**
+	 * Creates the voices of a sound manager.
+	 */
+	public interface Factory {
+
+		/**
+		 * Returns a new voice, ready to play the sound at the given location.
+		 */
+		public Voice open(URL url) throws IOException, LineUnavailableException, UnsupportedAudioFileException;
+	}
+
+	/**
+	 * Plays the sound from its start, stopping it first if it was playing.
+	 * The given callback is run once the sound actually starts playing.
+	 */
+	public void start(boolean loop, Runnable started);
+
+	public void stop();
+
+	/**
+	 * Returns whether the voice is playing.
+	 */
+	public boolean isActive();
+
+	public boolean isLooping();
+
+	/**
+	 * Returns the value of System.nanoTime() when the voice was last started.
+	 */
+	public long getStartTime();
+
+	public void close();
+}
@@ -0,0 +1,149 @@
+package asteroids.part2.internal;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import asteroids.model.Bullet;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.part2.facade.IFacade;
+import asteroids.util.ModelException;
+
+/**
+ * Snapshot of the entities that are drawn: their positions, radii and
+ * orientations, read from the facade once. Frames are drawn from the snapshot
+ * instead of the facade, so the entities are only queried once per step of
+ * the game, no matter how many frames are drawn.
+ *
+ * A snapshot only holds the entities in a rectangle of the world (the view of
+ * the camera when it was taken), and the set of ships of the world. It is
+ * only valid as long as the model does not change: a new one has to be taken
+ * after every step of the game.
+ */
+public class WorldSnapshot {
+
+	/**
+	 * Reads the state of the entities that are neither ships nor bullets.
+	 */
+	public interface EntityReader<F> {
+
+		/**
+		 * Adds the given entity to the snapshot, if it is of a kind the reader
+		 * knows.
+		 */
+		void read(F facade, Object entity, WorldSnapshot snapshot) throws ModelException;
+	}
+
+	private final double left, bottom, right, top;
+	private final Set<Object> ships;
+	private final Map<Object, State> states = new LinkedHashMap<>();
+
+	public WorldSnapshot(double left, double bottom, double right, double top, Set<? extends Object> ships) {
+		this.left = left;
+		this.bottom = bottom;
+		this.right = right;
+		this.top = top;
+		this.ships = Collections.unmodifiableSet(new HashSet<>(ships));
+	}
+
+	/**
+	 * Returns a snapshot of the ships and bullets of the given world in the
+	 * given rectangle. The other entities in the rectangle are passed to the
+	 * given reader.
+	 */
+	public static <F extends IFacade> WorldSnapshot of(F facade, World world, double left, double bottom,
+			double right, double top, EntityReader<? super F> reader) throws ModelException {
+		WorldSnapshot result = new WorldSnapshot(left, bottom, right, top, facade.getWorldShips(world));
+		for (Object entity : facade.getEntitiesInRectangle(world, left, bottom, right, top)) {
+			if (entity instanceof Ship) {
+				Ship ship = (Ship) entity;
+				result.add(ship, facade.getShipPosition(ship), facade.getShipRadius(ship),
+						facade.getShipOrientation(ship), facade.isShipThrusterActive(ship));
+			} else if (entity instanceof Bullet) {
+				Bullet bullet = (Bullet) entity;
+				result.add(bullet, facade.getBulletPosition(bullet), facade.getBulletRadius(bullet), 0, false);
+			} else {
+				reader.read(facade, entity, result);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the state of the given entity to this snapshot.
+	 */
+	public void add(Object entity, double[] position, double radius, double orientation, boolean thrusterActive) {
+		states.put(entity, new State(position[0], position[1], radius, orientation, thrusterActive));
+	}
+
+	/**
+	 * Returns whether this snapshot holds the entities of the given rectangle.
+	 */
+	public boolean covers(double left, double bottom, double right, double top) {
+		return this.left == left && this.bottom == bottom && this.right == right && this.top == top;
+	}
+
+	/**
+	 * Returns the entities in this snapshot, in the order in which they were
+	 * added.
+	 */
+	public Set<Object> getEntities() {
+		return Collections.unmodifiableSet(states.keySet());
+	}
+
+	/**
+	 * Returns the ships of the world, also those outside of the rectangle of
+	 * this snapshot.
+	 */
+	public Set<Object> getShips() {
+		return ships;
+	}
+
+	public boolean contains(Object entity) {
+		return states.containsKey(entity);
+	}
+
+	public double getX(Object entity) {
+		return getState(entity).x;
+	}
+
+	public double getY(Object entity) {
+		return getState(entity).y;
+	}
+
+	public double getRadius(Object entity) {
+		return getState(entity).radius;
+	}
+
+	public double getOrientation(Object entity) {
+		return getState(entity).orientation;
+	}
+
+	public boolean isThrusterActive(Object entity) {
+		return getState(entity).thrusterActive;
+	}
+
+	private State getState(Object entity) {
+		State state = states.get(entity);
+		if (state == null)
+			throw new IllegalArgumentException("entity not in snapshot");
+		return state;
+	}
+
+	private static class State {
+
+		private final double x, y, radius, orientation;
+		private final boolean thrusterActive;
+
+		private State(double x, double y, double radius, double orientation, boolean thrusterActive) {
+			this.x = x;
+			this.y = y;
+			this.radius = radius;
+			this.orientation = orientation;
+			this.thrusterActive = thrusterActive;
+		}
+	}
+}
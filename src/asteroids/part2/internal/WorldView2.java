@@ -10,10 +10,8 @@ import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.geom.Rectangle2D;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -22,34 +20,41 @@ import javax.swing.JPanel;
 import javax.swing.Timer;
 
 import asteroids.model.Bullet;
+import asteroids.model.CollisionBatch;
+import asteroids.model.CollisionBatchListener;
 import asteroids.model.Ship;
 import asteroids.model.World;
-import asteroids.part2.CollisionListener;
 import asteroids.part2.facade.IFacade;
 import asteroids.util.ModelException;
 import asteroids.util.internal.InternalUtils;
-import asteroids.util.internal.ResourceUtils;
+import asteroids.util.internal.SpriteCache;
 
 @SuppressWarnings("serial")
-public class WorldView2<F extends IFacade> extends JPanel implements KeyListener, ActionListener, CollisionListener {
+public class WorldView2<F extends IFacade> extends JPanel implements KeyListener, ActionListener, CollisionBatchListener {
 
 	private static final int TIMER_DELAY = 1000 / 30;
+	private static final double PAN_STEP = 40;
+	private static final double ZOOM_STEP = 1.25;
 
 	private AsteroidsFrame2<F> game;
 	private F facade;
 	private World world;
 	private Ship player;
-	private double deltaAngle = Double.NaN;
-	private boolean thrusterChange = false;
-	private boolean fire;
+	private volatile double deltaAngle = Double.NaN;
+	private volatile boolean thrusterChange = false;
+	private volatile boolean fire;
 	private Timer timer;
+	private RenderLoop renderLoop;
+	private WorldSnapshot snapshot;
 	private long timeAfterLastEvolve;
 	private Image background;
-	private String msg = null;
-	private Map<Object, Visualization<F, ?>> visualizations = new HashMap<>();
+	private volatile String msg = null;
+	private VisualizationCache<F> visualizations = new VisualizationCache<>();
+	private Set<? extends Object> visibleEntities = new HashSet<>();
+	private Camera camera = new Camera();
 	private Set<Explosion> explosions = new HashSet<>();
 
-	private boolean showCollisions = false;
+	private volatile boolean showCollisions = false;
 
 	public WorldView2(AsteroidsFrame2<F> game, World world, Ship player, Set<Ship> enemies) throws ModelException {
 		this.game = game;
@@ -58,8 +63,8 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		this.player = player;
 		this.timer = new Timer(TIMER_DELAY, this);
 		setBackground(Color.BLACK);
-		background = ResourceUtils.loadImage("asteroids/resources/game-background.jpg")
-				.getScaledInstance(game.getWidth(), game.getHeight(), Image.SCALE_DEFAULT);
+		background = SpriteCache.getScaledImage("asteroids/resources/game-background.jpg", game.getWidth(),
+				game.getHeight());
 		if (player != null) {
 			visualizations.put(player, createPlayerVisualization(player));
 		}
@@ -81,8 +86,7 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		} catch (ModelException e) {
 			handleError(e);
 		}
-		Image image = ResourceUtils.loadImage("asteroids/resources/sphere.png").getScaledInstance(size, size,
-				Image.SCALE_DEFAULT);
+		Image image = SpriteCache.getScaledImage("asteroids/resources/sphere.png", size, size);
 		return new ShipVisualization<>(Color.GREEN, enemy, image);
 	}
 
@@ -97,8 +101,7 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		} catch (ModelException e) {
 			handleError(e);
 		}
-		Image image = ResourceUtils.loadImage("asteroids/resources/sphere.png").getScaledInstance(size, size,
-				Image.SCALE_DEFAULT);
+		Image image = SpriteCache.getScaledImage("asteroids/resources/sphere.png", size, size);
 		assert image != null : "No player image!";
 		return new CompositeVisualization<>(player, //
 				new ShipVisualization<>(Color.WHITE, player, image),
@@ -130,16 +133,67 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 	@Override
 	protected void paintComponent(Graphics g) {
 		super.paintComponent(g);
-		Graphics2D g2d = (Graphics2D) g;
+		render((Graphics2D) g);
+	}
+
+	/**
+	 * Draws a frame, from the snapshot of the entities taken after the last
+	 * step.
+	 */
+	private void render(Graphics2D g2d) {
 		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 		g2d.drawImage(background, 0, 0, null);
 		g2d.setColor(Color.WHITE);
-		DrawContext<F> ctx = createDrawContext(g2d);
+		camera.setViewSize(getWidth(), getHeight());
+		WorldSnapshot snapshot = getSnapshot();
+		DrawContext<F> ctx = createDrawContext(g2d, snapshot);
+		visualizations.startFrame();
+		visibleEntities = snapshot.getEntities();
 		drawObjects(ctx);
+		// the visualizations of ships in the world are kept, since their
+		// bullets take their color
+		visualizations.endFrame(snapshot.getShips());
 		drawMessage(g2d);
 	}
 
-	private DrawContext<F> createDrawContext(Graphics2D g2d) {
+	/**
+	 * Draws a frame of the active render loop.
+	 */
+	private void renderActive(Graphics2D g2d) {
+		g2d.setColor(getBackground());
+		g2d.fillRect(0, 0, getWidth(), getHeight());
+		render(g2d);
+	}
+
+	/**
+	 * Returns the snapshot of the entities in the view of the camera. A new
+	 * snapshot is only taken in the first frame after a step of the game, or
+	 * when the camera has moved; the other frames are drawn without querying
+	 * the model.
+	 */
+	private WorldSnapshot getSnapshot() {
+		double left = camera.getVisibleLeft(), bottom = camera.getVisibleBottom();
+		double right = camera.getVisibleRight(), top = camera.getVisibleTop();
+		if (snapshot == null || !snapshot.covers(left, bottom, right, top)) {
+			try {
+				snapshot = WorldSnapshot.of(facade, world, left, bottom, right, top, this::readEntity);
+			} catch (ModelException e) {
+				handleError(e);
+				snapshot = new WorldSnapshot(left, bottom, right, top, new HashSet<>());
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Adds the state of an entity that is neither a ship nor a bullet to the
+	 * given snapshot. The view does not draw other entities, so it ignores
+	 * them.
+	 */
+	protected void readEntity(F facade, Object entity, WorldSnapshot snapshot) throws ModelException {
+	}
+
+	private DrawContext<F> createDrawContext(Graphics2D g2d, WorldSnapshot snapshot) {
 		return new DrawContext<F>() {
 
 			@Override
@@ -149,12 +203,17 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 
 			@Override
 			public double worldToScreenY(double y) {
-				return getHeight() - y;
+				return camera.worldToScreenY(y);
 			}
 
 			@Override
 			public double worldToScreenX(double x) {
-				return x;
+				return camera.worldToScreenX(x);
+			}
+
+			@Override
+			public double getScale() {
+				return camera.getZoom();
 			}
 
 			@Override
@@ -162,6 +221,11 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 				return facade;
 			}
 
+			@Override
+			public WorldSnapshot getSnapshot() {
+				return snapshot;
+			}
+
 			@Override
 			public void handleError(ModelException e) {
 				WorldView2.this.handleError(e);
@@ -189,15 +253,9 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 	}
 
 	protected void drawBullets(DrawContext<F> ctx) {
-		Set<? extends Bullet> bullets;
-		try {
-			bullets = facade.getWorldBullets(world);
-		} catch (ModelException e) {
-			handleError(e);
-			return;
-		}
-		for (Bullet bullet : bullets) {
-			getOrCreateVisualization(bullet, this::createBulletVisualization).draw(ctx);
+		for (Object entity : getVisibleEntities()) {
+			if (entity instanceof Bullet)
+				getOrCreateVisualization((Bullet) entity, this::createBulletVisualization).draw(ctx);
 		}
 	}
 
@@ -213,17 +271,23 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 	}
 
 	protected void drawShips(DrawContext<F> ctx) {
-		Set<? extends Ship> ships;
-		try {
-			ships = facade.getWorldShips(world);
-		} catch (ModelException e) {
-			handleError(e);
-			return;
+		for (Object entity : getVisibleEntities()) {
+			if (entity instanceof Ship)
+				getOrCreateVisualization((Ship) entity, this::createEnemyVisualization).draw(ctx);
 		}
+	}
 
-		for (Ship ship : ships) {
-			getOrCreateVisualization(ship, this::createEnemyVisualization).draw(ctx);
-		}
+	/**
+	 * Returns the entities of the world that are visible through the camera in
+	 * the frame that is being drawn. Entities outside of the view are neither
+	 * queried nor drawn.
+	 */
+	protected Set<? extends Object> getVisibleEntities() {
+		return visibleEntities;
+	}
+
+	public Camera getCamera() {
+		return camera;
 	}
 
 	protected void handleError(ModelException e) {
@@ -241,6 +305,8 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		case KeyEvent.VK_ESCAPE:
 			System.out.println("exiting...");
 			timer.stop();
+			if (renderLoop != null)
+				renderLoop.pause();
 			System.exit(0);
 			break;
 		case KeyEvent.VK_LEFT:
@@ -257,6 +323,27 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		case KeyEvent.VK_SPACE:
 			fire = true;
 			break;
+		case KeyEvent.VK_W:
+			camera.pan(0, PAN_STEP);
+			break;
+		case KeyEvent.VK_S:
+			camera.pan(0, -PAN_STEP);
+			break;
+		case KeyEvent.VK_A:
+			camera.pan(-PAN_STEP, 0);
+			break;
+		case KeyEvent.VK_D:
+			camera.pan(PAN_STEP, 0);
+			break;
+		case KeyEvent.VK_PAGE_UP:
+			camera.zoom(ZOOM_STEP);
+			break;
+		case KeyEvent.VK_PAGE_DOWN:
+			camera.zoom(1 / ZOOM_STEP);
+			break;
+		case KeyEvent.VK_HOME:
+			camera.reset();
+			break;
 		case KeyEvent.VK_ENTER:
 			game.showMenu();
 		}
@@ -280,6 +367,15 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 
 	@Override
 	public void actionPerformed(ActionEvent e) {
+		step();
+		repaint();
+	}
+
+	/**
+	 * Performs one step of the game: the actions of the player, the evolution
+	 * of the world and the explosions.
+	 */
+	private void step() {
 		long now = System.currentTimeMillis();
 		long millisSinceLastEvolve = now - timeAfterLastEvolve;
 		timeAfterLastEvolve = now;
@@ -291,7 +387,8 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		updateExplosions(millisSinceLastEvolve);
 
 		checkGameOver();
-		repaint();
+		// the model has changed, the next frame takes a new snapshot
+		snapshot = null;
 	}
 
 	private void doActions() {
@@ -391,13 +488,40 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 
 	protected void gameOver(String string) {
 		timer.stop();
+		if (renderLoop != null)
+			renderLoop.pause();
 		msg = string;
 	}
 
 	public void startGame() {
 		game.getSound().loop("game-theme");
 		timeAfterLastEvolve = System.currentTimeMillis();
-		timer.start();
+		if (RenderLoop.ENABLED) {
+			setIgnoreRepaint(true);
+			game.setIgnoreRepaint(true);
+			renderLoop = new RenderLoop(this, this::step, this::renderActive, TIMER_DELAY, RenderLoop.TARGET_FPS);
+			renderLoop.start();
+		} else {
+			timer.start();
+		}
+	}
+
+	/**
+	 * Returns the statistics of the frames drawn by the active render loop, or
+	 * null if active rendering is not enabled.
+	 */
+	public FrameStatistics getFrameStatistics() {
+		return (renderLoop == null) ? null : renderLoop.getStatistics();
+	}
+
+	@Override
+	public void removeNotify() {
+		timer.stop();
+		if (renderLoop != null) {
+			renderLoop.stop();
+			game.setIgnoreRepaint(false);
+		}
+		super.removeNotify();
 	}
 
 	@Override
@@ -407,15 +531,29 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 
 	@Override
 	public void objectCollision(Object entity1, Object entity2, double x, double y) {
-		try {
-			if ((entity1 instanceof Bullet && !(entity2 instanceof Bullet))
-					|| (entity2 instanceof Bullet && !(entity1 instanceof Bullet))) {
-				game.getSound().play("explosion");
-				explosions.add(new Explosion(x, facade.getWorldSize(world)[1] - y));
+		if (isExplosion(entity1, entity2)) {
+			game.getSound().play("explosion");
+			explosions.add(new Explosion(x, y));
+		}
+	}
+
+	@Override
+	public void collisionBatch(CollisionBatch batch) {
+		boolean exploded = false;
+		for (int i = 0; i < batch.size(); i++) {
+			if (!batch.isBoundaryCollision(i) && isExplosion(batch.getFirstEntity(i), batch.getSecondEntity(i))) {
+				explosions.add(new Explosion(batch.getX(i), batch.getY(i)));
+				exploded = true;
 			}
-		} catch (ModelException exc) {
-			handleError(exc);
 		}
+		// one sound for all the explosions of a step
+		if (exploded)
+			game.getSound().play("explosion");
+	}
+
+	private static boolean isExplosion(Object entity1, Object entity2) {
+		return (entity1 instanceof Bullet && !(entity2 instanceof Bullet))
+				|| (entity2 instanceof Bullet && !(entity1 instanceof Bullet));
 	}
 
 	protected AsteroidsFrame2<F> getGame() {
@@ -430,11 +568,15 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		return facade;
 	}
 
-	@SuppressWarnings("unchecked")
 	protected <T> Visualization<F, T> getOrCreateVisualization(T object, Function<T, Visualization<F, T>> creator) {
-		if (!visualizations.containsKey(object)) {
-			visualizations.put(object, creator.apply(object));
-		}
-		return (Visualization<F, T>) visualizations.get(object);
+		return visualizations.getOrCreate(object, creator);
+	}
+
+	/**
+	 * Returns the number of visualizations that are kept, which is bounded by
+	 * the number of objects in the world.
+	 */
+	public int getLiveVisualizationCount() {
+		return visualizations.size();
 	}
 }
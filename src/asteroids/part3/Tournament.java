@@ -0,0 +1,162 @@
+package asteroids.part3;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import asteroids.part3.internal.MatchResult;
+import asteroids.part3.internal.Scenario;
+import asteroids.part3.internal.TournamentRunner;
+import asteroids.part3.programs.internal.ParseOutcome;
+import asteroids.part3.programs.internal.ProgramCache;
+import asteroids.part3.programs.internal.ProgramDiagnostic;
+import asteroids.part3.programs.internal.ProgramLoader;
+import asteroids.part3.programs.internal.ProgramParser;
+import asteroids.program.Program;
+import asteroids.program.ProgramFactory;
+import asteroids.util.internal.ResourceUtils;
+
+/**
+ * Play a round-robin tournament between ship programs on the command line,
+ * without opening a window. Results are written as CSV (or JSON lines) as soon
+ * as a match has ended; the throughput is reported at the end.
+ *
+ * Usage: Tournament [options] [program files]
+ *   -scenario FILE   properties file with the scenario (see Scenario)
+ *   -programs DIR    folder with the programs, if no program files are given
+ *                    (default: asteroids/resources/programs)
+ *   -rounds N        number of rounds (default: 1)
+ *   -threads N       number of matches played at once (default: number of cores)
+ *   -format csv|json format of the results (default: csv)
+ *   -out FILE        file for the results (default: standard output)
+ *   -verbose         show what the programs print
+ *
+ * @author Sieben Bocklandt and Ruben Broekx
+ */
+public class Tournament {
+	public static void main(String[] args) throws IOException, InterruptedException {
+		System.setProperty("java.awt.headless", "true");
+
+		String scenarioFile = null;
+		String folder = "asteroids/resources/programs";
+		int rounds = 1;
+		int threads = Runtime.getRuntime().availableProcessors();
+		boolean json = false;
+		String outFile = null;
+		boolean verbose = false;
+		List<String> files = new ArrayList<>();
+		try {
+			for (int i = 0; i < args.length; i++) {
+				String arg = args[i];
+				if (arg.equals("-scenario")) {
+					scenarioFile = args[++i];
+				} else if (arg.equals("-programs")) {
+					folder = args[++i];
+				} else if (arg.equals("-rounds")) {
+					rounds = Integer.parseInt(args[++i]);
+				} else if (arg.equals("-threads")) {
+					threads = Integer.parseInt(args[++i]);
+				} else if (arg.equals("-format")) {
+					json = args[++i].equals("json");
+				} else if (arg.equals("-out")) {
+					outFile = args[++i];
+				} else if (arg.equals("-verbose")) {
+					verbose = true;
+				} else if (arg.startsWith("-")) {
+					System.out.println("unknown option: " + arg);
+					return;
+				} else {
+					files.add(arg);
+				}
+			}
+		} catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+			System.out.println("invalid value for option " + args[args.length - 1]);
+			return;
+		}
+
+		Scenario scenario = new Scenario();
+		if (scenarioFile != null) {
+			try (InputStream stream = ResourceUtils.openResource(ResourceUtils.toURL(scenarioFile))) {
+				scenario = Scenario.read(stream);
+			}
+		}
+		ProgramParser.warmUp();
+		Map<String, Supplier<Program>> programs = files.isEmpty() ? load(folder) : compile(files);
+		if (programs.size() < 2) {
+			System.err.println("at least two valid programs are needed");
+			return;
+		}
+
+		PrintStream out = (outFile == null) ? System.out : new PrintStream(new FileOutputStream(outFile), true);
+		if (!verbose) {
+			// print statements of the programs would mix with the results
+			System.setOut(new PrintStream(new OutputStream() {
+				@Override
+				public void write(int b) {
+				}
+			}));
+		}
+		boolean asJson = json;
+		if (!asJson)
+			out.println(MatchResult.getCsvHeader());
+		TournamentRunner runner = new TournamentRunner(scenario, programs, threads);
+		TournamentRunner.Summary summary = runner.run(rounds, result -> {
+			out.println(asJson ? result.toJson() : result.toCsv());
+			out.flush();
+		});
+		if (out != System.out)
+			out.close();
+		System.err.println(summary + " on " + threads + " threads");
+	}
+
+	/**
+	 * Loads every program in the given folder at once. Programs that cannot be
+	 * read or parsed are reported and left out.
+	 */
+	private static Map<String, Supplier<Program>> load(String folder) throws IOException {
+		ProgramLoader<?, ?, ?, Program> loader = new ProgramLoader<>(new ProgramFactory());
+		ProgramLoader.Result<Program> result = loader.load(folder);
+		result.getDiagnostics().forEach((name, diagnostics) -> {
+			for (ProgramDiagnostic diagnostic : diagnostics)
+				System.err.println("skipping " + name + ": " + diagnostic);
+		});
+		return result.getPrograms();
+	}
+
+	/**
+	 * Parses every program once; files with the same text share a parse.
+	 * Programs that cannot be read or parsed are reported and left out.
+	 */
+	private static Map<String, Supplier<Program>> compile(List<String> files) {
+		Map<String, Supplier<Program>> result = new LinkedHashMap<>();
+		ProgramCache<?, ?, ?, Program> parser = new ProgramCache<>(new ProgramFactory(),
+				Math.max(1, files.size()));
+		for (String file : files) {
+			String name = file.substring(file.lastIndexOf('/') + 1);
+			try {
+				URL url = ResourceUtils.toURL(file);
+				ParseOutcome<Supplier<Program>> outcome = parser.compileFile(url);
+				if (outcome.isFail()) {
+					System.err.println("skipping " + name + ": " + outcome.getFailValue());
+				} else {
+					result.put(name, outcome.getSuccessValue());
+				}
+			} catch (FileNotFoundException e) {
+				System.err.println("skipping " + name + ": not found");
+			} catch (IOException e) {
+				System.err.println("skipping " + name + ": " + e.getMessage());
+			}
+		}
+		return result;
+	}
+}
@@ -1,5 +1,6 @@
 package asteroids.part3.facade;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -129,6 +130,13 @@ public interface IFacade extends asteroids.part2.facade.IFacade {
 	 */
 	public void removePlanetoidFromWorld(World world, Planetoid planetoid) throws ModelException;
 
+	/**
+	 * Add all entities in <code>entities</code> that can be added to
+	 * <code>world</code>, and return which entities were added and which
+	 * entries were rejected (and why).
+	 */
+	public PopulationResult populateWorld(World world, Collection<? extends Entity> entities) throws ModelException;
+
 	/**************
 	 * ASTEROID: Basic methods
 	 *************/
@@ -3,11 +3,12 @@ package asteroids.part3.internal;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
 import java.awt.Rectangle;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 import asteroids.model.Asteroid;
 import asteroids.model.Bullet;
+import asteroids.model.Entity;
 import asteroids.model.Planetoid;
 import asteroids.model.Ship;
 import asteroids.model.World;
@@ -61,49 +62,42 @@ public class AsteroidsFrame3 extends AsteroidsFrame2<IFacade> {
 			}
 		}
 
-		// Spawn a random number of asteroids.
+		// Spawn a random number of asteroids, planetoids and free bullets. Entities
+		// that don't fit in the world are simply rejected.
+		List<Entity> entities = new ArrayList<>();
 		int nbAsteroids = (int) (Math.random() * 4 + 1);
-		Set<Asteroid> asteroids = new HashSet<>();
 		for (int j = 0; j < nbAsteroids; j++) {
 			try {
-				Asteroid asteroid = facade.createAsteroid(Math.random() * width, Math.random() * height, 25, 50,
-						10 + Math.random() * 20);
-				if (asteroid != null) {
-					facade.addAsteroidToWorld(world, asteroid);
-					asteroids.add(asteroid);
-				}
+				entities.add(facade.createAsteroid(Math.random() * width, Math.random() * height, 25, 50,
+						10 + Math.random() * 20));
 			} catch (ModelException exc) {
 				// so be it (daaaaaaamn gurl)
 			}
 		}
-
-		// Spawn a random number of planetoids.
 		int nbPlanetoids = (int) (Math.random() * 4 + 1);
-		Set<Planetoid> planetoids = new HashSet<>();
 		for (int j = 0; j < nbPlanetoids; j++) {
 			try {
-				Planetoid planetoid = facade.createPlanetoid(Math.random() * width, Math.random() * height, 25, 50,
-						10.0 + Math.random() * 30, Math.random() * 1000);
-				if (planetoid != null) {
-					facade.addPlanetoidToWorld(world, planetoid);
-					planetoids.add(planetoid);
-				}
+				entities.add(facade.createPlanetoid(Math.random() * width, Math.random() * height, 25, 50,
+						10.0 + Math.random() * 30, Math.random() * 1000));
 			} catch (ModelException exc) {
 				// so be it
 			}
 		}
-
-		// Spawn a random number of free bullets.
 		int nbBullets = (int) (Math.random() * 3);
 		for (int j = 0; j < nbBullets; j++) {
 			try {
-				Bullet bullet = facade.createBullet(Math.random() * width, Math.random() * height, 10, 12,
-						Math.random() * 5 + 3);
-				facade.addBulletToWorld(world, bullet);
+				entities.add(facade.createBullet(Math.random() * width, Math.random() * height, 10, 12,
+						Math.random() * 5 + 3));
 			} catch (ModelException exc) {
 				// so be it
 			}
 		}
+		try {
+			facade.populateWorld(world, entities);
+		} catch (ModelException e) {
+			handleError(e);
+			return;
+		}
 
 		// Start the game.
 		try {
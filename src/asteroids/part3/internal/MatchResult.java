@@ -0,0 +1,120 @@
+package asteroids.part3.internal;
+
+import java.util.Locale;
+
+/**
+ * Result of a match between the programs of two ships.
+ */
+public class MatchResult {
+
+	public static enum Outcome {
+		FIRST_WINS, SECOND_WINS, DRAW;
+	}
+
+	private final int round;
+	private final String first;
+	private final String second;
+	private final Outcome outcome;
+	private final int ticks;
+	private final boolean firstAlive;
+	private final boolean secondAlive;
+	private final String error;
+	private final long nanos;
+
+	public MatchResult(int round, String first, String second, Outcome outcome, int ticks, boolean firstAlive,
+			boolean secondAlive, String error, long nanos) {
+		this.round = round;
+		this.first = first;
+		this.second = second;
+		this.outcome = outcome;
+		this.ticks = ticks;
+		this.firstAlive = firstAlive;
+		this.secondAlive = secondAlive;
+		this.error = error;
+		this.nanos = nanos;
+	}
+
+	public int getRound() {
+		return round;
+	}
+
+	public String getFirst() {
+		return first;
+	}
+
+	public String getSecond() {
+		return second;
+	}
+
+	public Outcome getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * Returns the number of ticks that were played before the match ended.
+	 */
+	public int getTicks() {
+		return ticks;
+	}
+
+	public boolean isFirstAlive() {
+		return firstAlive;
+	}
+
+	public boolean isSecondAlive() {
+		return secondAlive;
+	}
+
+	/**
+	 * Returns the error that ended the match, or null if there was none.
+	 */
+	public String getError() {
+		return error;
+	}
+
+	public double getMillis() {
+		return nanos / 1e6;
+	}
+
+	public static String getCsvHeader() {
+		return "round,first,second,outcome,ticks,first_alive,second_alive,millis,error";
+	}
+
+	public String toCsv() {
+		return round + "," + csv(first) + "," + csv(second) + "," + outcome + "," + ticks + "," + firstAlive + ","
+				+ secondAlive + "," + String.format(Locale.ROOT, "%.3f", getMillis()) + ","
+				+ (error == null ? "" : csv(error));
+	}
+
+	public String toJson() {
+		return "{\"round\":" + round + ",\"first\":" + json(first) + ",\"second\":" + json(second)
+				+ ",\"outcome\":\"" + outcome + "\",\"ticks\":" + ticks + ",\"firstAlive\":" + firstAlive
+				+ ",\"secondAlive\":" + secondAlive + ",\"millis\":"
+				+ String.format(Locale.ROOT, "%.3f", getMillis()) + ",\"error\":"
+				+ (error == null ? "null" : json(error)) + "}";
+	}
+
+	private static String csv(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0)
+			return value;
+		return "\"" + value.replace("\"", "\"\"") + "\"";
+	}
+
+	private static String json(String value) {
+		StringBuilder result = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			if (c == '"' || c == '\\')
+				result.append('\\').append(c);
+			else if (c < 0x20)
+				result.append(String.format("\\u%04x", (int) c));
+			else
+				result.append(c);
+		}
+		return result.append('"').toString();
+	}
+
+	@Override
+	public String toString() {
+		return toCsv();
+	}
+}
@@ -0,0 +1,114 @@
+package asteroids.part3.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Description of the world in which the matches of a tournament are played.
+ * A scenario is read from a properties file, for example:
+ *
+ * <pre>
+ * width = 2000
+ * height = 2000
+ * ticks = 1000
+ * dt = 0.03
+ * shipRadius = 40
+ * shipMass = 3.9e17
+ * bullets = 20
+ * asteroids = 5
+ * planetoids = 2
+ * seed = 42
+ * </pre>
+ *
+ * Missing keys keep their default value.
+ */
+public class Scenario {
+
+	private final double width;
+	private final double height;
+	private final int ticks;
+	private final double dt;
+	private final double shipRadius;
+	private final double shipMass;
+	private final int bullets;
+	private final int asteroids;
+	private final int planetoids;
+	private final long seed;
+
+	public Scenario() {
+		this(new Properties());
+	}
+
+	public Scenario(Properties properties) {
+		width = getDouble(properties, "width", 2000);
+		height = getDouble(properties, "height", 2000);
+		ticks = (int) getDouble(properties, "ticks", 1000);
+		dt = getDouble(properties, "dt", 0.03);
+		shipRadius = getDouble(properties, "shipRadius", 40);
+		shipMass = getDouble(properties, "shipMass", 3.9e17);
+		bullets = (int) getDouble(properties, "bullets", 20);
+		asteroids = (int) getDouble(properties, "asteroids", 5);
+		planetoids = (int) getDouble(properties, "planetoids", 2);
+		seed = (long) getDouble(properties, "seed", 42);
+		if (ticks < 0 || !(dt > 0) || bullets < 0 || asteroids < 0 || planetoids < 0)
+			throw new IllegalArgumentException("invalid scenario");
+	}
+
+	public static Scenario read(InputStream stream) throws IOException {
+		Properties properties = new Properties();
+		properties.load(stream);
+		return new Scenario(properties);
+	}
+
+	private static double getDouble(Properties properties, String key, double defaultValue) {
+		String value = properties.getProperty(key);
+		if (value == null)
+			return defaultValue;
+		try {
+			return Double.parseDouble(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("invalid value for " + key + ": " + value);
+		}
+	}
+
+	public double getWidth() {
+		return width;
+	}
+
+	public double getHeight() {
+		return height;
+	}
+
+	public int getTicks() {
+		return ticks;
+	}
+
+	public double getDt() {
+		return dt;
+	}
+
+	public double getShipRadius() {
+		return shipRadius;
+	}
+
+	public double getShipMass() {
+		return shipMass;
+	}
+
+	public int getBullets() {
+		return bullets;
+	}
+
+	public int getAsteroids() {
+		return asteroids;
+	}
+
+	public int getPlanetoids() {
+		return planetoids;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+}
@@ -0,0 +1,210 @@
+package asteroids.part3.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import asteroids.facade.Facade;
+import asteroids.model.Entity;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.part3.facade.IFacade;
+import asteroids.part3.internal.MatchResult.Outcome;
+import asteroids.program.Program;
+import asteroids.util.ModelException;
+
+/**
+ * Plays round-robin tournaments between ship programs, without any user
+ * interface. In every round, every program plays once against every other
+ * program. Matches are independent (each has its own world), so they are
+ * played in parallel on a pool of threads.
+ *
+ * Programs keep the state of their execution, so every ship gets a new
+ * program from a supplier; the suppliers of ProgramParser.compileString()
+ * build these from a single parse of the program text.
+ */
+public class TournamentRunner {
+
+	/**
+	 * Summary of a tournament.
+	 */
+	public static class Summary {
+		private final int matches;
+		private final long nanos;
+
+		Summary(int matches, long nanos) {
+			this.matches = matches;
+			this.nanos = nanos;
+		}
+
+		public int getMatches() {
+			return matches;
+		}
+
+		public double getSeconds() {
+			return nanos / 1e9;
+		}
+
+		public double getMatchesPerSecond() {
+			return (nanos == 0) ? 0 : matches * 1e9 / nanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d matches in %.3f s (%.1f matches/s)", matches, getSeconds(),
+					getMatchesPerSecond());
+		}
+	}
+
+	private final Scenario scenario;
+	private final Map<String, Supplier<Program>> programs;
+	private final int threads;
+
+	/**
+	 * @param scenario
+	 *            the world in which the matches are played
+	 * @param programs
+	 *            the programs that take part, by name
+	 * @param threads
+	 *            the number of matches that are played at once
+	 */
+	public TournamentRunner(Scenario scenario, Map<String, Supplier<Program>> programs, int threads) {
+		if (threads < 1)
+			throw new IllegalArgumentException("at least one thread is needed");
+		this.scenario = scenario;
+		this.programs = new LinkedHashMap<>(programs);
+		this.threads = threads;
+	}
+
+	/**
+	 * Plays the given number of rounds, and gives every result to the given
+	 * consumer as soon as its match has ended. The consumer is only invoked
+	 * from the calling thread.
+	 */
+	public Summary run(int rounds, Consumer<MatchResult> results) throws InterruptedException {
+		List<String> names = new ArrayList<>(programs.keySet());
+		ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "asteroids-tournament");
+			thread.setDaemon(true);
+			return thread;
+		});
+		CompletionService<MatchResult> matches = new ExecutorCompletionService<>(pool);
+		long start = System.nanoTime();
+		int count = 0;
+		try {
+			for (int round = 0; round < rounds; round++) {
+				for (int i = 0; i < names.size(); i++) {
+					for (int j = i + 1; j < names.size(); j++) {
+						int r = round, index = count;
+						String first = names.get(i), second = names.get(j);
+						matches.submit(() -> play(r, index, first, second));
+						count++;
+					}
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				try {
+					results.accept(matches.take().get());
+				} catch (ExecutionException e) {
+					// play() catches everything a program can do wrong, so this is a bug
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		return new Summary(count, System.nanoTime() - start);
+	}
+
+	/**
+	 * Plays a single match between the given programs. The positions of the
+	 * asteroids and planetoids only depend on the seed of the scenario, the
+	 * round and the index of the match, so a tournament can be replayed.
+	 */
+	public MatchResult play(int round, int index, String first, String second) {
+		long start = System.nanoTime();
+		IFacade facade = new Facade();
+		Random random = new Random(scenario.getSeed() * 1_000_003L + round * 10_007L + index);
+		Ship ship1 = null, ship2 = null;
+		int tick = 0;
+		String error = null;
+		String failed = null;
+		try {
+			double width = scenario.getWidth(), height = scenario.getHeight();
+			World world = facade.createWorld(width, height);
+			ship1 = createShip(facade, world, width / 4, height / 2, 0, programs.get(first));
+			ship2 = createShip(facade, world, width / 4 * 3, height / 2, Math.PI, programs.get(second));
+			populate(facade, world, random);
+
+			double dt = scenario.getDt();
+			for (; tick < scenario.getTicks(); tick++) {
+				if (facade.isTerminatedShip(ship1) || facade.isTerminatedShip(ship2))
+					break;
+				failed = first;
+				facade.executeProgram(ship1, dt);
+				failed = second;
+				facade.executeProgram(ship2, dt);
+				failed = null;
+				facade.evolve(world, dt, null);
+			}
+		} catch (ModelException | RuntimeException e) {
+			error = (failed == null) ? e.toString() : "program " + failed + " failed: " + e.toString();
+		}
+		boolean alive1 = isAlive(facade, ship1), alive2 = isAlive(facade, ship2);
+		Outcome outcome;
+		if (failed != null && error != null)
+			// a program that fails loses the match
+			outcome = failed.equals(first) ? Outcome.SECOND_WINS : Outcome.FIRST_WINS;
+		else
+			outcome = (alive1 == alive2) ? Outcome.DRAW : (alive1 ? Outcome.FIRST_WINS : Outcome.SECOND_WINS);
+		return new MatchResult(round, first, second, outcome, tick, alive1, alive2, error, System.nanoTime() - start);
+	}
+
+	private Ship createShip(IFacade facade, World world, double x, double y, double orientation,
+			Supplier<Program> program) throws ModelException {
+		Ship ship = facade.createShip(x, y, 0, 0, scenario.getShipRadius(), orientation, scenario.getShipMass());
+		facade.addShipToWorld(world, ship);
+		for (int i = 0; i < scenario.getBullets(); i++)
+			facade.loadBulletOnShip(ship, facade.createBullet(x, y, 0, 0, 3));
+		facade.loadProgramOnShip(ship, program.get());
+		return ship;
+	}
+
+	/**
+	 * Adds the asteroids and planetoids of the scenario at random positions.
+	 * Entities that overlap with others are left out.
+	 */
+	private void populate(IFacade facade, World world, Random random) throws ModelException {
+		List<Entity> entities = new ArrayList<>();
+		for (int i = 0; i < scenario.getAsteroids(); i++)
+			entities.add(facade.createAsteroid(randomPosition(random, scenario.getWidth(), 30),
+					randomPosition(random, scenario.getHeight(), 30), random.nextDouble() * 100 - 50,
+					random.nextDouble() * 100 - 50, 10 + random.nextDouble() * 20));
+		for (int i = 0; i < scenario.getPlanetoids(); i++)
+			entities.add(facade.createPlanetoid(randomPosition(random, scenario.getWidth(), 40),
+					randomPosition(random, scenario.getHeight(), 40), random.nextDouble() * 100 - 50,
+					random.nextDouble() * 100 - 50, 10 + random.nextDouble() * 30, random.nextDouble() * 1000));
+		facade.populateWorld(world, entities);
+	}
+
+	private static double randomPosition(Random random, double size, double margin) {
+		return margin + random.nextDouble() * Math.max(0, size - 2 * margin);
+	}
+
+	private static boolean isAlive(IFacade facade, Ship ship) {
+		try {
+			return ship != null && !facade.isTerminatedShip(ship);
+		} catch (ModelException e) {
+			return false;
+		}
+	}
+}
@@ -10,10 +10,11 @@ import asteroids.model.Ship;
 import asteroids.model.World;
 import asteroids.part2.internal.DrawContext;
 import asteroids.part2.internal.Visualization;
+import asteroids.part2.internal.WorldSnapshot;
 import asteroids.part2.internal.WorldView2;
 import asteroids.part3.facade.IFacade;
 import asteroids.util.ModelException;
-import asteroids.util.internal.ResourceUtils;
+import asteroids.util.internal.SpriteCache;
 
 @SuppressWarnings("serial")
 public class WorldView3 extends WorldView2<IFacade> {
@@ -60,15 +61,22 @@ public class WorldView3 extends WorldView2<IFacade> {
 		return new CollisionVisualization3(object, showCollisions);
 	}
 
+	@Override
+	protected void readEntity(IFacade facade, Object entity, WorldSnapshot snapshot) throws ModelException {
+		if (entity instanceof Asteroid) {
+			Asteroid asteroid = (Asteroid) entity;
+			snapshot.add(asteroid, facade.getAsteroidPosition(asteroid), facade.getAsteroidRadius(asteroid), 0, false);
+		} else if (entity instanceof Planetoid) {
+			Planetoid planetoid = (Planetoid) entity;
+			snapshot.add(planetoid, facade.getPlanetoidPosition(planetoid), facade.getPlanetoidRadius(planetoid), 0,
+					false);
+		}
+	}
+
 	protected void drawAsteroids(DrawContext<IFacade> ctx) {
-		try {
-			for (Asteroid asteroid : getFacade().getWorldAsteroids(getWorld())) {
-				Visualization<IFacade, Asteroid> vis = getOrCreateVisualization(asteroid,
-						this::createAsteroidVisualization);
-				vis.draw(ctx);
-			}
-		} catch (ModelException e) {
-			handleError(e);
+		for (Object entity : getVisibleEntities()) {
+			if (entity instanceof Asteroid)
+				getOrCreateVisualization((Asteroid) entity, this::createAsteroidVisualization).draw(ctx);
 		}
 	}
 
@@ -79,20 +87,14 @@ public class WorldView3 extends WorldView2<IFacade> {
 		} catch (ModelException e) {
 			handleError(e);
 		}
-		Image image = ResourceUtils.loadImage("asteroids/resources/asteroid1.png").getScaledInstance(size, size,
-				Image.SCALE_DEFAULT);
+		Image image = SpriteCache.getSprite("asteroids/resources/asteroid1.png", size);
 		return new AsteroidVisualization(asteroid, image);
 	}
 
 	protected void drawPlanetoids(DrawContext<IFacade> ctx) {
-		try {
-			for (Planetoid planetoid : getFacade().getWorldPlanetoids(getWorld())) {
-				Visualization<IFacade, Planetoid> vis = getOrCreateVisualization(planetoid,
-						this::createPlanetoidVisualization);
-				vis.draw(ctx);
-			}
-		} catch (ModelException e) {
-			handleError(e);
+		for (Object entity : getVisibleEntities()) {
+			if (entity instanceof Planetoid)
+				getOrCreateVisualization((Planetoid) entity, this::createPlanetoidVisualization).draw(ctx);
 		}
 	}
 
@@ -103,8 +105,7 @@ public class WorldView3 extends WorldView2<IFacade> {
 		} catch (ModelException e) {
 			handleError(e);
 		}
-		Image image = ResourceUtils.loadImage("asteroids/resources/deathstar.png").getScaledInstance(size, size,
-				Image.SCALE_DEFAULT);
+		Image image = SpriteCache.getSprite("asteroids/resources/deathstar.png", size);
 		return new PlanetoidVisualization(planetoid, image);
 	}
 
@@ -5,6 +5,7 @@ import java.util.stream.Collectors;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
 
 import asteroids.part3.programs.IProgramFactory;
 import asteroids.part3.programs.SourceLocation;
@@ -28,6 +29,16 @@ public class ParserVisitor<E, S, F, P> extends AsteroidsProgramBaseVisitor<Void>
 
   private class FunctionDefinitionVisitor extends AsteroidsProgramBaseVisitor<F> {
 
+    @Override
+    public F visit(ParseTree tree) {
+      try {
+        return super.visit(tree);
+      } catch (RuntimeException e) {
+        recordFailure(tree);
+        throw e;
+      }
+    }
+
     @Override
     public F visitFunctiondef(AsteroidsProgramParser.FunctiondefContext ctx) {
       return getFactory().createFunctionDefinition(ctx.funcname.getText(),
@@ -37,6 +48,16 @@ public class ParserVisitor<E, S, F, P> extends AsteroidsProgramBaseVisitor<Void>
 
   private class StatementVisitor extends AsteroidsProgramBaseVisitor<S> {
 
+    @Override
+    public S visit(ParseTree tree) {
+      try {
+        return super.visit(tree);
+      } catch (RuntimeException e) {
+        recordFailure(tree);
+        throw e;
+      }
+    }
+
     @Override
     public S visitAssignmentStatement(AssignmentStatementContext ctx) {
       return getFactory().createAssignmentStatement(ctx.variableName.getText(), expressionVisitor.visit(ctx.value),
@@ -112,6 +133,16 @@ public class ParserVisitor<E, S, F, P> extends AsteroidsProgramBaseVisitor<Void>
 
   private class ExpressionVisitor extends AsteroidsProgramBaseVisitor<E> {
 
+    @Override
+    public E visit(ParseTree tree) {
+      try {
+        return super.visit(tree);
+      } catch (RuntimeException e) {
+        recordFailure(tree);
+        throw e;
+      }
+    }
+
     @Override
     public E visitNumberExpression(NumberExpressionContext ctx) {
       return getFactory().createDoubleLiteralExpression(Double.parseDouble(ctx.number.getText()), toSourceLocation(ctx));
@@ -241,11 +272,22 @@ public class ParserVisitor<E, S, F, P> extends AsteroidsProgramBaseVisitor<Void>
 
   private S main;
   private List<F> functions;
+  private SourceLocation failureLocation;
 
   public ParserVisitor(IProgramFactory<E, S, F, P> factory) {
     this.factory = factory;
   }
 
+  /**
+   * Remembers the location of the innermost part of the program for which the
+   * factory has thrown an exception. The exception passes the enclosing parts
+   * afterwards, so they are ignored.
+   */
+  private void recordFailure(ParseTree tree) {
+    if (failureLocation == null && tree instanceof ParserRuleContext)
+      failureLocation = toSourceLocation((ParserRuleContext) tree);
+  }
+
   private SourceLocation toSourceLocation(ParserRuleContext ctx) {
     int line = ctx.getStart().getLine();
     int column = ctx.getStart().getCharPositionInLine();
@@ -268,4 +310,12 @@ public class ParserVisitor<E, S, F, P> extends AsteroidsProgramBaseVisitor<Void>
     return functions;
   }
 
+  /**
+   * Returns the location of the part of the program for which the factory
+   * has thrown an exception, or null if it has not.
+   */
+  public SourceLocation getFailureLocation() {
+    return failureLocation;
+  }
+
 }
@@ -0,0 +1,199 @@
+package asteroids.part3.programs.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import asteroids.part3.programs.IProgramFactory;
+import asteroids.util.internal.ResourceUtils;
+
+/**
+ * Cache of parsed programs, keyed by the SHA-256 hash of their text. A text is
+ * parsed only once (as long as it stays in the cache), no matter from which
+ * file or string it comes; every ship still gets a new program, built from
+ * the cached parse tree (see {@link ProgramParser#compileString(String)}).
+ *
+ * The cache holds at most a given number of texts and evicts the text that
+ * was used least recently. It can be used from several threads at once:
+ * different texts are parsed concurrently, and a thread that asks for a text
+ * that is being parsed waits for that parse instead of parsing it again.
+ * Texts that cannot be parsed are cached as well, with their errors.
+ *
+ * Parsers can share a cache for their parseString() and parseFile() methods
+ * (see {@link ProgramParser#setCache(ProgramCache)}).
+ *
+ * @param P
+ *            The type of Program
+ */
+public class ProgramCache<E, S, F, P> {
+
+	public static final int DEFAULT_CAPACITY = 64;
+
+	private final IProgramFactory<E, S, F, P> factory;
+	private final int capacity;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	@SuppressWarnings("serial")
+	private final Map<String, CompletableFuture<ParseOutcome<Supplier<P>>>> entries = new LinkedHashMap<String, CompletableFuture<ParseOutcome<Supplier<P>>>>(
+			16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<ParseOutcome<Supplier<P>>>> eldest) {
+			if (size() > capacity) {
+				evictions.incrementAndGet();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	public ProgramCache(IProgramFactory<E, S, F, P> factory) {
+		this(factory, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param factory
+	 *            the factory that builds the programs
+	 * @param capacity
+	 *            the maximum number of program texts kept in the cache
+	 */
+	public ProgramCache(IProgramFactory<E, S, F, P> factory, int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("the capacity must be at least 1");
+		this.factory = factory;
+		this.capacity = capacity;
+	}
+
+	public IProgramFactory<E, S, F, P> getFactory() {
+		return factory;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns a supplier of new programs for the given text, or the errors if
+	 * parsing has failed. The text is only parsed if it is not in the cache.
+	 */
+	public ParseOutcome<Supplier<P>> compileString(String text) {
+		String key = hash(text);
+		CompletableFuture<ParseOutcome<Supplier<P>>> entry;
+		boolean owner = false;
+		synchronized (entries) {
+			entry = entries.get(key);
+			if (entry == null) {
+				entry = new CompletableFuture<>();
+				entries.put(key, entry);
+				owner = true;
+			}
+		}
+		if (!owner) {
+			hits.incrementAndGet();
+			return entry.join();
+		}
+		misses.incrementAndGet();
+		// parsing happens outside the lock, so other texts can be parsed meanwhile
+		try {
+			// a parser collects its errors, so every parse gets its own
+			entry.complete(ProgramParser.create(factory).compileString(text));
+		} catch (RuntimeException | Error e) {
+			synchronized (entries) {
+				entries.remove(key, entry);
+			}
+			entry.completeExceptionally(e);
+			throw e;
+		}
+		return entry.join();
+	}
+
+	/**
+	 * Returns a supplier of new programs for the file with the given URL, or
+	 * the errors if parsing has failed. The file is read every time, but only
+	 * parsed if its text is not in the cache.
+	 */
+	public ParseOutcome<Supplier<P>> compileFile(URL url) throws IOException {
+		return compileString(read(url));
+	}
+
+	/**
+	 * Returns a new program for the given text, or null if parsing has failed.
+	 */
+	public P getProgram(String text) {
+		ParseOutcome<Supplier<P>> outcome = compileString(text);
+		return outcome.isFail() ? null : outcome.getSuccessValue().get();
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	public double getHitRate() {
+		long requests = hits.get() + misses.get();
+		return (requests == 0) ? 0 : (double) hits.get() / requests;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d programs, %d hits, %d misses, %d evictions", size(), getHitCount(), getMissCount(),
+				getEvictionCount());
+	}
+
+	static String read(URL url) throws IOException {
+		try (InputStream stream = ResourceUtils.openResource(url)) {
+			return read(stream);
+		}
+	}
+
+	static String read(InputStream stream) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		for (int n = stream.read(buffer); n >= 0; n = stream.read(buffer))
+			bytes.write(buffer, 0, n);
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	static String hash(String text) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+			StringBuilder result = new StringBuilder(digest.length * 2);
+			for (byte b : digest)
+				result.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+			return result.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform supports SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+}
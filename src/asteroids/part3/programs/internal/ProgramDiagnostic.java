@@ -0,0 +1,55 @@
+package asteroids.part3.programs.internal;
+
+import asteroids.part3.programs.SourceLocation;
+
+/**
+ * A problem that prevents a program from being loaded.
+ */
+public class ProgramDiagnostic {
+
+	public static enum Kind {
+		/**
+		 * The file could not be read.
+		 */
+		IO,
+		/**
+		 * The text is not a valid program.
+		 */
+		SYNTAX,
+		/**
+		 * The factory refused a part of the program.
+		 */
+		FACTORY;
+	}
+
+	private final Kind kind;
+	private final SourceLocation location;
+	private final String message;
+
+	public ProgramDiagnostic(Kind kind, SourceLocation location, String message) {
+		this.kind = kind;
+		this.location = location;
+		this.message = message;
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * Returns the location of the problem in the program, or null if it is
+	 * not known.
+	 */
+	public SourceLocation getLocation() {
+		return location;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	@Override
+	public String toString() {
+		return kind + (location == null ? "" : " " + location) + ": " + message;
+	}
+}
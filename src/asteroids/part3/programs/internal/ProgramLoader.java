@@ -0,0 +1,228 @@
+package asteroids.part3.programs.internal;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import asteroids.part3.programs.IProgramFactory;
+import asteroids.part3.programs.internal.ProgramDiagnostic.Kind;
+import asteroids.util.internal.ResourceUtils;
+
+/**
+ * Loads all the programs in a folder at once. The files are read, parsed and
+ * checked by the factory in parallel; the problems of every file are reported
+ * as diagnostics with their location in the file.
+ *
+ * The loader remembers the SHA-256 hash of the text of every file it has
+ * loaded, so a file whose text has not changed since the previous load of its
+ * folder is not parsed again.
+ */
+public class ProgramLoader<E, S, F, P> {
+
+	/**
+	 * A file of a folder that was loaded.
+	 */
+	public static class Entry<P> {
+		private final String name;
+		private final String hash;
+		private final Supplier<P> programs;
+		private final List<ProgramDiagnostic> diagnostics;
+
+		Entry(String name, String hash, Supplier<P> programs, List<ProgramDiagnostic> diagnostics) {
+			this.name = name;
+			this.hash = hash;
+			this.programs = programs;
+			this.diagnostics = Collections.unmodifiableList(new ArrayList<>(diagnostics));
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the hash of the text of the file, or null if it could not be
+		 * read.
+		 */
+		public String getHash() {
+			return hash;
+		}
+
+		public boolean isValid() {
+			return programs != null;
+		}
+
+		/**
+		 * Returns a supplier of new programs for the file, or null if the file
+		 * could not be loaded.
+		 */
+		public Supplier<P> getPrograms() {
+			return programs;
+		}
+
+		public List<ProgramDiagnostic> getDiagnostics() {
+			return diagnostics;
+		}
+	}
+
+	/**
+	 * The result of loading a folder.
+	 */
+	public static class Result<P> {
+		private final Map<String, Entry<P>> entries;
+		private final List<String> parsed;
+		private final List<String> unchanged;
+		private final long nanos;
+
+		Result(Map<String, Entry<P>> entries, List<String> parsed, List<String> unchanged, long nanos) {
+			this.entries = Collections.unmodifiableMap(entries);
+			this.parsed = Collections.unmodifiableList(parsed);
+			this.unchanged = Collections.unmodifiableList(unchanged);
+			this.nanos = nanos;
+		}
+
+		/**
+		 * Returns every file of the folder, by name, in alphabetical order.
+		 */
+		public Map<String, Entry<P>> getEntries() {
+			return entries;
+		}
+
+		/**
+		 * Returns the files that could be loaded, by name.
+		 */
+		public Map<String, Supplier<P>> getPrograms() {
+			Map<String, Supplier<P>> result = new LinkedHashMap<>();
+			for (Entry<P> entry : entries.values()) {
+				if (entry.isValid())
+					result.put(entry.getName(), entry.getPrograms());
+			}
+			return result;
+		}
+
+		/**
+		 * Returns the diagnostics of every file that could not be loaded, by
+		 * name.
+		 */
+		public Map<String, List<ProgramDiagnostic>> getDiagnostics() {
+			Map<String, List<ProgramDiagnostic>> result = new LinkedHashMap<>();
+			for (Entry<P> entry : entries.values()) {
+				if (!entry.getDiagnostics().isEmpty())
+					result.put(entry.getName(), entry.getDiagnostics());
+			}
+			return result;
+		}
+
+		/**
+		 * Returns the names of the files that were parsed by this load.
+		 */
+		public List<String> getParsed() {
+			return parsed;
+		}
+
+		/**
+		 * Returns the names of the files that were not parsed, because their
+		 * text is the same as at the previous load.
+		 */
+		public List<String> getUnchanged() {
+			return unchanged;
+		}
+
+		public double getMillis() {
+			return nanos / 1e6;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d files (%d parsed, %d unchanged, %d invalid) in %.1f ms", entries.size(),
+					parsed.size(), unchanged.size(), getDiagnostics().size(), getMillis());
+		}
+	}
+
+	private final IProgramFactory<E, S, F, P> factory;
+
+	/**
+	 * The entries of the previous load, by folder and name.
+	 */
+	private final Map<String, Entry<P>> index = new ConcurrentHashMap<>();
+
+	public ProgramLoader(IProgramFactory<E, S, F, P> factory) {
+		this.factory = factory;
+	}
+
+	public IProgramFactory<E, S, F, P> getFactory() {
+		return factory;
+	}
+
+	/**
+	 * Loads every file in the given folder. Files that were loaded before and
+	 * have not changed keep their result.
+	 */
+	public Result<P> load(String folder) throws IOException {
+		long start = System.nanoTime();
+		String prefix = folder.endsWith("/") ? folder : folder + "/";
+		List<String> names = ResourceUtils.listFileNames(folder).filter(name -> !name.isEmpty()).sorted()
+				.collect(Collectors.toList());
+
+		// Every file is independent, so they are loaded in parallel.
+		List<Entry<P>> previous = names.stream().map(name -> index.get(prefix + name)).collect(Collectors.toList());
+		List<Entry<P>> loaded = IntStream.range(0, names.size()).parallel()
+				.mapToObj(i -> load(prefix + names.get(i), names.get(i), previous.get(i)))
+				.collect(Collectors.toList());
+
+		Map<String, Entry<P>> entries = new LinkedHashMap<>();
+		List<String> parsed = new ArrayList<>();
+		List<String> unchanged = new ArrayList<>();
+		index.keySet().removeIf(key -> key.startsWith(prefix) && key.indexOf('/', prefix.length()) < 0);
+		for (int i = 0; i < names.size(); i++) {
+			Entry<P> entry = loaded.get(i);
+			entries.put(entry.getName(), entry);
+			index.put(prefix + entry.getName(), entry);
+			if (entry == previous.get(i))
+				unchanged.add(entry.getName());
+			else if (entry.getHash() != null)
+				parsed.add(entry.getName());
+		}
+		return new Result<>(entries, parsed, unchanged, System.nanoTime() - start);
+	}
+
+	/**
+	 * Forgets every file that was loaded, so the next load parses all files.
+	 */
+	public void clear() {
+		index.clear();
+	}
+
+	/**
+	 * Reads the given file, and parses it unless the previous load of the
+	 * file had the same text.
+	 */
+	private Entry<P> load(String path, String name, Entry<P> previous) {
+		String text;
+		try {
+			URL url = ResourceUtils.toURL(path);
+			if (url == null)
+				throw new FileNotFoundException("file not found: " + path);
+			text = ProgramCache.read(url);
+		} catch (IOException e) {
+			return new Entry<>(name, null, null, Collections.singletonList(new ProgramDiagnostic(Kind.IO, null,
+					(e.getMessage() == null) ? e.toString() : e.getMessage())));
+		}
+		String hash = ProgramCache.hash(text);
+		if (previous != null && hash.equals(previous.getHash()))
+			return previous;
+
+		// a parser collects the errors of one parse, so every file gets its own
+		ProgramParser<E, S, F, P> parser = ProgramParser.create(factory);
+		ParseOutcome<Supplier<P>> outcome = parser.compileString(text);
+		return new Entry<>(name, hash, outcome.isFail() ? null : outcome.getSuccessValue(), parser.getDiagnostics());
+	}
+}
@@ -1,19 +1,27 @@
 package asteroids.part3.programs.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 
 import asteroids.part3.programs.IProgramFactory;
+import asteroids.part3.programs.SourceLocation;
 import asteroids.part3.programs.internal.generated.AsteroidsProgramLexer;
 import asteroids.part3.programs.internal.generated.AsteroidsProgramParser;
 import asteroids.program.Program;
@@ -58,6 +66,15 @@ import asteroids.util.internal.ResourceUtils;
  * false and <code>parser.getErrors()</code> can be used to retrieve the list of
  * errors during parsing.
  * 
+ * Programs are first parsed with the faster SLL prediction, which gives up at
+ * the first syntax error; only then the program is parsed again with full LL
+ * prediction, which reports the errors. Every thread reuses its own lexer and
+ * parser, and all parsers share the prediction caches of the grammar, which
+ * {@link #warmUp()} fills before the first program is parsed.
+ * 
+ * A parser can share a {@link ProgramCache} with other parsers (see
+ * {@link #setCache(ProgramCache)}): a text that is already in the cache is not
+ * parsed again, the parser only builds a new program for it.
  *
  * @param E
  *            The type of expressions
@@ -70,10 +87,22 @@ import asteroids.util.internal.ResourceUtils;
  */
 public class ProgramParser<E, S, F, P> {
 
+	private static final ThreadLocal<AsteroidsProgramLexer> lexers = ThreadLocal
+			.withInitial(() -> new AsteroidsProgramLexer(CharStreams.fromString("")));
+
+	private static final ThreadLocal<AsteroidsProgramParser> parsers = ThreadLocal
+			.withInitial(() -> new AsteroidsProgramParser(new CommonTokenStream(lexers.get())));
+
 	private final IProgramFactory<E, S, F, P> factory;
 
 	private final List<String> errors = new ArrayList<>();
 
+	private final List<ProgramDiagnostic> diagnostics = new ArrayList<>();
+
+	private boolean twoStage = true;
+
+	private ProgramCache<E, S, F, P> cache = null;
+
 	protected ProgramParser(IProgramFactory<E, S, F, P> factory) {
 		this.factory = factory;
 	}
@@ -82,6 +111,36 @@ public class ProgramParser<E, S, F, P> {
 		return factory;
 	}
 
+	public boolean isTwoStage() {
+		return twoStage;
+	}
+
+	/**
+	 * Sets whether programs are first parsed with SLL prediction (the
+	 * default), or always with full LL prediction.
+	 */
+	public void setTwoStage(boolean twoStage) {
+		this.twoStage = twoStage;
+	}
+
+	public ProgramCache<E, S, F, P> getCache() {
+		return cache;
+	}
+
+	/**
+	 * Sets the cache through which parseString() and parseFile() parse their
+	 * text, or null to parse every text (the default). The cache must build its
+	 * programs with the factory of this parser.
+	 * 
+	 * A text that cannot be parsed only reports its errors through getErrors()
+	 * when it comes from the cache; getDiagnostics() is then empty.
+	 */
+	public void setCache(ProgramCache<E, S, F, P> cache) {
+		if (cache != null && cache.getFactory() != factory)
+			throw new IllegalArgumentException("the cache must use the factory of the parser");
+		this.cache = cache;
+	}
+
 	/**
 	 * Returns the program that results from parsing the given string, or
 	 * Optional.empty() if parsing has failed.
@@ -91,6 +150,8 @@ public class ProgramParser<E, S, F, P> {
 	 *
 	 */
 	public ParseOutcome<P> parseString(String string) {
+		if (cache != null)
+			return fromCache(cache.compileString(string));
 		return parse(CharStreams.fromString(string));
 	}
 
@@ -102,6 +163,11 @@ public class ProgramParser<E, S, F, P> {
 	 * getErrors() method.
 	 */
 	public ParseOutcome<P> parseFile(String filename) throws IOException {
+		if (cache != null) {
+			try (InputStream stream = ResourceUtils.openResource(filename)) {
+				return fromCache(cache.compileString(ProgramCache.read(stream)));
+			}
+		}
 		return parse(CharStreams.fromStream(ResourceUtils.openResource(filename)));
 	}
 	
@@ -113,6 +179,8 @@ public class ProgramParser<E, S, F, P> {
 	 * getErrors() method.
 	 */
 	public ParseOutcome<P> parseFile(URL url) throws IOException {
+		if (cache != null)
+			return fromCache(cache.compileFile(url));
 		return parse(CharStreams.fromStream(ResourceUtils.openResource(url)));
 	}
 
@@ -132,41 +200,188 @@ public class ProgramParser<E, S, F, P> {
 	protected ParseOutcome<P> parse(CharStream input) {
 		reset();
 
-		AsteroidsProgramLexer lexer = new AsteroidsProgramLexer(input);
-		AsteroidsProgramParser parser = new AsteroidsProgramParser(new CommonTokenStream(lexer));
-		parser.addErrorListener(new BaseErrorListener() {
-			@Override
-			public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
-					int charPositionInLine, String msg, RecognitionException e) {
-				errors.add(msg + " (" + line + ", " + charPositionInLine + ")");
-			}
-		});
 		ParserVisitor<E, S, F, P> visitor = new ParserVisitor<>(factory);
 		try {
-			visitor.visitProgram(parser.program());
+			visitor.visitProgram(parseTree(input, errors, diagnostics, twoStage));
 			if (errors.isEmpty()) {
 			  assert visitor.getMain() != null;
 				P program = factory.createProgram(visitor.getFunctions(),visitor.getMain());
 				if (program != null) {
 					return ParseOutcome.success(program);
 				}
-				errors.add("Factory did not return a Program object");
+				addFactoryError(null, "Factory did not return a Program object");
 			}
 		} catch (Exception e) {
-			e.printStackTrace();
-			errors.add(e.toString());
+			// the diagnostics tell where the factory has failed
+			addFactoryError(visitor.getFailureLocation(), e.toString());
 		}
 		return ParseOutcome.failure(errors);
 	}
 
+	/**
+	 * Returns a new program from the given outcome of the cache, and keeps its
+	 * errors if parsing has failed.
+	 */
+	private ParseOutcome<P> fromCache(ParseOutcome<Supplier<P>> outcome) {
+		reset();
+		if (outcome.isFail()) {
+			errors.addAll(outcome.getFailValue());
+			return ParseOutcome.failure(errors);
+		}
+		return ParseOutcome.success(outcome.getSuccessValue().get());
+	}
+
+	/**
+	 * Returns the syntax errors in the given string, without creating a
+	 * program. The errors can also be retrieved with the getErrors() method.
+	 */
+	public List<String> checkSyntax(String string) {
+		reset();
+		parseTree(CharStreams.fromString(string), errors, diagnostics, twoStage);
+		return getErrors();
+	}
+
+	/**
+	 * Returns a supplier of new programs for the given string, or the errors
+	 * if parsing has failed.
+	 * 
+	 * The string is only parsed once: every program of the supplier is built
+	 * from the same parse tree, so programs (which keep the state of their
+	 * execution) can be created for many ships without parsing again. The
+	 * supplier can be used from several threads at once.
+	 */
+	public ParseOutcome<Supplier<P>> compileString(String string) {
+		return compile(CharStreams.fromString(string));
+	}
+
+	/**
+	 * Returns a supplier of new programs for the file with the given URL, or
+	 * the errors if parsing has failed. The file is only read and parsed once.
+	 */
+	public ParseOutcome<Supplier<P>> compileFile(URL url) throws IOException {
+		return compile(CharStreams.fromStream(ResourceUtils.openResource(url)));
+	}
+
+	protected ParseOutcome<Supplier<P>> compile(CharStream input) {
+		reset();
+
+		ParserVisitor<E, S, F, P> visitor = new ParserVisitor<>(factory);
+		try {
+			AsteroidsProgramParser.ProgramContext tree = parseTree(input, errors, diagnostics, twoStage);
+			if (errors.isEmpty()) {
+				// The first program also checks that the factory accepts the tree.
+				P first = build(tree, visitor);
+				if (first != null) {
+					AtomicReference<P> unused = new AtomicReference<>(first);
+					return ParseOutcome.success(() -> {
+						P program = unused.getAndSet(null);
+						return (program != null) ? program : build(tree, new ParserVisitor<>(factory));
+					});
+				}
+				addFactoryError(null, "Factory did not return a Program object");
+			}
+		} catch (Exception e) {
+			// the diagnostics tell where the factory has failed
+			addFactoryError(visitor.getFailureLocation(), e.toString());
+		}
+		return ParseOutcome.failure(new ArrayList<>(errors));
+	}
+
+	private void addFactoryError(SourceLocation location, String message) {
+		errors.add(message);
+		diagnostics.add(new ProgramDiagnostic(ProgramDiagnostic.Kind.FACTORY, location, message));
+	}
+
+	/**
+	 * Returns the parse tree of the given input, using the lexer and parser of
+	 * the current thread. Syntax errors are added to the given lists.
+	 */
+	private static AsteroidsProgramParser.ProgramContext parseTree(CharStream input, List<String> errors,
+			List<ProgramDiagnostic> diagnostics, boolean twoStage) {
+		AsteroidsProgramLexer lexer = lexers.get();
+		lexer.setInputStream(input);
+		CommonTokenStream tokens = new CommonTokenStream(lexer);
+		AsteroidsProgramParser parser = parsers.get();
+		parser.setTokenStream(tokens);
+		parser.removeErrorListeners();
+
+		if (twoStage) {
+			// SLL prediction is enough for nearly every program, and gives up
+			// at the first error instead of recovering from it.
+			parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+			parser.setErrorHandler(new BailErrorStrategy());
+			try {
+				return parser.program();
+			} catch (ParseCancellationException e) {
+				tokens.seek(0);
+				parser.setTokenStream(tokens);
+			}
+		}
+
+		parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+		parser.setErrorHandler(new DefaultErrorStrategy());
+		parser.addErrorListener(new BaseErrorListener() {
+			@Override
+			public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+					int charPositionInLine, String msg, RecognitionException e) {
+				errors.add(msg + " (" + line + ", " + charPositionInLine + ")");
+				diagnostics.add(new ProgramDiagnostic(ProgramDiagnostic.Kind.SYNTAX,
+						new SourceLocation(line, charPositionInLine), msg));
+			}
+		});
+		try {
+			return parser.program();
+		} finally {
+			// the listener must not keep the errors of this parser alive
+			parser.removeErrorListeners();
+		}
+	}
+
+	private P build(AsteroidsProgramParser.ProgramContext tree, ParserVisitor<E, S, F, P> visitor) {
+		visitor.visitProgram(tree);
+		assert visitor.getMain() != null;
+		return factory.createProgram(visitor.getFunctions(), visitor.getMain());
+	}
+
 	protected void reset() {
 		this.errors.clear();
+		this.diagnostics.clear();
 	}
 
 	public List<String> getErrors() {
 		return Collections.unmodifiableList(errors);
 	}
 
+	/**
+	 * Returns the errors of the last parse, with their kind and location.
+	 */
+	public List<ProgramDiagnostic> getDiagnostics() {
+		return Collections.unmodifiableList(diagnostics);
+	}
+
+	/**
+	 * Fills the prediction caches that all parsers share, by parsing the
+	 * programs that come with the game, so the first programs of a game or
+	 * tournament are parsed as fast as the next ones. Programs that cannot be
+	 * read are skipped.
+	 */
+	public static void warmUp() {
+		try {
+			for (String name : ResourceUtils.listFileNames(WARM_UP_FOLDER).toArray(String[]::new)) {
+				try {
+					CharStream input = CharStreams.fromStream(ResourceUtils.openResource(WARM_UP_FOLDER + "/" + name));
+					parseTree(input, new ArrayList<>(), new ArrayList<>(), true);
+				} catch (IOException | RuntimeException e) {
+					// the next program may still be readable
+				}
+			}
+		} catch (IOException e) {
+			// nothing to warm up with
+		}
+	}
+
+	private static final String WARM_UP_FOLDER = "asteroids/resources/programs";
+
 	/**
 	 * Create a new parser from the given factory.
 	 * 
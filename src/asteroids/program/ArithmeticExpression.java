@@ -1,17 +1,7 @@
 package asteroids.program;
 
-import java.util.List;
-
+/**
+ * A marker for the expressions that can be operands of arithmetic; the TypeChecker checks that they are numbers.
+ */
 public interface ArithmeticExpression {
-
-	/// CHECKERS ///
-
-	public default boolean canHaveAsArithmeticOperand(Program program, List<MyExpression> actualArgs,
-			MyExpression expression, MyFunction function) {
-		if (expression instanceof ParameterExpression)
-			return true;
-
-		return (expression.getExpressionResult(program, actualArgs, function) instanceof Double);
-	}
-	
 }
@@ -20,11 +20,11 @@ class AssignmentStatement extends MyStatement {
 
 	/// GETTERS ///
 	
-	private MyExpression getExpression() {
+	protected MyExpression getExpression() {
 		return expression;
 	}
 
-	private String getVariableName() {
+	protected String getVariableName() {
 		return variableName;
 	}
 
@@ -42,18 +42,29 @@ class AssignmentStatement extends MyStatement {
 	
 	/// CHECKERS ///
 	
-	private boolean isValidVariable(String variableName, MyExpression expression, List<MyExpression> actualArgs) {
-		return ((!getStatementProgram().getProgramFunctions().containsKey(variableName))
-				&& (expression.getExpressionResult(getStatementProgram(), actualArgs) instanceof Double));
+	private boolean canHaveAsVariableName(String variableName) {
+		return !getStatementProgram().getProgramFunctions().containsKey(variableName);
+	}
+
+	private static boolean canHaveAsGlobalValue(Object value) {
+		return value instanceof Double;
 	}
 	
 	
 	/// HELP FUNCTIONS ///
 
+	/**
+	 * Evaluate the expression exactly once. The value that is checked is the value that is stored, so expensive or
+	 * recursive expressions are not evaluated a second time.
+	 */
+	private Object computeValue(Program program, List<MyExpression> actualArgs, MyFunction function) {
+		return getExpression().getExpressionResult(program, actualArgs, function);
+	}
+
 	protected void assignLocalVariable(Program program, List<MyExpression> actualArgs, MyFunction function) {
 		setStatementProgram(program);
 		
-		function.addLocalVariable(getVariableName(), getExpression().getExpressionResult(program, actualArgs, function));
+		function.addLocalVariable(getVariableName(), computeValue(program, actualArgs, function));
 	}
 	
 	
@@ -63,8 +74,13 @@ class AssignmentStatement extends MyStatement {
 	protected void evaluate(Program program, List<MyExpression> actualArgs) {
 		setStatementProgram(program);
 
-		if (isValidVariable(getVariableName(), getExpression(), actualArgs))
-			getStatementProgram().addVariable(getVariableName(), getExpression().getExpressionResult(program, actualArgs));
+		if (!canHaveAsVariableName(getVariableName()))
+			throw new IllegalArgumentException();
+
+		Object value = computeValue(program, actualArgs, null);
+
+		if (canHaveAsGlobalValue(value))
+			getStatementProgram().addVariable(getVariableName(), value);
 		
 		else
 			throw new IllegalArgumentException();
@@ -30,6 +30,10 @@ public abstract class BinaryExpression<E> extends MyExpression {
 		return ((MyExpression) getLeftOperand()).getExpressionResult(program, actualArgs, function);
 	}
 
+	protected double getLeftOperandDouble(Program program, MyFunction function) {
+		return ((MyExpression) getLeftOperand()).evalDouble(program, function);
+	}
+
 	@Override
 	protected E getRightOperand() {
 		return right_operand;
@@ -38,6 +42,10 @@ public abstract class BinaryExpression<E> extends MyExpression {
 	protected Object getRightOperandResult(Program program, List<MyExpression> actualArgs, MyFunction function) {
 		return ((MyExpression) getRightOperand()).getExpressionResult(program, actualArgs, function);
 	}
+
+	protected double getRightOperandDouble(Program program, MyFunction function) {
+		return ((MyExpression) getRightOperand()).evalDouble(program, function);
+	}
 	
 
 	/// SETTERS ///
@@ -49,48 +57,5 @@ public abstract class BinaryExpression<E> extends MyExpression {
 	protected void setRightOperand(E expression) {
 		right_operand = expression;
 	}
-	
-	
-	/// LOCAL CLASS ///
-	
-	class BinaryArithmeticExpression implements BinaryOperandSolver, ArithmeticExpression{
-		
-		public Object solveRightOperand(Program program, List<MyExpression> actualArgs, MyFunction function) {
-			Double[] parameterArray = getExpressionParameter(actualArgs, function);
-			Double rightParameter = parameterArray[1];
-
-			if (rightParameter != null)
-				return rightParameter;
-			else {
-				if (canHaveAsArithmeticOperand(program, actualArgs, (MyExpression) getRightOperand(), function))
-					return (double) getRightOperandResult(program, actualArgs, function);
-				else
-					throw new IllegalArgumentException();
-			}
-		}
-
-		public Object solveLeftOperand(Program program, List<MyExpression> actualArgs, MyFunction function) {
-			Double[] parameterArray = getExpressionParameter(actualArgs, function);
-			Double leftParameter = parameterArray[0];
-
-			if (leftParameter != null)
-				return leftParameter;
-			else {
-				if (canHaveAsArithmeticOperand(program, actualArgs, (MyExpression) getLeftOperand(), function))
-					return (double) getLeftOperandResult(program, actualArgs, function);
-				else
-					throw new IllegalArgumentException();
-			}
-		}
-	}
-	
-	
-	/// LOCAL INTERFACE ///
 
-	interface BinaryOperandSolver {
-		Object solveLeftOperand(Program program, List<MyExpression> actualArgs, MyFunction function);
-
-		Object solveRightOperand(Program program, List<MyExpression> actualArgs, MyFunction function);
-	}
-	
 }
@@ -0,0 +1,158 @@
+package asteroids.program;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A class of call stacks for the function invocations of a program. Every invocation gets a frame with its local
+ * variables and its arguments; the arguments are kept as primitive values in one shared array of slots. The frames
+ * and the slots are reused from invocation to invocation, so invoking a function does not allocate objects once the
+ * stack has grown to the depth of the program.
+ *
+ * The arguments of an invocation are pushed on the slots before its frame is pushed, while the frame of the invoking
+ * function is still on top; arguments that invoke functions themselves use the slots above them.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+class CallStack {
+
+	/// CONSTANTS ///
+
+	/**
+	 * The maximum number of nested invocations. Deeper recursion is reported as an invalid program instead of
+	 * overflowing the stack of the Java thread.
+	 */
+	protected static final int MAX_DEPTH = 256;
+
+	private static final int INITIAL_DEPTH = 16;
+
+	private static final int INITIAL_SLOTS = 64;
+
+
+	/// LOCAL CLASS ///
+
+	private static class Frame {
+		private MyFunction function;
+		private int base;
+		private int nb_arguments;
+		private final Map<String, Object> local_variables = new HashMap<String, Object>();
+	}
+
+
+	/// CONSTRUCTOR ///
+
+	protected CallStack() {
+		for (int i = 0; i < frames.length; i++)
+			frames[i] = new Frame();
+	}
+
+
+	/// BASIC PROPERTIES ///
+
+	private Frame[] frames = new Frame[INITIAL_DEPTH];
+	private int depth = 0;
+	private double[] slots = new double[INITIAL_SLOTS];
+	private int nb_slots = 0;
+
+
+	/// GETTERS ///
+
+	protected int getDepth() {
+		return depth;
+	}
+
+	protected int getNbSlots() {
+		return nb_slots;
+	}
+
+	protected double getSlot(int index) {
+		return slots[index];
+	}
+
+	private Frame getTop() throws IllegalArgumentException {
+		if (depth == 0)
+			throw new IllegalArgumentException("No function is being executed");
+		return frames[depth - 1];
+	}
+
+	/**
+	 * Return the value of the parameter with the given number ($1 is the first) of the function on top of the stack.
+	 *
+	 * @throws 	IllegalArgumentException
+	 * 			If the function was not invoked with that many arguments.
+	 */
+	protected double getArgument(int number) throws IllegalArgumentException {
+		Frame frame = getTop();
+		if (number < 1 || number > frame.nb_arguments)
+			throw new IllegalArgumentException("The function " + frame.function.getFunctionName() + " has no argument $"
+					+ number);
+		return slots[frame.base + number - 1];
+	}
+
+	protected Map<String, Object> getLocalVariables() {
+		return getTop().local_variables;
+	}
+
+
+	/// ADDERS ///
+
+	/**
+	 * Push the value of an argument of the invocation that is being prepared.
+	 */
+	protected void pushArgument(double value) {
+		if (nb_slots == slots.length) {
+			double[] new_slots = new double[slots.length * 2];
+			System.arraycopy(slots, 0, new_slots, 0, nb_slots);
+			slots = new_slots;
+		}
+		slots[nb_slots++] = value;
+	}
+
+	/**
+	 * Push a frame for an invocation of the given function, with the arguments that were pushed since the slots
+	 * numbered the given base.
+	 *
+	 * @throws 	IllegalArgumentException
+	 * 			If the stack already holds MAX_DEPTH frames.
+	 */
+	protected void pushFrame(MyFunction function, int base) throws IllegalArgumentException {
+		if (depth == MAX_DEPTH)
+			throw new IllegalArgumentException("The functions are nested more than " + MAX_DEPTH + " times");
+		if (depth == frames.length) {
+			Frame[] new_frames = new Frame[Math.min(frames.length * 2, MAX_DEPTH)];
+			System.arraycopy(frames, 0, new_frames, 0, depth);
+			for (int i = depth; i < new_frames.length; i++)
+				new_frames[i] = new Frame();
+			frames = new_frames;
+		}
+		Frame frame = frames[depth++];
+		frame.function = function;
+		frame.base = base;
+		frame.nb_arguments = nb_slots - base;
+	}
+
+
+	/// REMOVERS ///
+
+	/**
+	 * Pop the frame on top of the stack, together with its arguments and local variables.
+	 */
+	protected void popFrame() {
+		Frame frame = getTop();
+		depth--;
+		nb_slots = frame.base;
+		frame.function = null;
+		if (!frame.local_variables.isEmpty())
+			frame.local_variables.clear();
+	}
+
+	/**
+	 * Drop the arguments above the given number of slots, of an invocation that could not be completed.
+	 */
+	protected void dropArguments(int base) {
+		if (base < nb_slots)
+			nb_slots = base;
+	}
+
+}
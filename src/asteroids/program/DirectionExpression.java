@@ -15,6 +15,11 @@ class DirectionExpression extends MyExpression {
 
 	@Override
 	protected Object getExpressionResult(Program program, List<MyExpression> actualArgs, MyFunction function) {
+		return evalDouble(program, function);
+	}
+
+	@Override
+	protected double evalDouble(Program program, MyFunction function) {
 		setExpressionProgram(program);
 
 		return getExpressionShip().getEntityOrientation();
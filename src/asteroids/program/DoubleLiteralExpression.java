@@ -25,7 +25,12 @@ class DoubleLiteralExpression extends MyExpression implements ArithmeticExpressi
 		return getValue();
 	}
 
-	private double getValue() {
+	@Override
+	protected double evalDouble(Program program, MyFunction function) {
+		return getValue();
+	}
+
+	protected double getValue() {
 		return value;
 	}
 	
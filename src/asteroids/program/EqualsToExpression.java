@@ -14,29 +14,15 @@ class EqualsToExpression extends BinaryExpression<MyExpression> implements Boole
 	/// GETTERS ///
 	
 	protected Object getExpressionResult(Program program, List<MyExpression> actualArgs, MyFunction function) {
+		return evalBoolean(program, function);
+	}
+
+	@Override
+	protected boolean evalBoolean(Program program, MyFunction function) {
 		setExpressionProgram(program);
-		
-		//ANONYMOUS CLASS
-		BinaryOperandSolver solver = new BinaryOperandSolver() {
-			
-			public Object solveLeftOperand(Program program, List<MyExpression> actualArgs, MyFunction function) {
-				if (getLeftOperand() instanceof ParameterExpression)
-					return (Double) getArgumentExpression(getLeftOperand(), actualArgs);
-				else
-					return getLeftOperandResult(program, actualArgs, function);
-			}
-
-			public Object solveRightOperand(Program program, List<MyExpression> actualArgs, MyFunction function) {
-				if (getRightOperand() instanceof ParameterExpression)
-					return (Double) getArgumentExpression(getRightOperand(), actualArgs);
-				else
-					return getRightOperandResult(program, actualArgs, function);
-			}
-			
-		};
-
-		Object leftOperand = solver.solveLeftOperand(program, actualArgs, function);
-		Object rightOperand = solver.solveRightOperand(program, actualArgs, function);
+
+		Object leftOperand = getLeftOperandResult(program, null, function);
+		Object rightOperand = getRightOperandResult(program, null, function);
 
 		return leftOperand.equals(rightOperand);
 	}
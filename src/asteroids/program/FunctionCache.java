@@ -0,0 +1,81 @@
+package asteroids.program;
+
+/**
+ * A class of caches for the results of a single invocation of a pure function in a program. The results are keyed by
+ * the values of the arguments, which are kept as primitive values. The cache holds a fixed number of results: every
+ * combination of arguments has one slot, and a new result replaces the result in its slot.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+class FunctionCache {
+
+	/// CONSTANTS ///
+
+	/**
+	 * The number of results in a cache. This is a power of two.
+	 */
+	protected static final int CAPACITY = 16;
+
+
+	/// CONSTRUCTOR ///
+
+	protected FunctionCache(int nb_arguments) {
+		this.nb_arguments = nb_arguments;
+		this.keys = new long[CAPACITY * nb_arguments];
+	}
+
+
+	/// BASIC PROPERTIES ///
+
+	private final int nb_arguments;
+
+	/**
+	 * The bits of the arguments of every result, one row of nb_arguments values per slot.
+	 */
+	private final long[] keys;
+
+	/**
+	 * The results, or null for slots that are empty.
+	 */
+	private final Object[] values = new Object[CAPACITY];
+
+
+	/// GETTERS ///
+
+	/**
+	 * Return the result for the arguments in the slots of the given stack from the given base on, or null if it is
+	 * not in the cache.
+	 */
+	protected Object get(CallStack stack, int base) {
+		int slot = getSlot(stack, base);
+		if (values[slot] == null)
+			return null;
+		for (int i = 0; i < nb_arguments; i++)
+			if (keys[slot * nb_arguments + i] != Double.doubleToLongBits(stack.getSlot(base + i)))
+				return null;
+		return values[slot];
+	}
+
+	private int getSlot(CallStack stack, int base) {
+		long hash = 0;
+		for (int i = 0; i < nb_arguments; i++)
+			hash = hash * 31 + Double.doubleToLongBits(stack.getSlot(base + i));
+		int result = (int) (hash ^ (hash >>> 32));
+		return (result ^ (result >>> 16)) & (CAPACITY - 1);
+	}
+
+
+	/// SETTERS ///
+
+	/**
+	 * Store the given result for the arguments in the slots of the given stack from the given base on.
+	 */
+	protected void put(CallStack stack, int base, Object value) {
+		int slot = getSlot(stack, base);
+		for (int i = 0; i < nb_arguments; i++)
+			keys[slot * nb_arguments + i] = Double.doubleToLongBits(stack.getSlot(base + i));
+		values[slot] = value;
+	}
+
+}
@@ -0,0 +1,129 @@
+package asteroids.program;
+
+import java.util.List;
+
+class FunctionExpression extends MyExpression implements ArithmeticExpression {
+
+	/// CONSTRUCTOR ///
+
+	protected FunctionExpression(String functionName, List<MyExpression> actualArgs) {
+		setFunctionName(functionName);
+		setArguments(actualArgs);
+	}
+
+	
+	/// BASIC PROPERTIES ///
+	
+	private String functionName;
+	private List<MyExpression> actualArgs;
+	private FunctionCache cache = null;
+
+	
+	/// GETTERS ///
+
+	protected List<MyExpression> getActualArgs() {
+		return actualArgs;
+	}
+
+	@Override
+	protected Object getExpressionResult(Program program, List<MyExpression> actualArgs, MyFunction function) {
+		setExpressionProgram(program);
+
+		MyFunction invoked = getFunction();
+		CallStack stack = program.getCallStack();
+		int base = stack.getNbSlots();
+
+		try {
+			pushArgs(stack, program, function);
+
+			if (getCache() != null) {
+				Object result = getCache().get(stack, base);
+				program.addInvocation(result != null);
+				if (result != null)
+					return result;
+			}
+
+			Object result;
+			stack.pushFrame(invoked, base);
+			try {
+				result = evaluateFunctionBody(invoked.getFunctionBody(), invoked);
+			} finally {
+				stack.popFrame();
+			}
+
+			if (getCache() != null && result != null)
+				getCache().put(stack, base, result);
+			return result;
+		} finally {
+			stack.dropArguments(base);
+		}
+	}
+
+	private FunctionCache getCache() {
+		return cache;
+	}
+
+	private MyFunction getFunction() {
+		MyFunction function = getExpressionProgram().getProgramFunctions().get(getFunctionName());
+
+		if (function != null)
+			return function;
+
+		throw new IllegalArgumentException();
+	}
+
+	protected String getFunctionName() {
+		return functionName;
+	}
+
+	
+	/// SETTERS ///
+
+	private void setArguments(List<MyExpression> actualArgs) {
+		this.actualArgs = actualArgs;
+	}
+
+	/**
+	 * Memoize the results of this invocation in the given cache, or stop memoizing if the cache is null. The invoked
+	 * function must be pure.
+	 */
+	protected void setCache(FunctionCache cache) {
+		this.cache = cache;
+	}
+
+	private void setFunctionName(String functionName) {
+		this.functionName = functionName;
+	}
+	
+	
+	/// CHECKERS ///
+	
+	private static boolean isValidFunctionBody(MyStatement body) {
+		return (body.containsStatement("ReturnStatement")
+				&& ((body instanceof ReturnStatement) || (body instanceof SequenceStatement)
+						|| (body instanceof IfElseStatement) || (body instanceof WhileStatement)));
+	}
+
+	
+	/// HELP FUNCTIONS ///
+
+	/**
+	 * Evaluate the arguments in the invoking function, and push their values on the given stack.
+	 */
+	private void pushArgs(CallStack stack, Program program, MyFunction function) {
+		for (MyExpression actualArg : getActualArgs())
+			stack.pushArgument(actualArg.evalDouble(program, function));
+	}
+
+	
+	/// EVALUATION ///
+
+	private Object evaluateFunctionBody(MyStatement body, MyFunction function) throws IllegalArgumentException {
+		if (isValidFunctionBody(body))
+			return body.evaluateInFunction(getExpressionProgram(), null, function);
+		
+		else
+			throw new IllegalArgumentException("FunctionExpression --> Else statement in evaluateFunctionBody");
+	}
+
+}
@@ -24,15 +24,15 @@ class IfElseStatement extends MyStatement {
 	
 	/// GETTERS ///
 
-	private MyExpression getCondition() {
+	protected MyExpression getCondition() {
 		return (MyExpression) condition;
 	}
 	
-	private MyStatement getElseBody() {
+	protected MyStatement getElseBody() {
 		return elseBody;
 	}
 	
-	private MyStatement getIfBody() {
+	protected MyStatement getIfBody() {
 		return ifBody;
 	}
 	
@@ -73,7 +73,7 @@ class IfElseStatement extends MyStatement {
 	protected void evaluate(Program program, List<MyExpression> actualArgs) {
 		setStatementProgram(program);
 
-		if ((boolean) getCondition().getExpressionResult(program, actualArgs))
+		if (getCondition().evalBoolean(program, null))
 			getIfBody().evaluate(program, actualArgs);
 		
 		else if (getElseBody() != null)
@@ -83,7 +83,7 @@ class IfElseStatement extends MyStatement {
 	protected Object evaluateInFunction(Program program, List<MyExpression> actualArgs, MyFunction function) {
 		setStatementProgram(program);
 
-		if ((boolean) getCondition().getExpressionResult(program, actualArgs, function)) {
+		if (getCondition().evalBoolean(program, function)) {
 			if (getIfBody() instanceof AssignmentStatement)
 				((AssignmentStatement) getIfBody()).assignLocalVariable(getStatementProgram(), actualArgs, function);
 
@@ -105,7 +105,7 @@ class IfElseStatement extends MyStatement {
 	@Override
 	protected void skipEvaluationUntilLocation(Program program, List<MyExpression> actualArgs,
 			SourceLocation location) {
-		if ((boolean) getCondition().getExpressionResult(program, actualArgs))
+		if (getCondition().evalBoolean(program, null))
 			getIfBody().skipEvaluationUntilLocation(program, actualArgs, location);
 
 		else if (getElseBody() != null)
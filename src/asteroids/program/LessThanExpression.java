@@ -16,14 +16,12 @@ class LessThanExpression extends BinaryExpression<ArithmeticExpression> implemen
 
 	@Override
 	protected Object getExpressionResult(Program program, List<MyExpression> actualArgs, MyFunction function) {
-		setExpressionProgram(program);
-
-		BinaryArithmeticExpression solved = new BinaryArithmeticExpression();
-
-		Double leftOperand = (double) solved.solveLeftOperand(program, actualArgs, function);
-		Double rightOperand = (double) solved.solveRightOperand(program, actualArgs, function);
+		return evalBoolean(program, function);
+	}
 
-		return leftOperand < rightOperand;
+	@Override
+	protected boolean evalBoolean(Program program, MyFunction function) {
+		return getLeftOperandDouble(program, function) < getRightOperandDouble(program, function);
 	}
 
 }
@@ -16,9 +16,12 @@ class LogicalNegationExpression extends UnaryExpression<BooleanExpression> imple
 	@Override
 	protected Object getExpressionResult(Program program, List<MyExpression> actualArgs, MyFunction function)
 			throws IllegalArgumentException {
-		setExpressionProgram(program);
+		return evalBoolean(program, function);
+	}
 
-		return !(Boolean) getOperandResult(program, actualArgs, function);
+	@Override
+	protected boolean evalBoolean(Program program, MyFunction function) throws IllegalArgumentException {
+		return !getOperandBoolean(program, function);
 	}
 
 }
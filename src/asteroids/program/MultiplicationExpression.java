@@ -16,14 +16,12 @@ class MultiplicationExpression extends BinaryExpression<ArithmeticExpression> im
 
 	@Override
 	protected Object getExpressionResult(Program program, List<MyExpression> actualArgs, MyFunction function) {
-		setExpressionProgram(program);
-
-		BinaryArithmeticExpression solved = new BinaryArithmeticExpression();
-
-		Double leftOperand = (double) solved.solveLeftOperand(program, actualArgs, function);
-		Double rightOperand = (double) solved.solveRightOperand(program, actualArgs, function);
+		return evalDouble(program, function);
+	}
 
-		return leftOperand * rightOperand;
+	@Override
+	protected double evalDouble(Program program, MyFunction function) {
+		return getLeftOperandDouble(program, function) * getRightOperandDouble(program, function);
 	}
 
 }
@@ -2,59 +2,13 @@ package asteroids.program;
 
 import java.util.List;
 
-import javax.management.RuntimeErrorException;
-
+import asteroids.model.Entity;
 import asteroids.model.Ship;
 
 public abstract class MyExpression {
 
 	/// GETTERS ///
 
-	protected MyExpression getArgument(MyExpression operand, List<MyExpression> actualArgs) {
-		if (operand.equals(getOperand()))
-			return (actualArgs.get(((ParameterExpression) getOperand()).getParameterNumber() - 1));
-		
-		else if (operand.equals(getLeftOperand()))
-			return (actualArgs.get(((ParameterExpression) getLeftOperand()).getParameterNumber() - 1));
-		
-		else
-			return (actualArgs.get(((ParameterExpression) getRightOperand()).getParameterNumber() - 1));
-	}
-
-	protected Object getArgumentExpression(MyExpression operand, List<MyExpression> actualArgs) {
-		return getArgument(operand, actualArgs).getExpressionResult(getExpressionProgram(), actualArgs);
-	}
-
-	protected Double[] getExpressionParameter(List<MyExpression> actualArgs, MyFunction function) {
-		Double expressionLeftParameter = null;
-		Double expressionRightParameter = null;
-
-		try {
-			// UNARY
-			if (this instanceof UnaryExpression) {
-				if (getOperand() instanceof ParameterExpression)
-					expressionLeftParameter = (Double) getArgumentExpression((MyExpression) getOperand(), actualArgs);
-			}
-
-			// BINARY
-			if (this instanceof BinaryExpression) {
-				if (getLeftOperand() instanceof ParameterExpression)
-					expressionLeftParameter = (Double) getArgumentExpression((MyExpression) getLeftOperand(),
-							actualArgs);
-
-				if (getRightOperand() instanceof ParameterExpression)
-					expressionRightParameter = (Double) getArgumentExpression((MyExpression) getRightOperand(),
-							actualArgs);
-			}
-
-			Double[] parameterArray = { expressionLeftParameter, expressionRightParameter };
-
-			return parameterArray;
-		} catch (IndexOutOfBoundsException indexOutOfBoundsException) {
-			throw new RuntimeErrorException(new IllegalAccessError());
-		}
-	}
-
 	protected Object getOperand() {
 		return null;
 	}
@@ -86,6 +40,55 @@ public abstract class MyExpression {
 	}
 
 	
+	/// TYPED EVALUATION ///
+
+	/**
+	 * Return the value of this expression as a number. Expressions that compute numbers override this method, so
+	 * their values are not boxed.
+	 *
+	 * @throws 	IllegalArgumentException
+	 * 			If the value is not a number.
+	 */
+	protected double evalDouble(Program program, MyFunction function) throws IllegalArgumentException {
+		Object result = getExpressionResult(program, null, function);
+
+		if (result instanceof Double)
+			return (Double) result;
+		else
+			throw new IllegalArgumentException();
+	}
+
+	/**
+	 * Return the value of this expression as a boolean.
+	 *
+	 * @throws 	IllegalArgumentException
+	 * 			If the value is not a boolean.
+	 */
+	protected boolean evalBoolean(Program program, MyFunction function) throws IllegalArgumentException {
+		Object result = getExpressionResult(program, null, function);
+
+		if (result instanceof Boolean)
+			return (Boolean) result;
+		else
+			throw new IllegalArgumentException();
+	}
+
+	/**
+	 * Return the value of this expression as an entity, which is null for the null entity.
+	 *
+	 * @throws 	IllegalArgumentException
+	 * 			If the value is not an entity.
+	 */
+	protected Entity evalEntity(Program program, MyFunction function) throws IllegalArgumentException {
+		Object result = getExpressionResult(program, null, function);
+
+		if (result == null || result instanceof Entity)
+			return (Entity) result;
+		else
+			throw new IllegalArgumentException();
+	}
+
+	
 	/// SETTERS ///
 
 	protected void setExpressionProgram(Program program) {
@@ -1,6 +1,5 @@
 package asteroids.program;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class MyFunction {
@@ -19,8 +18,11 @@ public class MyFunction {
 		return body;
 	}
 
+	/**
+	 * Return the local variables of the invocation of this function that is being executed.
+	 */
 	protected Map<String, Object> getFunctionLocalVariables() {
-		return local_variables;
+		return getFunctionProgram().getCallStack().getLocalVariables();
 	}
 
 	protected String getFunctionName() {
@@ -38,10 +40,6 @@ public class MyFunction {
 		this.body = body;
 	}
 
-	protected void setLocalVariables(Map<String, Object> local_variables) {
-		this.local_variables = local_variables;
-	}
-
 	protected void setFunctionName(String functionName) {
 		this.functionName = functionName;
 	}
@@ -54,22 +52,14 @@ public class MyFunction {
 	/// ADDERS ///
 
 	protected void addLocalVariable(String localVariableName, Object localVariable) {
-		local_variables.put(localVariableName, localVariable);
+		getFunctionLocalVariables().put(localVariableName, localVariable);
 	}
 
-	
-	/// HELP FUNCTIONS ///
-	
-	protected void resetLocalVariables() {
-		setLocalVariables(new HashMap<String, Object>());
-	}
-	
 
 	/// RELATIONS WITH OTHER CLASSES ///
 	
 	private Program program;
 	private String functionName;
 	private MyStatement body;
-	private Map<String, Object> local_variables = new HashMap<String, Object>();
 
 }
@@ -15,12 +15,12 @@ class NegationExpression extends UnaryExpression<ArithmeticExpression> implement
 
 	@Override
 	protected Object getExpressionResult(Program program, List<MyExpression> actualArgs, MyFunction function) {
-		setExpressionProgram(program);
-
-		UnaryArithmeticExpression expression = new UnaryArithmeticExpression();
-		Double Operand = (double) expression.solveOperand(program, actualArgs, function);
+		return evalDouble(program, function);
+	}
 
-		return -Operand;
+	@Override
+	protected double evalDouble(Program program, MyFunction function) {
+		return -getOperandDouble(program, function);
 	}
 
 }
@@ -22,8 +22,13 @@ abstract class OnEntityExpression extends MyExpression implements ArithmeticExpr
 		return operand;
 	}
 
-	protected Entity getOperandResult(Program program) {
-		return (Entity) getOperand().getExpressionResult(program);
+	protected Entity getOperandResult(Program program) throws IllegalArgumentException {
+		Entity entity = getOperand().evalEntity(program, null);
+
+		if (entity != null)
+			return entity;
+		else
+			throw new IllegalArgumentException();
 	}
 	
 	
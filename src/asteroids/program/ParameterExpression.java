@@ -17,7 +17,12 @@ class ParameterExpression extends NameExpression {
 	protected Object getExpressionResult(Program program, List<MyExpression> actualArgs, MyFunction function) {
 		setExpressionProgram(program);
 
-		return actualArgs.get(getParameterNumber() - 1).getExpressionResult(program, actualArgs, function);
+		return evalDouble(program, function);
+	}
+
+	@Override
+	protected double evalDouble(Program program, MyFunction function) {
+		return program.getCallStack().getArgument(getParameterNumber());
 	}
 
 	protected int getParameterNumber() {
@@ -16,6 +16,13 @@ class PrintStatement extends MyStatement {
 	private MyExpression expression;
 
 
+	/// GETTERS ///
+
+	protected MyExpression getExpression() {
+		return expression;
+	}
+
+
 	/// SETTERS ///
 
 	private void setExpression(MyExpression expression) {
@@ -27,6 +27,8 @@ public class Program {
 	private boolean first_time = true;
 	private SourceLocation location;
 	private boolean mayExecute = false;
+	private long memoized_hits = 0;
+	private long memoized_misses = 0;
 	
 	
 	/// GETTERS ///
@@ -35,6 +37,25 @@ public class Program {
 		return main;
 	}
 
+	/**
+	 * Return the number of invocations of pure functions whose result was found in a cache.
+	 */
+	public long getMemoizedHitCount() {
+		return memoized_hits;
+	}
+
+	/**
+	 * Return the number of invocations of pure functions whose result had to be computed.
+	 */
+	public long getMemoizedMissCount() {
+		return memoized_misses;
+	}
+
+	public double getMemoizedHitRate() {
+		long invocations = memoized_hits + memoized_misses;
+		return (invocations == 0) ? 0 : (double) memoized_hits / invocations;
+	}
+
 	protected boolean getMayExecute() {
 		return mayExecute;
 	}
@@ -43,6 +64,10 @@ public class Program {
 		return print_outs;
 	}
 
+	protected CallStack getCallStack() {
+		return call_stack;
+	}
+
 	protected Map<String, MyFunction> getProgramFunctions() {
 		return functions;
 	}
@@ -96,6 +121,13 @@ public class Program {
 
 	/// ADDERS ///
 
+	protected void addInvocation(boolean memoized) {
+		if (memoized)
+			memoized_hits++;
+		else
+			memoized_misses++;
+	}
+
 	protected void addPrintOut(Object object) {
 		print_outs.add(object);
 	}
@@ -142,5 +174,6 @@ public class Program {
 	private Map<String, MyFunction> functions = new HashMap<String, MyFunction>();
 	private Map<String, Object> variables = new HashMap<String, Object>();
 	private List<Object> print_outs = new ArrayList<>();
+	private final CallStack call_stack = new CallStack();
 
 }
@@ -11,8 +11,42 @@ public class ProgramFactory
 
 	}
 
+	/**
+	 * Whether the programs that are created memoize the results of their pure functions.
+	 */
+	private boolean memoizing = true;
+
+	/**
+	 * Check whether the programs that are created memoize the results of their pure functions.
+	 * 
+	 * @return 	True if and only if the invocations of pure functions in new programs cache their results.
+	 * 			@see implementation
+	 */
+	public boolean isMemoizing() {
+		return memoizing;
+	}
+
+	/**
+	 * Set whether the programs that are created memoize the results of their pure functions.
+	 * 
+	 * @param 	memoizing
+	 * 			True to memoize the results of pure functions, false to evaluate every invocation.
+	 * 
+	 * @post 	The factory memoizes if and only if the given flag is true.
+	 * 		  | new.isMemoizing() == memoizing
+	 * @note	Programs that were created before keep the setting they were created with.
+	 */
+	public void setMemoizing(boolean memoizing) {
+		this.memoizing = memoizing;
+	}
+
 	@Override
 	public Program createProgram(List<MyFunction> functions, MyStatement main) {
+		TypeChecker checker = new TypeChecker(functions, main);
+		checker.check();
+		if (isMemoizing())
+			for (FunctionExpression invocation : checker.getPureInvocations())
+				invocation.setCache(new FunctionCache(invocation.getActualArgs().size()));
 		return new Program(functions, main);
 	}
 
@@ -93,6 +127,8 @@ public class ProgramFactory
 	public MyExpression createChangeSignExpression(MyExpression expression, SourceLocation sourceLocation) {
 
 		try {
+			if (expression instanceof DoubleLiteralExpression)
+				return fold(-getLiteralValue(expression));
 			MyExpression result = new NegationExpression((ArithmeticExpression) expression);
 			return result;
 		} catch (ClassCastException e) {
@@ -216,6 +252,8 @@ public class ProgramFactory
 
 	public MyExpression createAdditionExpression(MyExpression e1, MyExpression e2, SourceLocation location) {
 		try {
+			if (e1 instanceof DoubleLiteralExpression && e2 instanceof DoubleLiteralExpression)
+				return fold(getLiteralValue(e1) + getLiteralValue(e2));
 			MyExpression result = new AdditionExpression((ArithmeticExpression) e1, (ArithmeticExpression) e2);
 			return result;
 		} catch (ClassCastException e) {
@@ -225,6 +263,8 @@ public class ProgramFactory
 
 	public MyExpression createMultiplicationExpression(MyExpression e1, MyExpression e2, SourceLocation location) {
 		try {
+			if (e1 instanceof DoubleLiteralExpression && e2 instanceof DoubleLiteralExpression)
+				return fold(getLiteralValue(e1) * getLiteralValue(e2));
 			MyExpression result = new MultiplicationExpression((ArithmeticExpression) e1, (ArithmeticExpression) e2);
 			return result;
 		} catch (ClassCastException e) {
@@ -234,6 +274,8 @@ public class ProgramFactory
 
 	public MyExpression createSqrtExpression(MyExpression expression, SourceLocation location) {
 		try {
+			if (expression instanceof DoubleLiteralExpression && getLiteralValue(expression) >= 0)
+				return fold(Math.sqrt(getLiteralValue(expression)));
 			MyExpression result = new SquareRootExpression((ArithmeticExpression) expression);
 			return result;
 		} catch (ClassCastException e) {
@@ -276,4 +318,16 @@ public class ProgramFactory
 		return result;
 	}
 
+	/// CONSTANT FOLDING ///
+
+	// Arithmetic on literals is computed once, when the program is created, instead of on every evaluation.
+
+	private static double getLiteralValue(MyExpression literal) {
+		return ((DoubleLiteralExpression) literal).getValue();
+	}
+
+	private static MyExpression fold(double value) {
+		return new DoubleLiteralExpression(value);
+	}
+
 }
\ No newline at end of file
@@ -18,7 +18,7 @@ class ReturnStatement extends MyStatement {
 	
 	/// GETTERS ///
 
-	private MyExpression getExpression() {
+	protected MyExpression getExpression() {
 		return this.expression;
 	}
 
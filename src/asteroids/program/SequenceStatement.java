@@ -21,7 +21,7 @@ class SequenceStatement extends MyStatement {
 	
 	/// GETTERS ///
 
-	private List<MyStatement> getStatements() {
+	protected List<MyStatement> getStatements() {
 		return statements;
 	}
 	
@@ -15,13 +15,15 @@ class SquareRootExpression extends UnaryExpression<ArithmeticExpression> impleme
 
 	@Override
 	protected Object getExpressionResult(Program program, List<MyExpression> actualArgs, MyFunction function) {
-		setExpressionProgram(program);
+		return evalDouble(program, function);
+	}
 
-		UnaryArithmeticExpression expression = new UnaryArithmeticExpression();
-		Double Operand = (double) expression.solveOperand(program, actualArgs, function);
+	@Override
+	protected double evalDouble(Program program, MyFunction function) throws IllegalArgumentException {
+		double operand = getOperandDouble(program, function);
 
-		if (Operand >= 0)
-			return Math.sqrt(Operand);
+		if (operand >= 0)
+			return Math.sqrt(operand);
 		else
 			throw new IllegalArgumentException();
 	}
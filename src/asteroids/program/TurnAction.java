@@ -20,7 +20,7 @@ class TurnAction extends ActionStatement {
 	
 	/// GETTERS ///
 	
-	private MyExpression getAngle() {
+	protected MyExpression getAngle() {
 		return angle;
 	}
 
@@ -36,7 +36,7 @@ class TurnAction extends ActionStatement {
 	
 	public void execute(Program program) {
 		try {
-			getStatementShip().turn((double) getAngle().getExpressionResult(program));
+			getStatementShip().turn(getAngle().evalDouble(program, null));
 		} catch (AssertionError error) {
 			throw new IllegalArgumentException();
 		}
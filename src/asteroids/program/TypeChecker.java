@@ -0,0 +1,423 @@
+package asteroids.program;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks a program once, before it is executed: the types of the expressions, the variables that are read, the
+ * functions that are invoked and their number of arguments, and the places where statements may occur. A program
+ * that does not pass the check is rejected with an IllegalArgumentException, so it never starts executing.
+ *
+ * Local variables of functions are not typed, because a function may assign values of different types to them; the
+ * interpreter still checks the values that are read from them.
+ *
+ * The checker also finds the functions that are pure: functions whose result only depends on their arguments, so
+ * their invocations can be memoized.
+ *
+ * @authors Sieben Bocklandt and Ruben Broekx
+ *
+ */
+class TypeChecker {
+
+	/// CONSTRUCTOR ///
+
+	protected TypeChecker(List<MyFunction> functions, MyStatement main) {
+		for (MyFunction function : functions) {
+			if (this.functions.put(function.getFunctionName(), function) != null)
+				throw new IllegalArgumentException("The function " + function.getFunctionName() + " is defined twice");
+		}
+		setMain(main);
+	}
+
+
+	/// TYPES ///
+
+	enum Type {
+		NUMBER, BOOLEAN, ENTITY, UNKNOWN;
+
+		private boolean canBe(Type type) {
+			return this == type || this == UNKNOWN;
+		}
+
+		private Type join(Type other) {
+			return (this == other) ? this : UNKNOWN;
+		}
+	}
+
+
+	/// BASIC PROPERTIES ///
+
+	private MyStatement main;
+	private final Map<String, MyFunction> functions = new HashMap<String, MyFunction>();
+	private final Set<String> global_variables = new HashSet<String>();
+	private final Map<MyFunction, Set<String>> local_variables = new HashMap<MyFunction, Set<String>>();
+	private final Map<MyFunction, Integer> nb_parameters = new HashMap<MyFunction, Integer>();
+	private final Map<MyFunction, Type> return_types = new HashMap<MyFunction, Type>();
+	private final Map<FunctionExpression, MyFunction> invocations = new IdentityHashMap<FunctionExpression, MyFunction>();
+
+
+	/// GETTERS ///
+
+	private MyStatement getMain() {
+		return main;
+	}
+
+	private String getContext(MyFunction function) {
+		return (function == null) ? "the main program" : "the function " + function.getFunctionName();
+	}
+
+	/**
+	 * Return the type of the values the given function returns. While the type of a recursive function is being
+	 * determined, its recursive invocations are of an unknown type.
+	 */
+	private Type getReturnType(MyFunction function) {
+		if (!return_types.containsKey(function)) {
+			return_types.put(function, Type.UNKNOWN);
+			Type type = getReturnType(function.getFunctionBody(), function);
+			if (type == null)
+				throw new IllegalArgumentException("The function " + function.getFunctionName() + " never returns");
+			return_types.put(function, type);
+		}
+		return return_types.get(function);
+	}
+
+	private Type getReturnType(MyStatement statement, MyFunction function) {
+		if (statement instanceof ReturnStatement)
+			return getType(((ReturnStatement) statement).getExpression(), function);
+
+		Type result = null;
+		for (MyStatement child : getChildren(statement)) {
+			Type type = getReturnType(child, function);
+			if (type != null)
+				result = (result == null) ? type : result.join(type);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the type of the given expression in the given function, or in the main program if the function is
+	 * null.
+	 *
+	 * @throws 	IllegalArgumentException
+	 * 			If the expression, or one of its operands, is not valid there.
+	 */
+	protected Type getType(MyExpression expression, MyFunction function) throws IllegalArgumentException {
+		if (expression instanceof DoubleLiteralExpression || expression instanceof DirectionExpression)
+			return Type.NUMBER;
+
+		if (expression instanceof EntityExpression)
+			return Type.ENTITY;
+
+		if (expression instanceof ParameterExpression) {
+			if (function == null)
+				throw new IllegalArgumentException("The parameter " + ((ParameterExpression) expression).getName()
+						+ " is read outside a function");
+			return Type.NUMBER;
+		}
+
+		if (expression instanceof VariableExpression) {
+			String name = ((VariableExpression) expression).getName();
+			if (function != null && local_variables.get(function).contains(name))
+				return Type.UNKNOWN;
+			if (global_variables.contains(name))
+				return Type.NUMBER;
+			throw new IllegalArgumentException("The variable " + name + " read in " + getContext(function)
+					+ " is not defined");
+		}
+
+		if (expression instanceof FunctionExpression) {
+			FunctionExpression invocation = (FunctionExpression) expression;
+			MyFunction invoked = functions.get(invocation.getFunctionName());
+			if (invoked == null)
+				throw new IllegalArgumentException("The function " + invocation.getFunctionName() + " invoked in "
+						+ getContext(function) + " is not defined");
+			invocations.put(invocation, invoked);
+			for (MyExpression argument : invocation.getActualArgs())
+				checkType(argument, function, Type.NUMBER, "an argument of " + invocation.getFunctionName());
+			if (invocation.getActualArgs().size() < nb_parameters.get(invoked))
+				throw new IllegalArgumentException("The function " + invocation.getFunctionName() + " needs "
+						+ nb_parameters.get(invoked) + " arguments, but gets " + invocation.getActualArgs().size());
+			return getReturnType(invoked);
+		}
+
+		if (expression instanceof OnEntityExpression) {
+			checkType(((OnEntityExpression) expression).getOperand(), function, Type.ENTITY, "the operand");
+			return Type.NUMBER;
+		}
+
+		if (expression instanceof EqualsToExpression) {
+			for (MyExpression operand : getOperands(expression))
+				getType(operand, function);
+			return Type.BOOLEAN;
+		}
+
+		if (expression instanceof LogicalNegationExpression) {
+			checkType(getOperands(expression)[0], function, Type.BOOLEAN, "the operand");
+			return Type.BOOLEAN;
+		}
+
+		// addition, multiplication, change of sign, square root and less than.
+		for (MyExpression operand : getOperands(expression))
+			checkType(operand, function, Type.NUMBER, "an operand");
+		return (expression instanceof LessThanExpression) ? Type.BOOLEAN : Type.NUMBER;
+	}
+
+	private MyExpression[] getOperands(MyExpression expression) {
+		if (expression instanceof UnaryExpression)
+			return new MyExpression[] { (MyExpression) expression.getOperand() };
+		return new MyExpression[] { (MyExpression) expression.getLeftOperand(),
+				(MyExpression) expression.getRightOperand() };
+	}
+
+	private MyStatement[] getChildren(MyStatement statement) {
+		if (statement instanceof SequenceStatement)
+			return ((SequenceStatement) statement).getStatements().toArray(new MyStatement[0]);
+		if (statement instanceof IfElseStatement) {
+			IfElseStatement ifElse = (IfElseStatement) statement;
+			if (ifElse.getElseBody() == null)
+				return new MyStatement[] { ifElse.getIfBody() };
+			return new MyStatement[] { ifElse.getIfBody(), ifElse.getElseBody() };
+		}
+		if (statement instanceof WhileStatement)
+			return new MyStatement[] { ((WhileStatement) statement).getBody() };
+		return new MyStatement[0];
+	}
+
+	/**
+	 * Return the invocations of pure functions in the program. A function is pure if it does not break a loop, does
+	 * not read global variables or entities, and only invokes pure functions. (Print and action statements are not
+	 * allowed in functions, and assignments in functions are local, so pure functions have no effects either.)
+	 * The program must have been checked.
+	 */
+	protected List<FunctionExpression> getPureInvocations() {
+		Map<MyFunction, Set<MyFunction>> callees = new HashMap<MyFunction, Set<MyFunction>>();
+		Set<MyFunction> pure = new HashSet<MyFunction>();
+		for (MyFunction function : functions.values()) {
+			Set<MyFunction> invoked = new HashSet<MyFunction>();
+			if (isPure(function.getFunctionBody(), function, invoked)) {
+				pure.add(function);
+				callees.put(function, invoked);
+			}
+		}
+		// A function that invokes an impure function is impure as well.
+		boolean changed = true;
+		while (changed)
+			changed = pure.removeIf(function -> !pure.containsAll(callees.get(function)));
+
+		List<FunctionExpression> result = new ArrayList<FunctionExpression>();
+		for (Map.Entry<FunctionExpression, MyFunction> invocation : invocations.entrySet())
+			if (pure.contains(invocation.getValue()))
+				result.add(invocation.getKey());
+		return result;
+	}
+
+	private boolean isPure(MyStatement statement, MyFunction function, Set<MyFunction> invoked) {
+		if (statement instanceof BreakStatement || statement instanceof ActionStatement
+				|| statement instanceof PrintStatement)
+			return false;
+		if (statement instanceof AssignmentStatement
+				&& !isPure(((AssignmentStatement) statement).getExpression(), function, invoked))
+			return false;
+		if (statement instanceof ReturnStatement
+				&& !isPure(((ReturnStatement) statement).getExpression(), function, invoked))
+			return false;
+		if (statement instanceof IfElseStatement
+				&& !isPure(((IfElseStatement) statement).getCondition(), function, invoked))
+			return false;
+		if (statement instanceof WhileStatement
+				&& !isPure(((WhileStatement) statement).getCondition(), function, invoked))
+			return false;
+		for (MyStatement child : getChildren(statement))
+			if (!isPure(child, function, invoked))
+				return false;
+		return true;
+	}
+
+	private boolean isPure(MyExpression expression, MyFunction function, Set<MyFunction> invoked) {
+		if (expression instanceof EntityExpression || expression instanceof OnEntityExpression
+				|| expression instanceof DirectionExpression)
+			return false;
+
+		// A local variable with the name of a global variable reads the global one until it is assigned.
+		if (expression instanceof VariableExpression) {
+			String name = ((VariableExpression) expression).getName();
+			return local_variables.get(function).contains(name) && !global_variables.contains(name);
+		}
+
+		if (expression instanceof FunctionExpression) {
+			invoked.add(functions.get(((FunctionExpression) expression).getFunctionName()));
+			for (MyExpression argument : ((FunctionExpression) expression).getActualArgs())
+				if (!isPure(argument, function, invoked))
+					return false;
+			return true;
+		}
+
+		if (expression instanceof UnaryExpression || expression instanceof BinaryExpression)
+			for (MyExpression operand : getOperands(expression))
+				if (!isPure(operand, function, invoked))
+					return false;
+		return true;
+	}
+
+
+	/// SETTERS ///
+
+	private void setMain(MyStatement main) {
+		this.main = main;
+	}
+
+
+	/// CHECKERS ///
+
+	/**
+	 * Check the whole program.
+	 *
+	 * @throws 	IllegalArgumentException
+	 * 			If the program is not valid.
+	 */
+	protected void check() throws IllegalArgumentException {
+		collectVariables(getMain(), null, global_variables);
+		for (MyFunction function : functions.values()) {
+			Set<String> locals = new HashSet<String>();
+			collectVariables(function.getFunctionBody(), function, locals);
+			local_variables.put(function, locals);
+			nb_parameters.put(function, getNbParameters(function.getFunctionBody()));
+		}
+
+		checkStatement(getMain(), null, false);
+		for (MyFunction function : functions.values()) {
+			checkStatement(function.getFunctionBody(), function, false);
+			getReturnType(function);
+		}
+	}
+
+	private void checkStatement(MyStatement statement, MyFunction function, boolean in_while) {
+		if (statement instanceof AssignmentStatement) {
+			AssignmentStatement assignment = (AssignmentStatement) statement;
+			if (function == null)
+				checkType(assignment.getExpression(), function, Type.NUMBER,
+						"the value assigned to " + assignment.getVariableName());
+			else
+				getType(assignment.getExpression(), function);
+		}
+
+		else if (statement instanceof ReturnStatement) {
+			if (function == null)
+				throw new IllegalArgumentException("A return statement is used outside a function");
+			getType(((ReturnStatement) statement).getExpression(), function);
+		}
+
+		// A function may break the while loop from which it is invoked.
+		else if (statement instanceof BreakStatement) {
+			if (function == null && !in_while)
+				throw new IllegalArgumentException("A break statement is used outside a while loop");
+		}
+
+		else if (statement instanceof PrintStatement) {
+			if (function != null)
+				throw new IllegalArgumentException("A print statement is used in " + getContext(function));
+			getType(((PrintStatement) statement).getExpression(), function);
+		}
+
+		else if (statement instanceof ActionStatement) {
+			if (function != null)
+				throw new IllegalArgumentException("An action statement is used in " + getContext(function));
+			if (statement instanceof TurnAction)
+				checkType(((TurnAction) statement).getAngle(), function, Type.NUMBER, "the angle");
+		}
+
+		else if (statement instanceof IfElseStatement) {
+			checkType(((IfElseStatement) statement).getCondition(), function, Type.BOOLEAN, "the condition");
+			for (MyStatement child : getChildren(statement))
+				checkStatement(child, function, in_while);
+		}
+
+		else if (statement instanceof WhileStatement) {
+			checkType(((WhileStatement) statement).getCondition(), function, Type.BOOLEAN, "the condition");
+			checkStatement(((WhileStatement) statement).getBody(), function, true);
+		}
+
+		else
+			for (MyStatement child : getChildren(statement))
+				checkStatement(child, function, in_while);
+	}
+
+	private void checkType(MyExpression expression, MyFunction function, Type type, String description) {
+		Type actual = getType(expression, function);
+		if (!actual.canBe(type))
+			throw new IllegalArgumentException("In " + getContext(function) + ", " + description + " must be of type "
+					+ type.name().toLowerCase() + " instead of " + actual.name().toLowerCase());
+	}
+
+
+	/// HELP FUNCTIONS ///
+
+	/**
+	 * Add the names of the variables that are assigned in the given statement to the given set.
+	 *
+	 * @throws 	IllegalArgumentException
+	 * 			If the main program assigns to the name of a function.
+	 */
+	private void collectVariables(MyStatement statement, MyFunction function, Set<String> variables)
+			throws IllegalArgumentException {
+		if (statement instanceof AssignmentStatement) {
+			String name = ((AssignmentStatement) statement).getVariableName();
+			if (function == null && functions.containsKey(name))
+				throw new IllegalArgumentException("The variable " + name + " has the name of a function");
+			variables.add(name);
+		}
+		for (MyStatement child : getChildren(statement))
+			collectVariables(child, function, variables);
+	}
+
+	/**
+	 * Return the highest index of a parameter that is read in the given statement.
+	 */
+	private int getNbParameters(MyStatement statement) {
+		int result = 0;
+		if (statement instanceof AssignmentStatement)
+			result = getNbParameters(((AssignmentStatement) statement).getExpression());
+		else if (statement instanceof ReturnStatement)
+			result = getNbParameters(((ReturnStatement) statement).getExpression());
+		else if (statement instanceof IfElseStatement)
+			result = getNbParameters(((IfElseStatement) statement).getCondition());
+		else if (statement instanceof WhileStatement)
+			result = getNbParameters(((WhileStatement) statement).getCondition());
+
+		for (MyStatement child : getChildren(statement))
+			result = Math.max(result, getNbParameters(child));
+		return result;
+	}
+
+	private int getNbParameters(MyExpression expression) {
+		if (expression instanceof ParameterExpression) {
+			int number;
+			try {
+				number = ((ParameterExpression) expression).getParameterNumber();
+			} catch (NumberFormatException exception) {
+				number = 0;
+			}
+			if (number < 1)
+				throw new IllegalArgumentException("The parameter " + ((ParameterExpression) expression).getName()
+						+ " does not exist");
+			return number;
+		}
+
+		int result = 0;
+		if (expression instanceof FunctionExpression)
+			for (MyExpression argument : ((FunctionExpression) expression).getActualArgs())
+				result = Math.max(result, getNbParameters(argument));
+		else if (expression instanceof OnEntityExpression)
+			result = getNbParameters(((OnEntityExpression) expression).getOperand());
+		else if (expression instanceof UnaryExpression || expression instanceof BinaryExpression)
+			for (MyExpression operand : getOperands(expression))
+				result = Math.max(result, getNbParameters(operand));
+		return result;
+	}
+
+}
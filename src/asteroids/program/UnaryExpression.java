@@ -27,40 +27,19 @@ public abstract class UnaryExpression<E> extends MyExpression {
 		return ((MyExpression) getOperand()).getExpressionResult(program, actualArgs, function);
 	}
 
+	protected double getOperandDouble(Program program, MyFunction function) {
+		return ((MyExpression) getOperand()).evalDouble(program, function);
+	}
+
+	protected boolean getOperandBoolean(Program program, MyFunction function) {
+		return ((MyExpression) getOperand()).evalBoolean(program, function);
+	}
+
 	
 	/// SETTERS ///
 
 	protected void setOperand(E operand) {
 		this.operand = operand;
 	}
-	
-	
-	/// LOCAL CLASS ///
-	
-	class UnaryArithmeticExpression implements UnaryOperandSolver, ArithmeticExpression {
-
-		public Object solveOperand(Program program, List<MyExpression> actualArgs, MyFunction function) {
-			Double[] parameterArray = getExpressionParameter(actualArgs, function);
-			Double parameter = parameterArray[0];
-
-			if (parameter != null)
-				return parameter;
-			
-			else {
-				if (canHaveAsArithmeticOperand(program, actualArgs, (MyExpression) getOperand(), function))
-					return (double) getOperandResult(program, actualArgs, function);
-				
-				else
-					throw new IllegalArgumentException();
-			}
-		}
-	}
-	
-	
-	/// LOCAL INTERFACE ///
-	
-	interface UnaryOperandSolver{
-		public Object solveOperand(Program program, List<MyExpression> actualArgs, MyFunction function);
-	}
 
 }
@@ -23,7 +23,7 @@ class WhileStatement extends MyStatement {
 	
 	/// GETTERS ///
 	
-	private MyStatement getBody() {
+	protected MyStatement getBody() {
 		return body;
 	}
 	
@@ -31,7 +31,7 @@ class WhileStatement extends MyStatement {
 		return broken;
 	}
 	
-	private MyExpression getCondition() {
+	protected MyExpression getCondition() {
 		return (MyExpression) condition;
 	}
 	
@@ -64,7 +64,7 @@ class WhileStatement extends MyStatement {
 	protected void evaluate(Program program, List<MyExpression> actualArgs) {
 		setStatementProgram(program);
 		
-		while ((boolean) getCondition().getExpressionResult(program, actualArgs) && isNotBroken()) {
+		while (getCondition().evalBoolean(program, null) && isNotBroken()) {
 			try {
 				getBody().evaluate(program, actualArgs);
 			} catch (IllegalAccessError error) {
@@ -77,7 +77,7 @@ class WhileStatement extends MyStatement {
 	protected void evaluateWhileInFunction(Program program, List<MyExpression> actualArgs, MyFunction function) {
 		setStatementProgram(program);
 
-		while ((boolean) getCondition().getExpressionResult(program, actualArgs, function) && isNotBroken()) {
+		while (getCondition().evalBoolean(program, function) && isNotBroken()) {
 			if (getBody() instanceof AssignmentStatement)
 				((AssignmentStatement) getBody()).assignLocalVariable(program, actualArgs, function);
 			else {
@@ -93,7 +93,7 @@ class WhileStatement extends MyStatement {
 
 	@Override
 	protected void skipEvaluationUntilLocation(Program program, List<MyExpression> actualArgs, SourceLocation location) {
-		while ((boolean) getCondition().getExpressionResult(program, actualArgs) && isNotBroken()) {
+		while (getCondition().evalBoolean(program, null) && isNotBroken()) {
 			try {
 				getBody().skipEvaluationUntilLocation(program, actualArgs, location);
 			} catch (IllegalAccessError error) {
@@ -0,0 +1,142 @@
+package asteroids.util.internal;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache for the images drawn by the views. Every resource is decoded only once,
+ * and scaled variants are kept in a bounded LRU cache, so creating a
+ * visualization mid-game does not read from the classpath.
+ *
+ * Scaled variants are stored as images compatible with the screen, so they
+ * can be accelerated by the graphics pipeline.
+ */
+public class SpriteCache {
+
+	/**
+	 * The maximum number of scaled variants kept in the cache.
+	 */
+	public static final int MAX_SCALED_IMAGES = 256;
+
+	/**
+	 * Sizes up to this value get their own variant, larger sizes are grouped in
+	 * buckets.
+	 */
+	private static final int EXACT_SIZE_LIMIT = 32;
+
+	private static final Map<String, Image> images = new HashMap<>();
+
+	@SuppressWarnings("serial")
+	private static final Map<String, Image> scaled = new LinkedHashMap<String, Image>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+			return size() > MAX_SCALED_IMAGES;
+		}
+	};
+
+	private static long hits;
+	private static long misses;
+
+	private SpriteCache() {
+	}
+
+	/**
+	 * Return the decoded image of the given resource, which is only read the
+	 * first time it is requested.
+	 */
+	public static synchronized Image getImage(String filename) {
+		Image result = images.get(filename);
+		if (result == null) {
+			result = ResourceUtils.loadImage(filename);
+			images.put(filename, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the image of the given resource, scaled to exactly the given width
+	 * and height.
+	 */
+	public static synchronized Image getScaledImage(String filename, int width, int height) {
+		width = Math.max(1, width);
+		height = Math.max(1, height);
+		String key = filename + "@" + width + "x" + height;
+		Image result = scaled.get(key);
+		if (result == null) {
+			misses++;
+			result = scale(getImage(filename), width, height);
+			scaled.put(key, result);
+		} else {
+			hits++;
+		}
+		return result;
+	}
+
+	/**
+	 * Return a square sprite of the given resource, for a visualization that
+	 * scales its image to the size of its object when drawing. Sizes are
+	 * rounded up to a bucket, so objects of about the same size share a sprite.
+	 */
+	public static Image getSprite(String filename, int size) {
+		int bucket = toBucket(size);
+		return getScaledImage(filename, bucket, bucket);
+	}
+
+	/**
+	 * Return the bucket of the given size: small sizes are exact, larger sizes
+	 * are rounded up to a step of an eighth of their highest power of two.
+	 */
+	static int toBucket(int size) {
+		if (size <= EXACT_SIZE_LIMIT)
+			return Math.max(1, size);
+		int step = Integer.highestOneBit(size) / 8;
+		return (size + step - 1) / step * step;
+	}
+
+	public static synchronized long getHits() {
+		return hits;
+	}
+
+	public static synchronized long getMisses() {
+		return misses;
+	}
+
+	public static synchronized int getScaledImageCount() {
+		return scaled.size();
+	}
+
+	public static synchronized void clear() {
+		images.clear();
+		scaled.clear();
+	}
+
+	private static Image scale(Image image, int width, int height) {
+		BufferedImage result = createCompatibleImage(width, height);
+		Graphics2D g2d = result.createGraphics();
+		try {
+			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g2d.drawImage(image, 0, 0, width, height, null);
+		} finally {
+			g2d.dispose();
+		}
+		return result;
+	}
+
+	private static BufferedImage createCompatibleImage(int width, int height) {
+		if (!GraphicsEnvironment.isHeadless()) {
+			GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+					.getDefaultScreenDevice().getDefaultConfiguration();
+			return configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		}
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+	}
+}
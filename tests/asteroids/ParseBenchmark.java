@@ -0,0 +1,55 @@
+package asteroids;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Scanner;
+
+import asteroids.part3.programs.internal.ProgramParser;
+import asteroids.program.Program;
+import asteroids.program.ProgramFactory;
+import asteroids.util.internal.ResourceUtils;
+
+/**
+ * Measures how fast the bundled programs are parsed (without creating the
+ * programs), with full LL prediction only and with SLL prediction first
+ * (falling back to LL on errors). Both modes are measured after the shared
+ * prediction caches have been warmed up.
+ *
+ * Run with: java asteroids.ParseBenchmark [iterations]
+ */
+public class ParseBenchmark {
+
+  private static final String FOLDER = "asteroids/resources/programs";
+
+  public static void main(String[] args) throws IOException {
+    int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+    List<String> programs = new ArrayList<>();
+    long characters = 0;
+    for (String name : ResourceUtils.listFileNames(FOLDER).sorted().toArray(String[]::new)) {
+      try (Scanner scanner = new Scanner(ResourceUtils.openResource(FOLDER + "/" + name), "UTF-8")) {
+        String text = scanner.useDelimiter("\\A").hasNext() ? scanner.next() : "";
+        programs.add(text);
+        characters += text.length();
+      }
+    }
+
+    long start = System.nanoTime();
+    ProgramParser.warmUp();
+    System.out.println(String.format(Locale.ROOT, "warm-up: %.1f ms", (System.nanoTime() - start) / 1e6));
+
+    ProgramParser<?, ?, ?, Program> parser = ProgramParser.create(new ProgramFactory());
+    // every mode gets a round to compile its code paths before it is measured
+    for (boolean twoStage : new boolean[] { false, true, false, true }) {
+      parser.setTwoStage(twoStage);
+      start = System.nanoTime();
+      for (int i = 0; i < iterations; i++)
+        for (String program : programs)
+          parser.checkSyntax(program);
+      double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.println(String.format(Locale.ROOT, "%-9s %8.0f programs/s %8.2f MB/s", twoStage ? "SLL+LL" : "LL",
+          iterations * programs.size() / seconds, iterations * characters / seconds / 1e6));
+    }
+  }
+}
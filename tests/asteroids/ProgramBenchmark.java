@@ -0,0 +1,85 @@
+package asteroids;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import asteroids.facade.Facade;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.part3.facade.IFacade;
+import asteroids.part3.programs.internal.ProgramParser;
+import asteroids.program.Program;
+import asteroids.program.ProgramFactory;
+import asteroids.util.ModelException;
+
+/**
+ * Measures how long ship programs take to execute, for programs that are
+ * dominated by a single kind of statement. Every program runs a loop of
+ * LOOPS iterations without actions, so it completes in a single execution;
+ * the time is reported per iteration of the loop, without and with
+ * memoization of pure functions.
+ *
+ * Run with: java asteroids.ProgramBenchmark [executions]
+ */
+public class ProgramBenchmark {
+
+  private static final int LOOPS = 100;
+
+  private static final Map<String, String> BODIES = new LinkedHashMap<>();
+
+  static {
+    BODIES.put("assign literal", "a := 1.0;");
+    BODIES.put("arithmetic", "a := (n * n + 2.0 * n) * -0.5 + sqrt (n * 4.0);");
+    BODIES.put("assign nearest", "a := getx asteroid;");
+    BODIES.put("assign call", "a := fac(10.0);");
+    BODIES.put("recursive fib", "a := fib(12.0);");
+    BODIES.put("pure helpers", "a := dist(3.0, 4.0) + dist(n, 4.0) + dist(3.0, 4.0);");
+  }
+
+  private static final String FUNCTIONS = "def fac { if $1 < 1.5 { return 1.0; } else { return $1 * fac($1 + -1.0); } } "
+      + "def fib { if $1 < 1.5 { return $1; } else { return fib($1 + -1.0) + fib($1 + -2.0); } } "
+      + "def dist { return sqrt ($1 * $1 + $2 * $2); } ";
+
+  public static void main(String[] args) throws ModelException {
+    int executions = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+    IFacade facade = new Facade();
+    ProgramFactory plain = new ProgramFactory();
+    plain.setMemoizing(false);
+    List<ProgramParser<?, ?, ?, Program>> parsers = Arrays.asList(ProgramParser.create(plain),
+        ProgramParser.create(new ProgramFactory()));
+    System.out.println("program                us/iteration  memoized");
+    // every program gets a round to compile its code paths before it is measured
+    for (boolean measured : new boolean[] { false, true }) {
+      for (Map.Entry<String, String> body : BODIES.entrySet()) {
+        String code = FUNCTIONS + "n := 0.0; while n < " + LOOPS + ".0 { " + body.getValue() + " n := n + 1.0; }";
+        double[] micros = new double[parsers.size()];
+        for (int i = 0; i < parsers.size(); i++) {
+          Supplier<Program> programs = parsers.get(i).compileString(code).getSuccessValue();
+          micros[i] = measure(facade, programs, executions) / 1e3 / LOOPS;
+        }
+        if (measured)
+          System.out.println(String.format(Locale.ROOT, "%-22s %12.3f %9.3f", body.getKey(), micros[0], micros[1]));
+      }
+    }
+  }
+
+  private static double measure(IFacade facade, Supplier<Program> programs, int executions) throws ModelException {
+    World world = facade.createWorld(1.0E4, 1.0E4);
+    Ship ship = facade.createShip(5000, 5000, 0, 0, 50, 0, 1.0E20);
+    facade.addShipToWorld(world, ship);
+    for (int i = 0; i < 50; i++)
+      facade.addAsteroidToWorld(world, facade.createAsteroid(200 + i * 150, 1000, 0, 0, 30));
+    long nanos = 0;
+    for (int i = 0; i < executions; i++) {
+      facade.loadProgramOnShip(ship, programs.get());
+      long start = System.nanoTime();
+      facade.executeProgram(ship, 1.0);
+      nanos += System.nanoTime() - start;
+    }
+    return nanos / (double) executions;
+  }
+}
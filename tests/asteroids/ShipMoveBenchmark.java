@@ -0,0 +1,45 @@
+package asteroids;
+
+import java.util.Locale;
+
+import asteroids.facade.Facade;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.part3.facade.IFacade;
+import asteroids.util.ModelException;
+
+/**
+ * Measures the cost of moving a thrusting ship, alone in a large world, for
+ * magazines of increasing size. The mass of a ship includes its bullets, and
+ * is needed for the acceleration on every move, so the cost per move should
+ * not depend on the number of bullets.
+ *
+ * Run with: java asteroids.ShipMoveBenchmark [moves]
+ */
+public class ShipMoveBenchmark {
+
+  private static final int[] MAGAZINE_SIZES = { 0, 10, 100, 1000, 10000 };
+
+  public static void main(String[] args) throws ModelException {
+    int moves = (args.length > 0) ? Integer.parseInt(args[0]) : 200_000;
+    IFacade facade = new Facade();
+    // warm up, so the first size is not measured in the interpreter
+    measure(facade, 1000, moves);
+    System.out.println("bullets    ns/move");
+    for (int size : MAGAZINE_SIZES)
+      System.out.println(String.format(Locale.ROOT, "%7d %10.1f", size, measure(facade, size, moves)));
+  }
+
+  private static double measure(IFacade facade, int bullets, int moves) throws ModelException {
+    World world = facade.createWorld(1.0E9, 1.0E9);
+    Ship ship = facade.createShip(5.0E8, 5.0E8, 0, 0, 50, 0, 1.0E20);
+    for (int i = 0; i < bullets; i++)
+      facade.loadBulletOnShip(ship, facade.createBullet(5.0E8, 5.0E8, 0, 0, 1));
+    facade.addShipToWorld(world, ship);
+    facade.setThrusterActive(ship, true);
+    long start = System.nanoTime();
+    for (int i = 0; i < moves; i++)
+      facade.evolve(world, 1.0E-6, null);
+    return (System.nanoTime() - start) / (double) moves;
+  }
+}
@@ -9,9 +9,29 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.management.JMException;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -19,14 +39,40 @@ import org.junit.Test;
 
 import asteroids.model.Asteroid;
 import asteroids.model.Bullet;
+import asteroids.model.CollisionBatch;
+import asteroids.model.CollisionBatchListener;
+import asteroids.model.CollisionKind;
+import asteroids.model.CsvTelemetrySink;
+import asteroids.model.Entity;
 import asteroids.model.Planetoid;
+import asteroids.model.PopulationResult;
+import asteroids.model.Profiler;
+import asteroids.model.ProfilerMXBean;
+import asteroids.model.PopulationResult.RejectionReason;
 import asteroids.model.Ship;
+import asteroids.model.TickStatistics;
 import asteroids.model.World;
 import asteroids.part3.facade.IFacade;
+import asteroids.program.MyExpression;
+import asteroids.program.MyFunction;
+import asteroids.program.MyStatement;
 import asteroids.program.Program;
 import asteroids.program.ProgramFactory;
 import asteroids.part3.programs.IProgramFactory;
+import asteroids.part3.internal.MatchResult;
+import asteroids.part3.internal.Scenario;
+import asteroids.part3.internal.TournamentRunner;
+import asteroids.part3.programs.internal.ProgramCache;
+import asteroids.part3.programs.internal.ProgramDiagnostic;
+import asteroids.part3.programs.internal.ProgramLoader;
 import asteroids.part3.programs.internal.ProgramParser;
+import asteroids.part2.CollisionListener;
+import asteroids.part2.internal.DrawContext;
+import asteroids.part2.internal.FileSoundManager;
+import asteroids.part2.internal.SilentMixer;
+import asteroids.part2.internal.Visualization;
+import asteroids.part2.internal.VisualizationCache;
+import asteroids.part2.internal.WorldSnapshot;
 import asteroids.util.ModelException;
 
 public class Tests {
@@ -2897,4 +2943,1139 @@ public class Tests {
     }
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testTelemetrySink_CountsBoundaryCollision() throws ModelException {
+    max_score += 3;
+    World world = facade.createWorld(1000, 1000);
+    Ship ship = facade.createShip(100, 100, -10, 0, 50, 0, 1.0E20);
+    facade.addShipToWorld(world, ship);
+    List<TickStatistics> ticks = new ArrayList<>();
+    world.setTelemetrySink(ticks::add);
+    facade.evolve(world, 10, null);
+    assertEquals(1, ticks.size());
+    TickStatistics tick = ticks.get(0);
+    assertEquals(1, tick.getTickNumber());
+    assertEquals(1, tick.getShipCount());
+    assertEquals(0, tick.getBulletCount());
+    assertEquals(1, tick.getCollisionCount(CollisionKind.BOUNDARY));
+    assertEquals(1, tick.getTotalCollisionCount());
+    assertEquals(2, tick.getSubSteps());
+    world.setTelemetrySink(null);
+    facade.evolve(world, 1, null);
+    assertEquals(1, ticks.size());
+    score += 3;
+  }
+
+  @Test
+  public void testTelemetrySink_ProgramTimeGoesToTheNextTick() throws ModelException {
+    max_score += 2;
+    World world = facade.createWorld(1000, 1000);
+    Ship ship = facade.createShip(100, 100, 0, 0, 50, 0, 1.0E20);
+    facade.addShipToWorld(world, ship);
+    List<TickStatistics> ticks = new ArrayList<>();
+    world.setTelemetrySink(ticks::add);
+    facade.loadProgramOnShip(ship, ProgramParser.parseProgramFromString("print 1.0;", programFactory));
+    // programs are executed between ticks, so they are counted in the tick that follows
+    facade.executeProgram(ship, 1.0);
+    facade.evolve(world, 1, null);
+    facade.evolve(world, 1, null);
+    assertEquals(2, ticks.size());
+    assertEquals(1, ticks.get(0).getProgramExecutions());
+    assertTrue(ticks.get(0).getProgramNanos() > 0);
+    assertEquals(0, ticks.get(1).getProgramExecutions());
+    assertEquals(0, ticks.get(1).getProgramNanos());
+    score += 2;
+  }
+
+  private static List<TickStatistics> recordTicks(IFacade facade, int count) throws ModelException {
+    World world = facade.createWorld(1000, 1000);
+    facade.addShipToWorld(world, facade.createShip(500, 500, 10, 0, 50, 0, 1.0E20));
+    List<TickStatistics> ticks = new ArrayList<>();
+    world.setTelemetrySink(ticks::add);
+    for (int i = 0; i < count; i++)
+      facade.evolve(world, 0.1, null);
+    return ticks;
+  }
+
+  @Test
+  public void testCsvTelemetrySink_WritesRowsAndCountsDrops() throws ModelException, IOException {
+    max_score += 3;
+    List<TickStatistics> ticks = recordTicks(facade, 5000);
+    Path folder = Files.createTempDirectory("telemetry");
+    File file = folder.resolve("ticks.csv").toFile();
+    try {
+      CsvTelemetrySink sink = new CsvTelemetrySink(file, Long.MAX_VALUE, 0, 16);
+      // the writer cannot keep up with a queue of 16 ticks, every tick is either written or dropped
+      for (TickStatistics tick : ticks)
+        sink.tickCompleted(tick);
+      sink.close();
+      long dropped = sink.getDroppedTicks();
+      sink.tickCompleted(ticks.get(0));
+      assertEquals(dropped + 1, sink.getDroppedTicks());
+
+      List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+      assertTrue(lines.get(0).startsWith("tick,dt,tick_nanos,ships,"));
+      assertEquals(ticks.size(), lines.size() - 1 + dropped);
+      // the ticks that were written keep their order
+      long last = 0;
+      for (String line : lines.subList(1, lines.size())) {
+        String[] values = line.split(",");
+        assertEquals(lines.get(0).split(",").length, values.length);
+        assertTrue(Long.parseLong(values[0]) > last);
+        last = Long.parseLong(values[0]);
+      }
+    } finally {
+      deleteFolder(folder);
+    }
+    score += 3;
+  }
+
+  @Test
+  public void testCsvTelemetrySink_RotatesFiles() throws ModelException, IOException {
+    max_score += 3;
+    List<TickStatistics> ticks = recordTicks(facade, 40);
+    Path folder = Files.createTempDirectory("telemetry");
+    File file = folder.resolve("ticks.csv").toFile();
+    try {
+      CsvTelemetrySink sink = new CsvTelemetrySink(file, 1024, 2, ticks.size());
+      for (TickStatistics tick : ticks)
+        sink.tickCompleted(tick);
+      sink.close();
+      assertEquals(0, sink.getDroppedTicks());
+      assertTrue(file.exists());
+      assertTrue(folder.resolve("ticks.1.csv").toFile().exists());
+      assertTrue(folder.resolve("ticks.2.csv").toFile().exists());
+      assertFalse(folder.resolve("ticks.3.csv").toFile().exists());
+      // every file starts with the header, and the newest ticks are in the current file
+      long last = 0;
+      for (String name : new String[] { "ticks.2.csv", "ticks.1.csv", "ticks.csv" }) {
+        List<String> lines = Files.readAllLines(folder.resolve(name), StandardCharsets.UTF_8);
+        assertTrue(lines.get(0).startsWith("tick,"));
+        for (String line : lines.subList(1, lines.size())) {
+          long tick = Long.parseLong(line.substring(0, line.indexOf(',')));
+          assertEquals(last == 0 ? tick : last + 1, tick);
+          last = tick;
+        }
+      }
+      assertEquals(ticks.size(), last);
+    } finally {
+      deleteFolder(folder);
+    }
+    score += 3;
+  }
+
+  private static void deleteFolder(Path folder) throws IOException {
+    try (Stream<Path> files = Files.list(folder)) {
+      for (Path file : (Iterable<Path>) files::iterator)
+        Files.delete(file);
+    }
+    Files.delete(folder);
+  }
+
+  @Test
+  public void testCollisionKind_IndependentOfOrder() throws ModelException {
+    max_score += 1;
+    Ship ship = facade.createShip(100, 120, 10, 5, 50, 0, 1.0E20);
+    Asteroid asteroid = facade.createAsteroid(500, 500, 0, 0, 20);
+    assertEquals(CollisionKind.SHIP_ASTEROID, CollisionKind.of(ship, asteroid));
+    assertEquals(CollisionKind.SHIP_ASTEROID, CollisionKind.of(asteroid, ship));
+    assertEquals(CollisionKind.BOUNDARY, CollisionKind.of(ship, null));
+    score += 1;
+  }
+
+  @Test
+  public void testAddEntitiesToWorld_LegalCase() throws ModelException {
+    max_score += 3;
+    World world = facade.createWorld(5000, 5000);
+    List<Asteroid> asteroids = new ArrayList<>();
+    for (int i = 0; i < 20; i++)
+      for (int j = 0; j < 20; j++)
+        asteroids.add(facade.createAsteroid(100 + 200 * i, 100 + 200 * j, 0, 0, 50));
+    world.addEntitiesToWorld(asteroids);
+    assertEquals(400, facade.getWorldAsteroids(world).size());
+    Ship ship = facade.createShip(4500, 4500, 0, 0, 50, 0, 1.0E20);
+    facade.addShipToWorld(world, ship);
+    Ship overlappingShip = facade.createShip(120, 120, 0, 0, 50, 0, 1.0E20);
+    try {
+      facade.addShipToWorld(world, overlappingShip);
+      fail();
+    } catch (ModelException exc) {
+      score += 3;
+    }
+  }
+
+  @Test
+  public void testAddEntitiesToWorld_OverlapInBatch() throws ModelException {
+    max_score += 3;
+    World world = facade.createWorld(5000, 5000);
+    List<Asteroid> asteroids = new ArrayList<>();
+    asteroids.add(facade.createAsteroid(100, 100, 0, 0, 50));
+    asteroids.add(facade.createAsteroid(1000, 1000, 0, 0, 50));
+    asteroids.add(facade.createAsteroid(1050, 1050, 0, 0, 50));
+    try {
+      world.addEntitiesToWorld(asteroids);
+      fail();
+    } catch (IllegalArgumentException exc) {
+      assertTrue(facade.getWorldAsteroids(world).isEmpty());
+      assertNull(facade.getAsteroidWorld(asteroids.get(0)));
+      score += 3;
+    }
+  }
+
+  @Test
+  public void testPopulateWorld_ReportsRejections() throws ModelException {
+    max_score += 4;
+    World world = facade.createWorld(5000, 5000);
+    Ship ship = facade.createShip(1000, 1000, 0, 0, 50, 0, 1.0E20);
+    facade.addShipToWorld(world, ship);
+    Asteroid accepted = facade.createAsteroid(100, 100, 0, 0, 50);
+    Asteroid outOfBounds = facade.createAsteroid(6000, 100, 0, 0, 50);
+    Asteroid overlapsWorld = facade.createAsteroid(1020, 1020, 0, 0, 50);
+    Asteroid overlapsBatch = facade.createAsteroid(120, 120, 0, 0, 50);
+    List<Entity> entities = new ArrayList<>();
+    entities.add(accepted);
+    entities.add(outOfBounds);
+    entities.add(null);
+    entities.add(overlapsWorld);
+    entities.add(overlapsBatch);
+    entities.add(accepted);
+    PopulationResult result = facade.populateWorld(world, entities);
+    assertEquals(1, result.getAccepted().size());
+    assertEquals(accepted, result.getAccepted().get(0));
+    assertEquals(world, facade.getAsteroidWorld(accepted));
+    assertEquals(5, result.getRejected().size());
+    assertEquals(RejectionReason.OUT_OF_BOUNDS, result.getRejected().get(0).getReason());
+    assertEquals(1, result.getRejected().get(0).getIndex());
+    assertEquals(RejectionReason.NULL_ENTITY, result.getRejected().get(1).getReason());
+    assertEquals(RejectionReason.OVERLAPS_WORLD, result.getRejected().get(2).getReason());
+    assertEquals(RejectionReason.OVERLAPS_BATCH, result.getRejected().get(3).getReason());
+    assertEquals(RejectionReason.DUPLICATE, result.getRejected().get(4).getReason());
+    assertNull(facade.getAsteroidWorld(overlapsBatch));
+    score += 4;
+  }
+
+  @Test
+  public void testPopulateWorld_LargeBatch() throws ModelException {
+    max_score += 2;
+    World world = facade.createWorld(100000, 100000);
+    List<Asteroid> asteroids = new ArrayList<>();
+    for (int i = 0; i < 100; i++)
+      for (int j = 0; j < 50; j++)
+        asteroids.add(facade.createAsteroid(100 + 500 * i, 100 + 500 * j, 0, 0, 20));
+    PopulationResult result = facade.populateWorld(world, asteroids);
+    assertTrue(result.isComplete());
+    assertEquals(5000, facade.getWorldAsteroids(world).size());
+    score += 2;
+  }
+
+  @Test
+  public void testEvolve_RestingAsteroidWokenByCollision() throws ModelException {
+    max_score += 3;
+    World world = facade.createWorld(5000, 5000);
+    Asteroid resting = facade.createAsteroid(1000, 1000, 0, 0, 20);
+    Asteroid moving = facade.createAsteroid(500, 1000, 100, 0, 20);
+    Asteroid farAway = facade.createAsteroid(3000, 3000, 0, 0, 20);
+    facade.addAsteroidToWorld(world, resting);
+    facade.addAsteroidToWorld(world, moving);
+    facade.addAsteroidToWorld(world, farAway);
+    facade.evolve(world, 2, null);
+    assertEquals(1000, facade.getAsteroidPosition(resting)[0], EPSILON);
+    facade.evolve(world, 4, null);
+    assertTrue(facade.getAsteroidVelocity(resting)[0] > 0);
+    assertTrue(facade.getAsteroidPosition(resting)[0] > 1000);
+    assertEquals(3000, facade.getAsteroidPosition(farAway)[0], EPSILON);
+    assertEquals(resting, facade.getEntityAt(world, facade.getAsteroidPosition(resting)[0],
+        facade.getAsteroidPosition(resting)[1]));
+    score += 3;
+  }
+
+  @Test
+  public void testTimeNextCollision_AfterEvolveAndThrust() throws ModelException {
+    max_score += 3;
+    World world = facade.createWorld(5000, 5000);
+    Ship ship = facade.createShip(1000, 1000, 10, 0, 20, 0, 1.0E20);
+    Asteroid asteroid = facade.createAsteroid(1500, 1000, 0, 0, 20);
+    facade.addShipToWorld(world, ship);
+    facade.addAsteroidToWorld(world, asteroid);
+    double before = facade.getTimeNextCollision(world);
+    assertEquals(46, before, EPSILON);
+    facade.evolve(world, 6, null);
+    assertEquals(40, facade.getTimeNextCollision(world), EPSILON);
+    facade.setThrusterActive(ship, true);
+    facade.evolve(world, 1, null);
+    facade.setThrusterActive(ship, false);
+    assertTrue(facade.getTimeNextCollision(world) < 39 - EPSILON);
+    score += 3;
+  }
+
+  @Test
+  public void testEvolve_ThrustingShipFromRestHitsAsteroid() throws ModelException {
+    max_score += 3;
+    World world = facade.createWorld(5000, 5000);
+    Ship ship = facade.createShip(1000, 1000, 0, 0, 20, 0, 1);
+    Asteroid asteroid = facade.createAsteroid(1500, 1000, 0, 0, 20);
+    facade.addShipToWorld(world, ship);
+    facade.addAsteroidToWorld(world, asteroid);
+    facade.setThrusterActive(ship, true);
+    double acceleration = facade.getShipAcceleration(ship);
+    double expected = Math.sqrt(2 * 460 / acceleration);
+    assertEquals(expected, facade.getTimeNextCollision(world), EPSILON);
+    facade.evolve(world, 2 * expected, null);
+    assertTrue(facade.isTerminatedShip(ship));
+    assertFalse(facade.isTerminatedAsteroid(asteroid));
+    score += 3;
+  }
+
+  @Test
+  public void testGetEntitiesInRectangle() throws ModelException {
+    max_score += 2;
+    World world = facade.createWorld(10000, 10000);
+    Asteroid inside = facade.createAsteroid(500, 500, 0, 0, 20);
+    Asteroid touching = facade.createAsteroid(1010, 500, 0, 0, 20);
+    Asteroid outside = facade.createAsteroid(5000, 5000, 0, 0, 20);
+    facade.addAsteroidToWorld(world, inside);
+    facade.addAsteroidToWorld(world, touching);
+    facade.addAsteroidToWorld(world, outside);
+    Set<? extends Object> visible = facade.getEntitiesInRectangle(world, 0, 0, 1000, 1000);
+    assertEquals(2, visible.size());
+    assertTrue(visible.contains(inside));
+    assertTrue(visible.contains(touching));
+    assertFalse(visible.contains(outside));
+    score += 2;
+  }
+
+  @Test
+  public void testGetEntitiesInRectangle_EmptyRectangle() throws ModelException {
+    try {
+      max_score += 1;
+      World world = facade.createWorld(1000, 1000);
+      facade.getEntitiesInRectangle(world, 100, 0, 0, 100);
+      fail();
+    } catch (ModelException exc) {
+      score += 1;
+    }
+  }
+
+  @Test
+  public void testFileSoundManager_PolyphonicWithSilentMixer() throws InterruptedException {
+    max_score += 3;
+    FileSoundManager sound = new FileSoundManager("asteroids/resources/sounds.txt", new SilentMixer(), 4);
+    assertTrue(sound.getSounds().contains("torpedo"));
+    sound.start();
+    for (int i = 0; i < 6; i++)
+      sound.play("torpedo");
+    long deadline = System.currentTimeMillis() + 5000;
+    while (sound.getExecutedRequestCount() < 6 && System.currentTimeMillis() < deadline)
+      Thread.sleep(1);
+    assertEquals(6, sound.getExecutedRequestCount());
+    assertEquals(4, sound.getActiveVoiceCount("torpedo"));
+    assertEquals(2, sound.getStolenVoiceCount());
+    assertEquals(6, sound.getStartedSoundCount());
+    assertTrue(sound.getMaximumLatencyMillis() >= sound.getAverageLatencyMillis());
+    sound.stop("torpedo");
+    sound.close();
+    score += 3;
+  }
+
+  @Test
+  public void testCompileString_NewProgramForEveryShip() throws ModelException {
+    max_score += 2;
+    ProgramParser<?, ?, ?, Program> parser = ProgramParser.create(programFactory);
+    Supplier<Program> supplier = parser.compileString("print 1.0;").getSuccessValue();
+    Program first = supplier.get();
+    Program second = supplier.get();
+    assertTrue(first != second);
+    Ship ship1 = facade.createShip(100, 100, 0, 0, 30, 0, 1.0E20);
+    Ship ship2 = facade.createShip(300, 100, 0, 0, 30, 0, 1.0E20);
+    World world = facade.createWorld(1000, 1000);
+    facade.addShipToWorld(world, ship1);
+    facade.addShipToWorld(world, ship2);
+    facade.loadProgramOnShip(ship1, first);
+    facade.loadProgramOnShip(ship2, second);
+    assertEquals(1, facade.executeProgram(ship1, 1).size());
+    assertEquals(1, facade.executeProgram(ship2, 1).size());
+    score += 2;
+  }
+
+  @Test
+  public void testTournamentRunner_RoundRobin() throws InterruptedException {
+    max_score += 2;
+    ProgramParser<?, ?, ?, Program> parser = ProgramParser.create(programFactory);
+    Map<String, Supplier<Program>> programs = new LinkedHashMap<>();
+    programs.put("a", parser.compileString("while (1.0 < 2.0) { fire; skip; }").getSuccessValue());
+    programs.put("b", parser.compileString("thrust;").getSuccessValue());
+    programs.put("c", parser.compileString("while (1.0 < 2.0) { skip; }").getSuccessValue());
+    TournamentRunner runner = new TournamentRunner(new Scenario(), programs, 2);
+    List<MatchResult> results = new ArrayList<>();
+    TournamentRunner.Summary summary = runner.run(2, results::add);
+    assertEquals(6, summary.getMatches());
+    assertEquals(6, results.size());
+    for (MatchResult result : results)
+      assertNull(result.getError());
+    score += 2;
+  }
+
+  @Test
+  public void testProgramCache_HitsAndEviction() {
+    max_score += 2;
+    ProgramCache<?, ?, ?, Program> cache = new ProgramCache<>(programFactory, 2);
+    Program first = cache.getProgram("print 1.0;");
+    Program second = cache.getProgram("print 1.0;");
+    assertNotNull(first);
+    assertTrue(first != second);
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+    assertTrue(cache.compileString("print (;").isFail());
+    assertTrue(cache.compileString("print (;").isFail());
+    assertEquals(2, cache.getHitCount());
+    cache.getProgram("print 2.0;");
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+    // the least recently used text was evicted
+    cache.getProgram("print 1.0;");
+    assertEquals(4, cache.getMissCount());
+    score += 2;
+  }
+
+  @Test
+  public void testProgramCache_ConcurrentParsesShareResult() throws InterruptedException {
+    max_score += 2;
+    ProgramCache<?, ?, ?, Program> cache = new ProgramCache<>(programFactory);
+    List<Thread> threads = new ArrayList<>();
+    List<Program> programs = Collections.synchronizedList(new ArrayList<>());
+    for (int i = 0; i < 8; i++) {
+      String text = "print " + (i % 2) + ".0;";
+      Thread thread = new Thread(() -> programs.add(cache.getProgram(text)));
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads)
+      thread.join();
+    assertEquals(8, programs.size());
+    assertFalse(programs.contains(null));
+    assertEquals(2, cache.getMissCount());
+    assertEquals(6, cache.getHitCount());
+    score += 2;
+  }
+
+  @Test
+  public void testProgramCache_SharedByParsers() throws IOException {
+    max_score += 2;
+    ProgramFactory factory = new ProgramFactory();
+    ProgramCache<MyExpression, MyStatement, MyFunction, Program> cache = new ProgramCache<>(factory);
+    Path file = Files.createTempFile("program", ".txt");
+    try {
+      Files.write(file, "print 1.0;".getBytes(StandardCharsets.UTF_8));
+      for (int i = 0; i < 3; i++) {
+        ProgramParser<MyExpression, MyStatement, MyFunction, Program> parser = ProgramParser.create(factory);
+        parser.setCache(cache);
+        assertNotNull(parser.parseString("print 1.0;").getSuccessValue());
+        assertNotNull(parser.parseFile(file.toUri().toURL()).getSuccessValue());
+        assertTrue(parser.parseString("print (;").isFail());
+        assertFalse(parser.getErrors().isEmpty());
+      }
+    } finally {
+      Files.delete(file);
+    }
+    // the file has the same text as the string
+    assertEquals(2, cache.getMissCount());
+    assertEquals(7, cache.getHitCount());
+    try {
+      ProgramParser.create(new ProgramFactory()).setCache(cache);
+      fail();
+    } catch (IllegalArgumentException exc) {
+      score += 2;
+    }
+  }
+
+  @Test
+  public void testShipMass_TracksMagazine() throws ModelException {
+    max_score += 3;
+    Ship ship = facade.createShip(500, 500, 0, 0, 50, 0, 1.0E20);
+    World world = facade.createWorld(1000, 1000);
+    facade.addShipToWorld(world, ship);
+    double empty = facade.getShipMass(ship);
+    List<Bullet> loaded = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      Bullet bullet = facade.createBullet(500, 500, 0, 0, 1 + i % 3);
+      loaded.add(bullet);
+      facade.loadBulletOnShip(ship, bullet);
+    }
+    double bullets = 0;
+    for (Bullet bullet : loaded)
+      bullets += facade.getBulletMass(bullet);
+    assertEquals(empty + bullets, facade.getShipMass(ship), EPSILON * (empty + bullets));
+    assertEquals(1000, facade.getBulletsOnShip(ship).size());
+    facade.removeBulletFromShip(ship, loaded.get(0));
+    facade.fireBullet(ship);
+    assertEquals(998, facade.getNbBulletsOnShip(ship));
+    for (Bullet bullet : facade.getBulletsOnShip(ship))
+      facade.removeBulletFromShip(ship, bullet);
+    assertEquals(0, facade.getNbBulletsOnShip(ship));
+    assertEquals(empty, facade.getShipMass(ship), 0);
+    score += 3;
+  }
+
+  @Test
+  public void testFireBullet_FirstLoadedFiredFirst() throws ModelException {
+    max_score += 2;
+    World world = facade.createWorld(5000, 5000);
+    Ship ship = facade.createShip(1000, 1000, 0, 0, 50, 0, 1.0E20);
+    facade.addShipToWorld(world, ship);
+    List<Bullet> loaded = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      Bullet bullet = facade.createBullet(1000, 1000, 0, 0, 5);
+      loaded.add(bullet);
+      facade.loadBulletOnShip(ship, bullet);
+    }
+    facade.removeBulletFromShip(ship, loaded.get(0));
+    facade.fireBullet(ship);
+    assertEquals(world, facade.getBulletWorld(loaded.get(1)));
+    facade.evolve(world, 1, null);
+    facade.fireBullet(ship);
+    assertEquals(world, facade.getBulletWorld(loaded.get(2)));
+    assertEquals(ship, facade.getBulletShip(loaded.get(3)));
+    score += 2;
+  }
+
+  @Test
+  public void testFireBullets_VolleyInARow() throws ModelException {
+    max_score += 3;
+    World world = facade.createWorld(5000, 5000);
+    Ship ship = facade.createShip(1000, 1000, 0, 0, 50, 0, 1.0E20);
+    facade.addShipToWorld(world, ship);
+    List<Bullet> loaded = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      Bullet bullet = facade.createBullet(1000, 1000, 0, 0, 5);
+      loaded.add(bullet);
+      facade.loadBulletOnShip(ship, bullet);
+    }
+    facade.fireBullets(ship, 3);
+    assertEquals(2, facade.getNbBulletsOnShip(ship));
+    for (int i = 0; i < 3; i++) {
+      assertEquals(world, facade.getBulletWorld(loaded.get(i)));
+      assertEquals(1000 + 50 + 1 + 5 + i * 11, facade.getBulletPosition(loaded.get(i))[0], EPSILON);
+      assertEquals(1000, facade.getBulletPosition(loaded.get(i))[1], EPSILON);
+    }
+    // the row of the second volley overlaps with the first volley, so its bullets are reloaded
+    facade.fireBullets(ship, 10);
+    assertEquals(2, facade.getNbBulletsOnShip(ship));
+    assertEquals(ship, facade.getBulletShip(loaded.get(3)));
+    facade.evolve(world, 1, null);
+    facade.fireBullets(ship, 10);
+    assertEquals(0, facade.getNbBulletsOnShip(ship));
+    assertEquals(world, facade.getBulletWorld(loaded.get(4)));
+    score += 3;
+  }
+
+  @Test
+  public void testFireBullets_NegativeAmount() throws ModelException {
+    try {
+      max_score += 1;
+      Ship ship = facade.createShip(1000, 1000, 0, 0, 50, 0, 1.0E20);
+      facade.fireBullets(ship, -1);
+      fail();
+    } catch (ModelException exc) {
+      score += 1;
+    }
+  }
+
+  @Test
+  public void testCheckSyntax_TwoStageReportsSameErrors() {
+    max_score += 2;
+    ProgramParser<?, ?, ?, Program> parser = ProgramParser.create(programFactory);
+    assertTrue(parser.isTwoStage());
+    assertTrue(parser.checkSyntax("while (1.0 < 2.0) { fire; skip; }").isEmpty());
+    List<String> twoStage = new ArrayList<>(parser.checkSyntax("while (1.0 < { fire; }"));
+    assertFalse(twoStage.isEmpty());
+    parser.setTwoStage(false);
+    assertEquals(twoStage, parser.checkSyntax("while (1.0 < { fire; }"));
+    score += 2;
+  }
+
+  @Test
+  public void testProgramLoader_DiagnosticsAndUnchangedFiles() throws IOException {
+    max_score += 4;
+    Path folder = Files.createTempDirectory("programs");
+    try {
+      Files.write(folder.resolve("good.txt"), "print 1.0;".getBytes(StandardCharsets.UTF_8));
+      Files.write(folder.resolve("syntax.txt"), "skip;\nprint (;".getBytes(StandardCharsets.UTF_8));
+      Files.write(folder.resolve("factory.txt"), "skip;\n  while self { skip; }".getBytes(StandardCharsets.UTF_8));
+      ProgramLoader<?, ?, ?, Program> loader = new ProgramLoader<>(programFactory);
+
+      ProgramLoader.Result<Program> first = loader.load(folder.toString());
+      assertEquals(3, first.getParsed().size());
+      assertEquals(1, first.getPrograms().size());
+      assertNotNull(first.getPrograms().get("good.txt").get());
+      ProgramDiagnostic syntax = first.getDiagnostics().get("syntax.txt").get(0);
+      assertEquals(ProgramDiagnostic.Kind.SYNTAX, syntax.getKind());
+      assertEquals(2, syntax.getLocation().getLine());
+      ProgramDiagnostic factory = first.getDiagnostics().get("factory.txt").get(0);
+      assertEquals(ProgramDiagnostic.Kind.FACTORY, factory.getKind());
+      assertEquals(2, factory.getLocation().getLine());
+      assertEquals(2, factory.getLocation().getColumn());
+
+      Files.write(folder.resolve("good.txt"), "print 2.0;".getBytes(StandardCharsets.UTF_8));
+      ProgramLoader.Result<Program> second = loader.load(folder.toString());
+      assertEquals(1, second.getParsed().size());
+      assertTrue(second.getParsed().contains("good.txt"));
+      assertEquals(2, second.getUnchanged().size());
+      assertEquals(first.getEntries().get("syntax.txt"), second.getEntries().get("syntax.txt"));
+    } finally {
+      for (String name : new String[] { "good.txt", "syntax.txt", "factory.txt" })
+        Files.deleteIfExists(folder.resolve(name));
+      Files.delete(folder);
+    }
+    score += 4;
+  }
+
+  @Test
+  public void testTypeChecker_RejectsInvalidProgramsBeforeExecution() {
+    max_score += 4;
+    // none of these errors is on a path that would be executed
+    String[] invalids = { "if 2.0 < 1.0 { print g(); }",
+        "def f { return $1 + $2; } if 2.0 < 1.0 { print f(1.0); }",
+        "def f { return x; } if 2.0 < 1.0 { print f(); }",
+        "def f { if 2.0 < 1.0 { fire; } return 1.0; } print f();",
+        "if 2.0 < 1.0 { a := self; }", "if 2.0 < 1.0 { print getx 1.0; }" };
+    for (String code : invalids) {
+      ProgramParser<?, ?, ?, Program> parser = ProgramParser.create(programFactory);
+      assertTrue(code, parser.parseString(code).isFail());
+      assertEquals(code, ProgramDiagnostic.Kind.FACTORY, parser.getDiagnostics().get(0).getKind());
+    }
+    score += 4;
+  }
+
+  @Test
+  public void testTypeChecker_AcceptsUntypedLocalVariables() throws ModelException {
+    max_score += 2;
+    String code = "def f { e := self; d := $1 * 2.0; if e == self { return d + $1; } else { return e; } } "
+        + "a := 1.0; print f(a);";
+    Program program = ProgramParser.parseProgramFromString(code, programFactory);
+    facade.loadProgramOnShip(ship1, program);
+    List<Object> results = facade.executeProgram(ship1, 1.0);
+    assertArrayEquals(new Object[] { 3.0 }, results.toArray());
+    score += 2;
+  }
+
+  @Test
+  public void testFunctionCall_NestedArgumentsKeepTheirFrames() throws ModelException {
+    max_score += 2;
+    String code = "def sub { return $1 + -$2; } def twice { return $1 * 2.0; } "
+        + "print sub(twice(sub(10.0, 4.0)), sub(3.0, twice(1.0)));";
+    Program program = ProgramParser.parseProgramFromString(code, programFactory);
+    facade.loadProgramOnShip(ship1, program);
+    assertArrayEquals(new Object[] { 11.0 }, facade.executeProgram(ship1, 1.0).toArray());
+    score += 2;
+  }
+
+  @Test
+  public void testFunctionCall_MaximumRecursionDepth() throws ModelException {
+    max_score += 3;
+    String code = "def depth { if $1 < 0.5 { return 0.0; } else { return 1.0 + depth($1 + -1.0); } } "
+        + "print depth(256.0);";
+    Program program = ProgramParser.parseProgramFromString(code, programFactory);
+    facade.loadProgramOnShip(ship1, program);
+    try {
+      facade.executeProgram(ship1, 1.0);
+      fail();
+    } catch (ModelException exc) {
+      // the invocation nests too deep
+    }
+    code = "def depth { if $1 < 0.5 { return 0.0; } else { return 1.0 + depth($1 + -1.0); } } "
+        + "print depth(255.0); print depth(255.0);";
+    program = ProgramParser.parseProgramFromString(code, programFactory);
+    facade.loadProgramOnShip(ship2, program);
+    assertArrayEquals(new Object[] { 255.0, 255.0 }, facade.executeProgram(ship2, 1.0).toArray());
+    score += 3;
+  }
+
+  @Test
+  public void testMemoization_PureFunctionsOnly() throws ModelException {
+    max_score += 4;
+    String code = "def sq { return $1 * $1; } def dist { return sqrt (sq($1) + sq($2)); } "
+        + "def far { return (getx self) + $1; } "
+        + "n := 0.0; while n < 10.0 { a := dist(3.0, 4.0); b := far(1.0); n := n + 1.0; } print a;";
+    ProgramFactory factory = new ProgramFactory();
+    assertTrue(factory.isMemoizing());
+    Program program = ProgramParser.parseProgramFromString(code, factory);
+    facade.loadProgramOnShip(ship1, program);
+    assertArrayEquals(new Object[] { 5.0 }, facade.executeProgram(ship1, 1.0).toArray());
+    // dist is computed once, with two invocations of sq; far reads the ship, so it is not memoized
+    assertEquals(9, program.getMemoizedHitCount());
+    assertEquals(3, program.getMemoizedMissCount());
+    assertEquals(0.75, program.getMemoizedHitRate(), EPSILON);
+
+    factory.setMemoizing(false);
+    program = ProgramParser.parseProgramFromString(code, factory);
+    facade.loadProgramOnShip(ship2, program);
+    assertArrayEquals(new Object[] { 5.0 }, facade.executeProgram(ship2, 1.0).toArray());
+    assertEquals(0, program.getMemoizedHitCount() + program.getMemoizedMissCount());
+    score += 4;
+  }
+
+  @Test
+  public void testConstantFolding_KeepsErrorsForExecution() throws ModelException {
+    max_score += 2;
+    Program program = ProgramParser.parseProgramFromString("print (2.0 * -3.0) + 1.0; print sqrt 4.0;", programFactory);
+    facade.loadProgramOnShip(ship1, program);
+    assertArrayEquals(new Object[] { -5.0, 2.0 }, facade.executeProgram(ship1, 1.0).toArray());
+    program = ProgramParser.parseProgramFromString("print sqrt -4.0;", programFactory);
+    assertNotNull(program);
+    facade.loadProgramOnShip(ship2, program);
+    try {
+      facade.executeProgram(ship2, 1.0);
+      fail();
+    } catch (ModelException exc) {
+      score += 2;
+    }
+  }
+
+  @Test
+  public void testCollisionListener_NotifiedAfterTheStep() throws ModelException {
+    max_score += 3;
+    World world = facade.createWorld(1000, 1000);
+    Asteroid asteroid = facade.createAsteroid(100, 500, 0, 0, 20);
+    Bullet bullet = facade.createBullet(200, 500, -50, 0, 5);
+    facade.addAsteroidToWorld(world, asteroid);
+    facade.addBulletToWorld(world, bullet);
+    List<Object> collided = new ArrayList<>();
+    facade.evolve(world, 2.0, new CollisionListener() {
+
+      @Override
+      public void boundaryCollision(Object entity, double x, double y) {
+        fail();
+      }
+
+      @Override
+      public void objectCollision(Object entity1, Object entity2, double x, double y) {
+        // the step has been completed when the listener is notified
+        assertTrue(asteroid.isEntityTerminated() && bullet.isEntityTerminated());
+        assertEquals(120, x, EPSILON);
+        assertEquals(500, y, EPSILON);
+        collided.add(entity1);
+        collided.add(entity2);
+      }
+    });
+    assertEquals(new HashSet<>(collided), new HashSet<>(Arrays.asList(asteroid, bullet)));
+    score += 3;
+  }
+
+  @Test
+  public void testCollisionListener_BatchOnExecutor() throws ModelException {
+    max_score += 3;
+    World world = facade.createWorld(1000, 1000);
+    Asteroid asteroid = facade.createAsteroid(100, 500, 0, 0, 20);
+    Bullet bullet = facade.createBullet(200, 500, -50, 0, 5);
+    facade.addAsteroidToWorld(world, asteroid);
+    facade.addBulletToWorld(world, bullet);
+    List<Runnable> tasks = new ArrayList<>();
+    Executor executor = tasks::add;
+    world.setCollisionExecutor(executor);
+    assertEquals(executor, world.getCollisionExecutor());
+    List<CollisionBatch> batches = new ArrayList<>();
+    CollisionBatchListener listener = new CollisionBatchListener() {
+
+      @Override
+      public void boundaryCollision(Object entity, double x, double y) {
+        fail();
+      }
+
+      @Override
+      public void objectCollision(Object entity1, Object entity2, double x, double y) {
+        fail();
+      }
+
+      @Override
+      public void collisionBatch(CollisionBatch batch) {
+        batches.add(batch);
+      }
+    };
+    facade.evolve(world, 1.0, listener);
+    // steps without collisions are not handed to the executor
+    assertTrue(tasks.isEmpty());
+    facade.evolve(world, 1.0, listener);
+    assertEquals(1, tasks.size());
+    assertTrue(batches.isEmpty());
+    // the batch on the executor does not change when the world evolves further
+    facade.evolve(world, 1.0, listener);
+    tasks.get(0).run();
+    assertEquals(1, batches.size());
+    CollisionBatch batch = batches.get(0);
+    assertEquals(1, batch.size());
+    assertFalse(batch.isBoundaryCollision(0));
+    assertEquals(120, batch.getX(0), EPSILON);
+    assertEquals(500, batch.getY(0), EPSILON);
+    score += 3;
+  }
+
+  @Test
+  public void testCollisionListener_FailureOfTheStepIsKept() throws ModelException {
+    max_score += 2;
+    World world = facade.createWorld(1000, 1000);
+    facade.addAsteroidToWorld(world, facade.createAsteroid(100, 500, 0, 0, 20));
+    facade.addBulletToWorld(world, facade.createBullet(200, 500, -50, 0, 5));
+    IllegalStateException stepFailure = new IllegalStateException("sink");
+    IllegalStateException listenerFailure = new IllegalStateException("listener");
+    world.setTelemetrySink(statistics -> {
+      throw stepFailure;
+    });
+    List<Object> collided = new ArrayList<>();
+    try {
+      world.evolve(2.0, new CollisionListener() {
+
+        @Override
+        public void boundaryCollision(Object entity, double x, double y) {
+          fail();
+        }
+
+        @Override
+        public void objectCollision(Object entity1, Object entity2, double x, double y) {
+          collided.add(entity1);
+          throw listenerFailure;
+        }
+      });
+      fail();
+    } catch (IllegalStateException exc) {
+      // the collisions are still delivered, and the failure of the listener does not hide the failure of the step
+      assertTrue(exc == stepFailure);
+      assertArrayEquals(new Throwable[] { listenerFailure }, exc.getSuppressed());
+      assertEquals(1, collided.size());
+      score += 2;
+    }
+  }
+
+  private static void recordProfilerHit(Profiler.Probe probe, long nanos) throws ReflectiveOperationException {
+    Method record = Profiler.class.getDeclaredMethod("record", Profiler.Probe.class, long.class);
+    record.setAccessible(true);
+    record.invoke(null, probe, nanos);
+  }
+
+  @Test
+  public void testProfiler_DisabledProbesDoNothing() throws ModelException {
+    max_score += 1;
+    // the tests run without -Dasteroids.profiling
+    assertFalse(Profiler.ENABLED);
+    Profiler.getProfiler().reset();
+    assertEquals(0, Profiler.start());
+    World world = facade.createWorld(1000, 1000);
+    facade.addShipToWorld(world, facade.createShip(100, 100, -10, 0, 50, 0, 1.0E20));
+    facade.evolve(world, 10, null);
+    for (long calls : Profiler.getProfiler().getCallCounts().values())
+      assertEquals(0, calls);
+    score += 1;
+  }
+
+  @Test
+  public void testProfiler_CountsHitsAndResets() throws ReflectiveOperationException {
+    max_score += 2;
+    ProfilerMXBean profiler = Profiler.getProfiler();
+    profiler.reset();
+    recordProfilerHit(Profiler.Probe.EVOLVE, 100);
+    recordProfilerHit(Profiler.Probe.EVOLVE, 300);
+    recordProfilerHit(Profiler.Probe.NEXT_COLLISION, 50);
+    assertEquals(Profiler.Probe.values().length, profiler.getCallCounts().size());
+    assertEquals(2L, (long) profiler.getCallCounts().get("EVOLVE"));
+    assertEquals(400L, (long) profiler.getTotalNanos().get("EVOLVE"));
+    assertEquals(300L, (long) profiler.getMaximumNanos().get("EVOLVE"));
+    assertEquals(200.0, profiler.getAverageNanos().get("EVOLVE"), EPSILON);
+    assertEquals(1L, (long) profiler.getCallCounts().get("NEXT_COLLISION"));
+    assertEquals(0.0, profiler.getAverageNanos().get("OVERLAP_CHECK"), EPSILON);
+    profiler.reset();
+    for (Profiler.Probe probe : Profiler.Probe.values()) {
+      assertEquals(0L, (long) profiler.getCallCounts().get(probe.name()));
+      assertEquals(0L, (long) profiler.getTotalNanos().get(probe.name()));
+      assertEquals(0L, (long) profiler.getMaximumNanos().get(probe.name()));
+    }
+    score += 2;
+  }
+
+  @Test
+  public void testProfiler_ReadableAsMXBean() throws ReflectiveOperationException, JMException {
+    max_score += 1;
+    Profiler.getProfiler().reset();
+    recordProfilerHit(Profiler.Probe.OVERLAP_CHECK, 10);
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(Profiler.OBJECT_NAME);
+    Method register = Profiler.class.getDeclaredMethod("register");
+    register.setAccessible(true);
+    register.invoke(null);
+    try {
+      assertTrue(server.isRegistered(name));
+      ProfilerMXBean proxy = JMX.newMXBeanProxy(server, name, ProfilerMXBean.class);
+      assertEquals(1L, (long) proxy.getCallCounts().get("OVERLAP_CHECK"));
+      proxy.reset();
+      assertEquals(0L, (long) Profiler.getProfiler().getCallCounts().get("OVERLAP_CHECK"));
+    } finally {
+      server.unregisterMBean(name);
+    }
+    score += 1;
+  }
+
+  private interface CollisionSetup {
+    void addEntities(World world) throws ModelException;
+  }
+
+  /**
+   * Evolves the world of the setup until just before and just after its first collision, as found by the search
+   * without a horizon, and checks that the collision is only resolved when it happens within the evolving time.
+   */
+  private void assertCollisionOnlyWithinHorizon(CollisionSetup setup) throws ModelException {
+    World world = facade.createWorld(10000, 10000);
+    setup.addEntities(world);
+    double time = world.getTimeNextCollision();
+    assertTrue(time > 0.5 && time < 10);
+    for (double dt : new double[] { time - 0.01, time + 0.01 }) {
+      world = facade.createWorld(10000, 10000);
+      setup.addEntities(world);
+      List<Entity> entities = new ArrayList<>(world.getWorldEntities());
+      double[] expected = new double[entities.size() * 2];
+      for (int i = 0; i < entities.size(); i++) {
+        Entity entity = entities.get(i);
+        expected[i * 2] = entity.getEntityPositionX() + entity.getEntityVelocityX() * dt;
+        expected[i * 2 + 1] = entity.getEntityPositionY() + entity.getEntityVelocityY() * dt;
+      }
+      facade.evolve(world, dt, null);
+      boolean collided = false;
+      for (int i = 0; i < entities.size(); i++) {
+        Entity entity = entities.get(i);
+        collided |= entity.isEntityTerminated() || Math.abs(entity.getEntityPositionX() - expected[i * 2]) > EPSILON
+            || Math.abs(entity.getEntityPositionY() - expected[i * 2 + 1]) > EPSILON;
+      }
+      assertEquals(dt > time, collided);
+    }
+  }
+
+  private void addRestingAsteroids(World world, int count) throws ModelException {
+    for (int i = 0; i < count; i++)
+      facade.addAsteroidToWorld(world, facade.createAsteroid(100 + (i % 90) * 100, 9500 - (i / 90) * 100, 0, 0, 10));
+  }
+
+  @Test
+  public void testTimeNextCollision_HorizonEdgeOfPair() throws ModelException {
+    max_score += 2;
+    assertCollisionOnlyWithinHorizon(world -> {
+      facade.addAsteroidToWorld(world, facade.createAsteroid(100, 500, 0, 0, 20));
+      facade.addBulletToWorld(world, facade.createBullet(200, 500, -50, 0, 5));
+    });
+    // two moving entities that start in different cells
+    assertCollisionOnlyWithinHorizon(world -> {
+      facade.addAsteroidToWorld(world, facade.createAsteroid(1000, 5000, 200, 0, 20));
+      facade.addAsteroidToWorld(world, facade.createAsteroid(3000, 5000, -200, 0, 20));
+    });
+    score += 2;
+  }
+
+  @Test
+  public void testTimeNextCollision_HorizonEdgeOfBoundary() throws ModelException {
+    max_score += 2;
+    assertCollisionOnlyWithinHorizon(world -> {
+      facade.addShipToWorld(world, facade.createShip(9800, 5000, 100, 0, 50, 0, 1.0E20));
+    });
+    // resting entities elsewhere in the world do not hide the wall
+    assertCollisionOnlyWithinHorizon(world -> {
+      facade.addShipToWorld(world, facade.createShip(5000, 1000, 0, -500, 50, 0, 1.0E20));
+      addRestingAsteroids(world, 20);
+    });
+    score += 2;
+  }
+
+  @Test
+  public void testTimeNextCollision_FastEntityCrossesManyCells() throws ModelException {
+    max_score += 3;
+    // the swept region is looked up cell by cell
+    assertCollisionOnlyWithinHorizon(world -> {
+      facade.addBulletToWorld(world, facade.createBullet(100, 5000, 4000, 10, 5));
+      facade.addAsteroidToWorld(world, facade.createAsteroid(8000, 5020, 0, 0, 30));
+      addRestingAsteroids(world, 180);
+    });
+    // with few entities the lookup falls back on every entity
+    assertCollisionOnlyWithinHorizon(world -> {
+      facade.addBulletToWorld(world, facade.createBullet(100, 5000, 4000, 10, 5));
+      facade.addAsteroidToWorld(world, facade.createAsteroid(8000, 5020, 0, 0, 30));
+    });
+    // a diagonal region covers too many cells to be looked up cell by cell
+    assertCollisionOnlyWithinHorizon(world -> {
+      facade.addBulletToWorld(world, facade.createBullet(100, 100, 3000, 3000, 5));
+      facade.addAsteroidToWorld(world, facade.createAsteroid(5000, 5010, 0, 0, 30));
+      addRestingAsteroids(world, 180);
+    });
+    score += 3;
+  }
+
+  @Test
+  public void testTimeNextCollision_OversizedEntities() throws ModelException {
+    max_score += 2;
+    // a resting entity that covers too many cells to be put in them
+    assertCollisionOnlyWithinHorizon(world -> {
+      facade.addAsteroidToWorld(world, facade.createAsteroid(5000, 5000, 0, 0, 600));
+      facade.addBulletToWorld(world, facade.createBullet(3000, 5000, 500, 0, 5));
+      addRestingAsteroids(world, 20);
+    });
+    // a moving one
+    assertCollisionOnlyWithinHorizon(world -> {
+      facade.addAsteroidToWorld(world, facade.createAsteroid(3000, 5000, 300, 0, 600));
+      facade.addAsteroidToWorld(world, facade.createAsteroid(4500, 5000, 0, 0, 20));
+      addRestingAsteroids(world, 20);
+    });
+    score += 2;
+  }
+
+  @Test
+  public void testImpactCache_CoastingShipsStayCached() throws ModelException {
+    max_score += 2;
+    World world = facade.createWorld(1000, 1000);
+    // two ships that fly side by side, in neighbouring cells
+    facade.addShipToWorld(world, facade.createShip(100, 500, 10, 0, 30, 0, 1.0E20));
+    facade.addShipToWorld(world, facade.createShip(100, 570, 10, 0, 30, 0, 1.0E20));
+    facade.evolve(world, 1, null);
+    long misses = world.getImpactCacheMissCount();
+    long hits = world.getImpactCacheHitCount();
+    assertEquals(3, misses);
+    facade.evolve(world, 1, null);
+    // the boundaries and the pair of the ships are taken from the cache
+    assertEquals(misses, world.getImpactCacheMissCount());
+    assertEquals(hits + 3, world.getImpactCacheHitCount());
+    score += 2;
+  }
+
+  @Test
+  public void testImpactCache_RemovedEntityLeavesTheCache() throws ModelException {
+    max_score += 3;
+    World world = facade.createWorld(1000, 1000);
+    Ship first = facade.createShip(100, 500, 10, 0, 30, 0, 1.0E20);
+    Ship removed = facade.createShip(100, 570, 10, 0, 30, 0, 1.0E20);
+    Ship last = facade.createShip(100, 640, 10, 0, 30, 0, 1.0E20);
+    facade.addShipToWorld(world, first);
+    facade.addShipToWorld(world, removed);
+    facade.addShipToWorld(world, last);
+    facade.evolve(world, 1, null);
+    int size = world.getImpactCacheSize();
+    facade.removeShipFromWorld(world, removed);
+    // the boundary and both pairs of the ship are gone, the other ships keep their entries
+    assertEquals(size - 3, world.getImpactCacheSize());
+    long misses = world.getImpactCacheMissCount();
+    facade.evolve(world, 1, null);
+    assertEquals(misses, world.getImpactCacheMissCount());
+    // the ship has not changed its motion, but its times of impact are computed again
+    facade.addShipToWorld(world, removed);
+    facade.evolve(world, 1, null);
+    assertEquals(misses + 3, world.getImpactCacheMissCount());
+    score += 3;
+  }
+
+  @Test
+  public void testWorldSnapshot_QueriesEveryEntityOnce() throws ModelException {
+    max_score += 3;
+    World world = facade.createWorld(2000, 2000);
+    Ship ship = facade.createShip(100, 100, 10, 0, 50, 0.5, 1.0E20);
+    Ship farShip = facade.createShip(1900, 1900, 0, 0, 50, 0, 1.0E20);
+    Bullet bullet = facade.createBullet(300, 100, 0, 0, 5);
+    Asteroid asteroid = facade.createAsteroid(500, 500, 0, 0, 30);
+    facade.addShipToWorld(world, ship);
+    facade.addShipToWorld(world, farShip);
+    facade.addBulletToWorld(world, bullet);
+    facade.addAsteroidToWorld(world, asteroid);
+    facade.setThrusterActive(ship, true);
+
+    Map<List<Object>, Integer> calls = new LinkedHashMap<>();
+    IFacade counting = (IFacade) java.lang.reflect.Proxy.newProxyInstance(IFacade.class.getClassLoader(),
+        new Class<?>[] { IFacade.class }, (proxy, method, args) -> {
+          calls.merge(Arrays.asList(method.getName(), args[0]), 1, Integer::sum);
+          try {
+            return method.invoke(facade, args);
+          } catch (java.lang.reflect.InvocationTargetException exc) {
+            throw exc.getCause();
+          }
+        });
+    WorldSnapshot snapshot = WorldSnapshot.of(counting, world, 0, 0, 1000, 1000, (f, entity, result) -> {
+      if (entity instanceof Asteroid)
+        result.add(entity, f.getAsteroidPosition((Asteroid) entity), f.getAsteroidRadius((Asteroid) entity), 0, false);
+    });
+    Map<List<Object>, Integer> taken = new LinkedHashMap<>(calls);
+    for (int count : taken.values())
+      assertEquals(1, count);
+
+    // drawing frames from the snapshot does not reach the facade
+    for (int frame = 0; frame < 10; frame++) {
+      for (Object entity : snapshot.getEntities()) {
+        snapshot.getX(entity);
+        snapshot.getY(entity);
+        snapshot.getRadius(entity);
+        snapshot.getOrientation(entity);
+        snapshot.isThrusterActive(entity);
+      }
+      snapshot.getShips();
+    }
+    assertEquals(taken, calls);
+
+    assertEquals(new HashSet<>(Arrays.asList(ship, bullet, asteroid)), snapshot.getEntities());
+    assertEquals(new HashSet<>(Arrays.asList(ship, farShip)), snapshot.getShips());
+    assertEquals(100, snapshot.getX(ship), EPSILON);
+    assertEquals(50, snapshot.getRadius(ship), EPSILON);
+    assertEquals(0.5, snapshot.getOrientation(ship), EPSILON);
+    assertTrue(snapshot.isThrusterActive(ship));
+    assertEquals(300, snapshot.getX(bullet), EPSILON);
+    assertEquals(500, snapshot.getY(asteroid), EPSILON);
+    assertTrue(snapshot.covers(0, 0, 1000, 1000));
+    assertFalse(snapshot.covers(0, 0, 1000, 1200));
+    assertFalse(snapshot.contains(farShip));
+    score += 3;
+  }
+
+  private static Visualization<IFacade, Object> blankVisualization(Object object) {
+    return new Visualization<IFacade, Object>(null, object, null) {
+      @Override
+      public void draw(DrawContext<IFacade> ctx) {
+      }
+    };
+  }
+
+  private static void drawFrame(VisualizationCache<IFacade> visualizations, WorldSnapshot snapshot) {
+    visualizations.startFrame();
+    for (Object entity : snapshot.getEntities())
+      visualizations.getOrCreate(entity, Tests::blankVisualization);
+    visualizations.endFrame(snapshot.getShips());
+  }
+
+  @Test
+  public void testVisualizationCache_ReleasesRemovedEntities() throws ModelException {
+    max_score += 3;
+    World world = facade.createWorld(2000, 2000);
+    Ship ship = facade.createShip(100, 100, 0, 0, 50, 0, 1.0E20);
+    Ship farShip = facade.createShip(1900, 1900, 0, 0, 50, 0, 1.0E20);
+    Bullet bullet = facade.createBullet(300, 100, 0, 0, 5);
+    Asteroid asteroid = facade.createAsteroid(500, 500, 0, 0, 30);
+    facade.addShipToWorld(world, ship);
+    facade.addShipToWorld(world, farShip);
+    facade.addBulletToWorld(world, bullet);
+    facade.addAsteroidToWorld(world, asteroid);
+    WorldSnapshot.EntityReader<IFacade> reader = (f, entity, result) -> {
+      if (entity instanceof Asteroid)
+        result.add(entity, f.getAsteroidPosition((Asteroid) entity), f.getAsteroidRadius((Asteroid) entity), 0, false);
+    };
+    VisualizationCache<IFacade> visualizations = new VisualizationCache<>();
+    visualizations.put(farShip, blankVisualization(farShip));
+
+    drawFrame(visualizations, WorldSnapshot.of(facade, world, 0, 0, 1000, 1000, reader));
+    drawFrame(visualizations, WorldSnapshot.of(facade, world, 0, 0, 1000, 1000, reader));
+    assertEquals(4, visualizations.size());
+    Visualization<IFacade, ?> shipVisualization = visualizations.get(ship);
+
+    facade.removeBulletFromWorld(world, bullet);
+    facade.terminateAsteroid(asteroid);
+    drawFrame(visualizations, WorldSnapshot.of(facade, world, 0, 0, 1000, 1000, reader));
+    assertEquals(2, visualizations.size());
+    assertNull(visualizations.get(bullet));
+    assertNull(visualizations.get(asteroid));
+    // the ships keep their visualization, also the one outside of the view
+    assertTrue(shipVisualization == visualizations.get(ship));
+    assertNotNull(visualizations.get(farShip));
+
+    facade.removeShipFromWorld(world, farShip);
+    drawFrame(visualizations, WorldSnapshot.of(facade, world, 0, 0, 1000, 1000, reader));
+    assertEquals(1, visualizations.size());
+    score += 3;
+  }
+
+}